@@ -0,0 +1,75 @@
+package umontreal.iro.lecuyer.benchmarks;
+
+import umontreal.iro.lecuyer.rng.MRG32k3a;
+import umontreal.iro.lecuyer.simevents.Event;
+import umontreal.iro.lecuyer.simevents.Simulator;
+import umontreal.iro.lecuyer.simevents.eventlist.*;
+
+// Event lists and random numbers shared by the benchmarks.
+final class BenchUtil {
+   private BenchUtil() {}
+
+   // Number of precomputed random values; a power of 2.
+   static final int NUM_VALUES = 1 << 16;
+   static final int MASK = NUM_VALUES - 1;
+
+   static EventList newList (String name) {
+      if (name.equals ("DoublyLinked"))  return new DoublyLinked();
+      if (name.equals ("SplayTree"))     return new SplayTree();
+      if (name.equals ("BinaryTree"))    return new BinaryTree();
+      if (name.equals ("RedblackTree"))  return new RedblackTree();
+      if (name.equals ("Henriksen"))     return new Henriksen();
+      if (name.equals ("CalendarQueue")) return new CalendarQueue();
+      if (name.equals ("DaryHeap"))      return new DaryHeap();
+      throw new IllegalArgumentException ("Unknown event list: " + name);
+   }
+
+   // Returns a stream with a fixed seed, so that every run of a benchmark
+   // uses the same random numbers.
+   static MRG32k3a newStream (long seed) {
+      MRG32k3a stream = new MRG32k3a();
+      stream.setSeed (new long[] { seed, seed, seed, seed, seed, seed });
+      return stream;
+   }
+
+   // Returns NUM_VALUES random delays: exponential with mean 1, uniform
+   // over (0, 2), or integer in {0,...,4}, which gives many ties.
+   static double[] delays (String dist, long seed) {
+      MRG32k3a stream = newStream (seed);
+      double[] d = new double[NUM_VALUES];
+      for (int i = 0; i < NUM_VALUES; i++) {
+         if (dist.equals ("exponential"))
+            d[i] = -Math.log (stream.nextDouble());
+         else if (dist.equals ("uniform"))
+            d[i] = 2.0 * stream.nextDouble();
+         else if (dist.equals ("integer"))
+            d[i] = stream.nextInt (0, 4);
+         else
+            throw new IllegalArgumentException ("Unknown distribution: " + dist);
+      }
+      return d;
+   }
+
+   // Returns NUM_VALUES random integers in {0,...,n-1}.
+   static int[] indices (int n, long seed) {
+      MRG32k3a stream = newStream (seed);
+      int[] k = new int[NUM_VALUES];
+      for (int i = 0; i < NUM_VALUES; i++)
+         k[i] = stream.nextInt (0, n - 1);
+      return k;
+   }
+
+   // An event whose time can be set while it is in an event list, for
+   // the benchmarks using the lists directly. It is never executed.
+   static final class ListEvent extends Event {
+      ListEvent (Simulator sim) {
+         super (sim);
+      }
+
+      void setEventTime (double time) {
+         eventTime = time;
+      }
+
+      public void actions() {}
+   }
+}
@@ -0,0 +1,71 @@
+package umontreal.iro.lecuyer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import umontreal.iro.lecuyer.simevents.Event;
+import umontreal.iro.lecuyer.simevents.Simulator;
+
+/*
+ * The scheduling methods of Event, with size events pending in the
+ * event list of a simulator which is not started, so the list size
+ * does not change.
+ *
+ *  scheduleCancel   schedules an event after a random delay, then cancels it.
+ *  reschedule       reschedules a random pending event after a random delay.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class EventBench {
+
+   @Param({ "SplayTree", "BinaryTree", "RedblackTree", "Henriksen",
+            "CalendarQueue", "DaryHeap" })
+   public String list;
+
+   @Param({ "100", "10000" })
+   public int size;
+
+   private Event[] events;
+   private Event extra;
+   private double[] delays;
+   private int[] indices;
+   private int k;
+
+   static final class NullEvent extends Event {
+      NullEvent (Simulator sim) {
+         super (sim);
+      }
+
+      public void actions() {}
+   }
+
+   @Setup(Level.Trial)
+   public void setup() {
+      Simulator sim = new Simulator (BenchUtil.newList (list));
+      sim.init();
+      delays = BenchUtil.delays ("exponential", 12345);
+      indices = BenchUtil.indices (size, 54321);
+      events = new Event[size];
+      for (int i = 0; i < size; i++) {
+         events[i] = new NullEvent (sim);
+         events[i].schedule (delays[k++ & BenchUtil.MASK]);
+      }
+      extra = new NullEvent (sim);
+   }
+
+   @Benchmark
+   public boolean scheduleCancel() {
+      extra.schedule (delays[k++ & BenchUtil.MASK]);
+      return extra.cancel();
+   }
+
+   @Benchmark
+   public Event reschedule() {
+      Event ev = events[indices[k & BenchUtil.MASK]];
+      ev.reschedule (delays[k++ & BenchUtil.MASK]);
+      return ev;
+   }
+}
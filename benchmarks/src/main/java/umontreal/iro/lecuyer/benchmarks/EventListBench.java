@@ -0,0 +1,103 @@
+package umontreal.iro.lecuyer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import umontreal.iro.lecuyer.simevents.Event;
+import umontreal.iro.lecuyer.simevents.Simulator;
+import umontreal.iro.lecuyer.simevents.eventlist.EventList;
+import umontreal.iro.lecuyer.benchmarks.BenchUtil.ListEvent;
+
+/*
+ * The event lists used directly, without the simulator, under three
+ * workloads. Each benchmark operation is one step of the workload:
+ *
+ *  hold     removes the first event and adds it again after a random delay;
+ *           the list always contains size events.
+ *  upDown   removes the first event until the list is empty, then adds
+ *           size events, and so on.
+ *  cancel   a hold step, then removes a random event and adds it again
+ *           after a random delay, as Event.reschedule does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class EventListBench {
+
+   @Param({ "DoublyLinked", "SplayTree", "BinaryTree", "RedblackTree",
+            "Henriksen", "CalendarQueue", "DaryHeap" })
+   public String list;
+
+   @Param({ "100", "10000", "100000" })
+   public int size;
+
+   @Param({ "exponential", "integer" })
+   public String dist;
+
+   private EventList evlist;
+   private ListEvent[] events;   // all the events
+   private ListEvent[] removed;  // the events removed by upDown
+   private int numRemoved;
+   private boolean down;
+   private double[] delays;
+   private int[] indices;
+   private int k;                // next delay and index
+   private double now;           // time of the last event removed
+
+   @Setup(Level.Trial)
+   public void setup() {
+      evlist = BenchUtil.newList (list);
+      Simulator sim = new Simulator (evlist);
+      delays = BenchUtil.delays (dist, 12345);
+      indices = BenchUtil.indices (size, 54321);
+      events = new ListEvent[size];
+      removed = new ListEvent[size];
+      for (int i = 0; i < size; i++) {
+         events[i] = new ListEvent (sim);
+         events[i].setEventTime (delays[k++ & BenchUtil.MASK]);
+         evlist.add (events[i]);
+      }
+      numRemoved = 0;
+      down = true;
+      now = 0.0;
+   }
+
+   @Benchmark
+   public Event hold() {
+      ListEvent ev = (ListEvent)evlist.removeFirst();
+      now = ev.time();
+      ev.setEventTime (now + delays[k++ & BenchUtil.MASK]);
+      evlist.add (ev);
+      return ev;
+   }
+
+   @Benchmark
+   public Event upDown() {
+      ListEvent ev;
+      if (down) {
+         ev = (ListEvent)evlist.removeFirst();
+         now = ev.time();
+         removed[numRemoved++] = ev;
+         down = numRemoved < size;
+      }
+      else {
+         ev = removed[--numRemoved];
+         ev.setEventTime (now + delays[k++ & BenchUtil.MASK]);
+         evlist.add (ev);
+         down = numRemoved == 0;
+      }
+      return ev;
+   }
+
+   @Benchmark
+   public boolean cancel() {
+      hold();
+      ListEvent ev = events[indices[k & BenchUtil.MASK]];
+      boolean found = evlist.remove (ev);
+      ev.setEventTime (now + delays[k++ & BenchUtil.MASK]);
+      evlist.add (ev);
+      return found;
+   }
+}
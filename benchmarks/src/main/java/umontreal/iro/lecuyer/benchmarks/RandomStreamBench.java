@@ -0,0 +1,53 @@
+package umontreal.iro.lecuyer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import umontreal.iro.lecuyer.rng.*;
+
+/*
+ * Uniform random numbers from MRG32k3a and from MRG32k3aL, its version
+ * using long arithmetic, one at a time and by blocks of BLOCK numbers.
+ * The score is the time per number.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class RandomStreamBench {
+   static final int BLOCK = 1024;
+
+   @Param({ "MRG32k3a", "MRG32k3aL" })
+   public String gen;
+
+   private RandomStream stream;
+   private double[] u = new double[BLOCK];
+
+   @Setup(Level.Trial)
+   public void setup() {
+      long[] seed = { 12345, 12345, 12345, 12345, 12345, 12345 };
+      if (gen.equals ("MRG32k3a")) {
+         MRG32k3a s = new MRG32k3a();
+         s.setSeed (seed);
+         stream = s;
+      }
+      else {
+         MRG32k3aL s = new MRG32k3aL();
+         s.setSeed (seed);
+         stream = s;
+      }
+   }
+
+   @Benchmark
+   public double nextDouble() {
+      return stream.nextDouble();
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(BLOCK)
+   public double[] nextArrayOfDouble() {
+      stream.nextArrayOfDouble (u, 0, BLOCK);
+      return u;
+   }
+}
@@ -0,0 +1,60 @@
+package umontreal.iro.lecuyer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.randvar.*;
+
+/*
+ * Random variates generated from MRG32k3a by inversion and by the
+ * ziggurat method, one at a time and by blocks of BLOCK variates with
+ * nextArrayOfDouble.
+ * The score is the time per variate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class RandomVariateGenBench {
+   static final int BLOCK = 1024;
+
+   @Param({ "Normal", "NormalZiggurat", "Lognormal", "Exponential",
+            "ExponentialZiggurat", "Uniform" })
+   public String dist;
+
+   private RandomVariateGen gen;
+   private double[] v = new double[BLOCK];
+
+   @Setup(Level.Trial)
+   public void setup() {
+      long[] seed = { 12345, 12345, 12345, 12345, 12345, 12345 };
+      MRG32k3a s = new MRG32k3a();
+      s.setSeed (seed);
+      if (dist.equals ("Normal"))
+         gen = new NormalGen (s, 1.0, 2.0);
+      else if (dist.equals ("NormalZiggurat"))
+         gen = new NormalZigguratGen (s, 1.0, 2.0);
+      else if (dist.equals ("Lognormal"))
+         gen = new LognormalGen (s, 0.5, 1.5);
+      else if (dist.equals ("Exponential"))
+         gen = new ExponentialGen (s, 2.0);
+      else if (dist.equals ("ExponentialZiggurat"))
+         gen = new ExponentialZigguratGen (s, 2.0);
+      else
+         gen = new UniformGen (s, -1.0, 5.0);
+   }
+
+   @Benchmark
+   public double nextDouble() {
+      return gen.nextDouble();
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(BLOCK)
+   public double[] nextArrayOfDouble() {
+      gen.nextArrayOfDouble (v, 0, BLOCK);
+      return v;
+   }
+}
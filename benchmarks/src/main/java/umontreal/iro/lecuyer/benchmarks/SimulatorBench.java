@@ -0,0 +1,100 @@
+package umontreal.iro.lecuyer.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import umontreal.iro.lecuyer.simevents.Event;
+import umontreal.iro.lecuyer.simevents.Sim;
+import umontreal.iro.lecuyer.simevents.Simulator;
+
+/*
+ * The simulation executive with the hold model: size events are pending,
+ * and each event, when it occurs, schedules itself again after a random
+ * delay. Each invocation executes NUM_EVENTS events, and the score is
+ * the time per event.
+ *
+ *  simulator   the events are linked to a Simulator object, and use it
+ *              to stop the simulation.
+ *  sim         the same model using the default simulator and the static
+ *              methods of Sim, as the older programs do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class SimulatorBench {
+   static final int NUM_EVENTS = 100000;
+
+   @Param({ "SplayTree", "BinaryTree", "RedblackTree", "Henriksen",
+            "CalendarQueue", "DaryHeap" })
+   public String list;
+
+   @Param({ "100", "10000" })
+   public int size;
+
+   @Param({ "exponential", "integer" })
+   public String dist;
+
+   private Simulator sim;
+   private double[] delays;
+   private int k;
+   private int numEvents;
+
+   class HoldEvent extends Event {
+      HoldEvent() {
+         super (SimulatorBench.this.sim);
+      }
+
+      public void actions() {
+         if (--numEvents <= 0)
+            sim.stop();
+         schedule (delays[k++ & BenchUtil.MASK]);
+      }
+   }
+
+   class SimHoldEvent extends Event {
+      public void actions() {
+         if (--numEvents <= 0)
+            Sim.stop();
+         schedule (delays[k++ & BenchUtil.MASK]);
+      }
+   }
+
+   @Setup(Level.Trial)
+   public void setupTrial() {
+      delays = BenchUtil.delays (dist, 12345);
+   }
+
+   @Setup(Level.Invocation)
+   public void setup (BenchmarkParams params) {
+      k = 0;
+      numEvents = NUM_EVENTS;
+      if (params.getBenchmark().endsWith (".sim")) {
+         Sim.init (BenchUtil.newList (list));
+         for (int i = 0; i < size; i++)
+            new SimHoldEvent().schedule (delays[k++ & BenchUtil.MASK]);
+      }
+      else {
+         sim = new Simulator (BenchUtil.newList (list));
+         sim.init();
+         for (int i = 0; i < size; i++)
+            new HoldEvent().schedule (delays[k++ & BenchUtil.MASK]);
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(NUM_EVENTS)
+   public double simulator() {
+      sim.start();
+      return sim.time();
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(NUM_EVENTS)
+   public double sim() {
+      Sim.start();
+      return Sim.time();
+   }
+}
@@ -0,0 +1,61 @@
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.hups.*;
+import umontreal.iro.lecuyer.stat.Tally;
+import umontreal.iro.lecuyer.util.Chrono;
+
+// The Asian option of AsianQMC, simulated with randomized QMC, first
+// sequentially, then in parallel with an RQMCRunner. Both give exactly
+// the same statistics.
+public class AsianQMCPar extends AsianQMC implements RQMCModel {
+
+   public AsianQMCPar (double r, double sigma, double strike,
+                       double s0, int s, double[] zeta) {
+       super (r, sigma, strike, s0, s, zeta);
+   }
+
+   // Simulates one run with the current point of stream.
+   public double simulate (RandomStream stream) {
+      generatePath (stream);
+      return getPayoff();
+   }
+
+
+   public static void main (String[] args) {
+      final int s = 12;
+      final double[] zeta = new double[s+1];
+      for (int j=0; j<=s; j++)
+         zeta[j] = (double)j / (double)s;
+      int m = 20;                     // Number of QMC randomizations.
+
+      // Sequential randomizations
+      Chrono timer = new Chrono();
+      AsianQMC process = new AsianQMC (0.05, 0.5, 100.0, 100.0, s, zeta);
+      Tally seq = new Tally ("QMC averages for Asian option");
+      DigitalNet p = new SobolSequence (16, 31, s); // 2^{16} points.
+      RandomStream noise = new MRG32k3a();
+      process.simulateQMC (m, p, noise, seq);
+      System.out.println ("Sequential, CPU time: " + timer.format());
+      seq.setConfidenceIntervalStudent();
+      System.out.println (seq.report (0.95, 3));
+
+      // Parallel randomizations, with the same noise stream
+      RQMCRunner runner = new RQMCRunner (new RQMCModelFactory() {
+         public RQMCModel newInstance() {
+            return new AsianQMCPar (0.05, 0.5, 100.0, 100.0, s, zeta);
+         }
+      });
+      p = new SobolSequence (16, 31, s);
+      noise.resetStartStream();
+      long t = System.currentTimeMillis();
+      Tally par = new Tally ("QMC averages for Asian option");
+      runner.simulate (p, new LMScrambleShift (noise), m, par);
+      System.out.println ("Parallel with " + runner.getParallelism() +
+                          " threads, elapsed time: " +
+                          (System.currentTimeMillis() - t) + " ms");
+      par.setConfidenceIntervalStudent();
+      System.out.println (par.report (0.95, 3));
+      System.out.println ("Same results: " +
+         (seq.average() == par.average() &&
+          seq.variance() == par.variance()));
+   }
+}
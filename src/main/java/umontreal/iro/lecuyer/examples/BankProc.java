@@ -5,7 +5,7 @@ import umontreal.iro.lecuyer.stat.*;
 
 public class BankProc {
 
-   ProcessSimulator sim = new ThreadProcessSimulator();
+   ProcessSimulator sim = ProcessSimulator.newInstance();
    double   minute = 1.0 / 60.0;
    int      nbServed;           // Number of customers served so far
    double   meanDelay;          // Mean time between arrivals
@@ -0,0 +1,78 @@
+import umontreal.iro.lecuyer.hups.*;
+
+// Checks that the iterator of HaltonSequence, which updates the digits of
+// the point index incrementally, returns exactly the coordinates given by
+// getCoordinate: after jumps with setCurPointIndex, resets, steps with
+// resetToNextPoint and blocks from nextPoints, with and without
+// permutations and setStart.
+public class HaltonIteratorCheck {
+   static final int dim = 20;
+   static int numErrors = 0;
+
+   // Compares the current point of it with point i of p.
+   static void comparePoint (String name, HaltonSequence p,
+                             PointSetIterator it, int i) {
+      if (it.getCurPointIndex() != i)
+         throw new IllegalStateException ("wrong point index");
+      for (int j = 0; j < dim; j++) {
+         double u = it.nextCoordinate();
+         if (u != p.getCoordinate (i, j)) {
+            if (numErrors++ < 10)
+               System.out.println (name + ": point " + i + ", coordinate " +
+                                   j + ": " + u + " instead of " +
+                                   p.getCoordinate (i, j));
+         }
+      }
+   }
+
+   static void check (String name, HaltonSequence p) {
+      PointSetIterator it = p.iterator();
+      // Jump, then reset, then step.
+      int[] jumps = { 5, 0, 1, 2, 1000, 999, 1001, 7, 123456789,
+                      Integer.MAX_VALUE - 3 };
+      for (int i : jumps) {
+         it.setCurPointIndex (i);
+         comparePoint (name, p, it, i);
+         it.resetCurPointIndex();
+         comparePoint (name, p, it, 0);
+         for (int k = 1; k <= 30; k++) {
+            it.resetToNextPoint();
+            comparePoint (name, p, it, k);
+         }
+      }
+      // Blocks of points, after a jump.
+      int n = 300;
+      for (int i : new int[] { 0, 5, 998 }) {
+         double[] x = new double[n*dim];
+         it.setCurPointIndex (i);
+         it.nextPoints (x, n, dim, false);
+         for (int k = 0; k < n; k++)
+            for (int j = 0; j < dim; j++)
+               if (x[k*dim + j] != p.getCoordinate (i + k, j)) {
+                  if (numErrors++ < 10)
+                     System.out.println (name + ": nextPoints, point " +
+                                         (i + k) + ", coordinate " + j);
+               }
+         it.resetCurPointIndex();
+         comparePoint (name, p, it, 0);
+      }
+   }
+
+   public static void main (String[] args) {
+      HaltonSequence p = new HaltonSequence (dim);
+      check ("HaltonSequence", p);
+      p.addFaurePermutations();
+      check ("Faure permutations", p);
+      p = new HaltonSequence (dim);
+      p.addFaureLemieuxPermutations();
+      check ("Faure-Lemieux permutations", p);
+      p = new HaltonSequence (dim);
+      double[] x0 = new double[dim];
+      for (int j = 0; j < dim; j++)
+         x0[j] = 0.1 + 0.03*j;
+      p.setStart (x0);
+      check ("setStart", p);
+      System.out.println (numErrors == 0 ? "All the coordinates agree."
+                          : numErrors + " coordinates differ.");
+   }
+}
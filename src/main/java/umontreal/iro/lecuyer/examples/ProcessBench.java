@@ -0,0 +1,77 @@
+import umontreal.iro.lecuyer.simevents.*;
+import umontreal.iro.lecuyer.simprocs.*;
+import umontreal.iro.lecuyer.rng.*;
+import java.io.*;
+
+// Compares the running times of the process simulators on the
+// BankProc, QueueProc and Jobshop examples. Each model is simulated
+// with the same seeds under every simulator, so the results must agree.
+// Jobshop.dat must be in the current directory.
+public class ProcessBench {
+   static final String[] simulators = {
+      "umontreal.iro.lecuyer.simprocs.ThreadProcessSimulator",
+      "umontreal.iro.lecuyer.simprocs.VirtualThreadProcessSimulator" };
+   static final long[] seed = { 12345, 12345, 12345, 12345, 12345, 12345 };
+
+   // Makes the given simulator the one used by the next model.
+   static void select (String name) {
+      System.setProperty ("ssj.processSimulator", name);
+      Simulator.defaultSimulator = ProcessSimulator.newInstance();
+      MRG32k3a.setPackageSeed (seed);
+   }
+
+   static String bank (int numDays) {
+      BankProc bank = new BankProc();
+      bank.tellers.waitList().setStatCollecting (true);
+      for (int i = 0; i < numDays; i++)  bank.simulOneDay();
+      return bank.statServed.report() + bank.avWait.report();
+   }
+
+   static String queue (double timeHorizon) {
+      QueueProc queue = new QueueProc (1.0, 2.0);
+      queue.simulateOneRun (timeHorizon);
+      return queue.server.report();
+   }
+
+   static String jobshop (int numRuns) throws IOException {
+      StringBuffer sb = new StringBuffer();
+      for (int i = 0; i < numRuns; i++) {
+         Jobshop shop = new Jobshop();
+         shop.simulateOneRun();
+         for (int n = 0; n < shop.nbTaskTypes; n++)
+            sb.append (shop.taskType[n].statSojourn.average()).append (' ');
+      }
+      return sb.toString();
+   }
+
+   static String run (int model, int size) throws IOException {
+      switch (model) {
+         case 0:  return bank (100 * size);
+         case 1:  return queue (100000.0 * size);
+         default: return jobshop (20 * size);
+      }
+   }
+
+   public static void main (String[] args) throws IOException {
+      int size = args.length > 0 ? Integer.parseInt (args[0]) : 1;
+      String[] models = { "BankProc", "QueueProc", "Jobshop" };
+      System.out.println ("Virtual threads available: " +
+                          VirtualThreadProcessSimulator.isVirtual());
+      for (int m = 0; m < models.length; m++) {
+         String ref = null;
+         for (int s = 0; s < simulators.length; s++) {
+            select (simulators[s]);
+            run (m, 1);                         // warm-up
+            select (simulators[s]);
+            long t = System.nanoTime();
+            String res = run (m, size);
+            double sec = (System.nanoTime() - t) * 1.0e-9;
+            if (ref == null)
+               ref = res;
+            System.out.printf ("%-10s %-32s %8.3f s   %s%n", models[m],
+               simulators[s].substring (simulators[s].lastIndexOf ('.') + 1),
+               sec, res.equals (ref) ? "same results" : "DIFFERENT RESULTS");
+         }
+      }
+   }
+}
@@ -0,0 +1,139 @@
+import umontreal.iro.lecuyer.simevents.*;
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.randvar.*;
+import umontreal.iro.lecuyer.stat.*;
+import umontreal.iro.lecuyer.stat.list.ListOfTallies;
+import umontreal.iro.lecuyer.util.Chrono;
+import java.util.LinkedList;
+
+// The single-server queue of QueueEv, simulated with independent
+// replications, first sequentially, then in parallel with a
+// ReplicationRunner. Both give exactly the same statistics.
+public class QueueEvReps implements Replication {
+
+   double lambda, mu, timeHorizon;
+   RandomVariateGen genArr;
+   RandomVariateGen genServ;
+   Simulator sim;
+   LinkedList<Customer> waitList = new LinkedList<Customer> ();
+   LinkedList<Customer> servList = new LinkedList<Customer> ();
+   Tally custWaits     = new Tally ("Waiting times");
+   Accumulate totWait  = new Accumulate ("Size of queue");
+
+   class Customer { double arrivTime, servTime; }
+
+   public QueueEvReps (double lambda, double mu, double timeHorizon) {
+      this.lambda = lambda;
+      this.mu = mu;
+      this.timeHorizon = timeHorizon;
+   }
+
+   // Simulates one replication, and returns the average waiting time
+   // and the time-average queue size.
+   public double[] simulate (Simulator sim, RandomStream[] streams) {
+      this.sim = sim;
+      genArr = new ExponentialGen (streams[0], lambda);
+      genServ = new ExponentialGen (streams[1], mu);
+      waitList.clear();
+      servList.clear();
+      custWaits.init();
+      totWait.setSimulator (sim);
+      totWait.init();
+      new EndOfSim().schedule (timeHorizon);
+      new Arrival().schedule (genArr.nextDouble());
+      sim.start();
+      totWait.update();
+      return new double[] { custWaits.average(), totWait.average() };
+   }
+
+   class Arrival extends Event {
+      Arrival() { super (QueueEvReps.this.sim); }
+      public void actions() {
+         new Arrival().schedule (genArr.nextDouble()); // Next arrival.
+         Customer cust = new Customer();  // Cust just arrived.
+         cust.arrivTime = sim.time();
+         cust.servTime = genServ.nextDouble();
+         if (servList.size() > 0) {       // Must join the queue.
+            waitList.addLast (cust);
+            totWait.update (waitList.size());
+         } else {                         // Starts service.
+            custWaits.add (0.0);
+            servList.addLast (cust);
+            new Departure().schedule (cust.servTime);
+         }
+      }
+   }
+
+   class Departure extends Event {
+      Departure() { super (QueueEvReps.this.sim); }
+      public void actions() {
+         servList.removeFirst();
+         if (waitList.size() > 0) {
+            // Starts service for next one in queue.
+            Customer cust = waitList.removeFirst();
+            totWait.update (waitList.size());
+            custWaits.add (sim.time() - cust.arrivTime);
+            servList.addLast (cust);
+            new Departure().schedule (cust.servTime);
+         }
+      }
+   }
+
+   class EndOfSim extends Event {
+      EndOfSim() { super (QueueEvReps.this.sim); }
+      public void actions() {
+         sim.stop();
+      }
+   }
+
+   static ListOfTallies<Tally> newStats() {
+      ListOfTallies<Tally> stats = ListOfTallies.createWithTally (2);
+      stats.get (0).setName ("Average waiting time");
+      stats.get (1).setName ("Average queue size");
+      return stats;
+   }
+
+   public static void main (String[] args) {
+      int n = args.length > 0 ? Integer.parseInt (args[0]) : 1000;
+      final double lambda = 1.0, mu = 2.0, timeHorizon = 1000.0;
+
+      // Sequential replications
+      Chrono timer = new Chrono();
+      RandomStream[] streams = { new MRG32k3a(), new MRG32k3a() };
+      QueueEvReps model = new QueueEvReps (lambda, mu, timeHorizon);
+      Simulator sim = new Simulator();
+      ListOfTallies<Tally> seq = newStats();
+      for (int r = 0; r < n; r++) {
+         sim.init();
+         seq.add (model.simulate (sim, streams));
+         for (RandomStream s : streams)
+            s.resetNextSubstream();
+      }
+      System.out.println ("Sequential, CPU time: " + timer.format());
+      System.out.println (seq.get (0).report());
+      System.out.println (seq.get (1).report());
+
+      // Parallel replications, with the same streams
+      RandomStreamAllocator allocator = new RandomStreamAllocator
+         (new CloneableRandomStream[] { (MRG32k3a)streams[0], (MRG32k3a)streams[1] });
+      ReplicationRunner runner = new ReplicationRunner
+         (new ReplicationFactory() {
+             public Replication newInstance() {
+                return new QueueEvReps (lambda, mu, timeHorizon);
+             }
+          }, allocator);
+      long t = System.currentTimeMillis();
+      ListOfTallies<Tally> par = newStats();
+      runner.simulateRuns (n, par);
+      System.out.println ("Parallel with " + runner.getNumThreads() +
+                          " threads, elapsed time: " +
+                          (System.currentTimeMillis() - t) + " ms");
+      System.out.println (par.get (0).report());
+      System.out.println (par.get (1).report());
+      System.out.println ("Same results: " +
+         (seq.get (0).average() == par.get (0).average() &&
+          seq.get (0).variance() == par.get (0).variance() &&
+          seq.get (1).average() == par.get (1).average() &&
+          seq.get (1).variance() == par.get (1).variance()));
+   }
+}
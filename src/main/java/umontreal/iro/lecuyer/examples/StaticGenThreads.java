@@ -0,0 +1,103 @@
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.randvar.*;
+import umontreal.iro.lecuyer.stat.Tally;
+
+// Calls the static methods of NormalBoxMullerGen, NormalPolarGen,
+// StudentPolarGen and PoissonTIACGen from several threads at the same
+// time, each thread with its own stream, and checks that every thread
+// gets exactly the variates obtained sequentially from a clone of its
+// stream. Then checks the mean and variance of PoissonTIACGen for a
+// small lambda.
+public class StaticGenThreads {
+   static final int numThreads = 8;
+   static final int n = 400000;     // Variates per thread.
+
+   // One entry point; i is the index of the variate in the thread.
+   static abstract class Case {
+      String name;
+      Case (String name) { this.name = name; }
+      abstract double next (RandomStream s, int i);
+   }
+
+   static final Case[] cases = {
+      new Case ("NormalBoxMullerGen") {
+         double next (RandomStream s, int i) {
+            return NormalBoxMullerGen.nextDouble (s, 1.0, 2.0);
+         }
+      },
+      new Case ("NormalPolarGen") {
+         double next (RandomStream s, int i) {
+            return NormalPolarGen.nextDouble (s, 1.0, 2.0);
+         }
+      },
+      new Case ("StudentPolarGen") {
+         double next (RandomStream s, int i) {
+            return StudentPolarGen.nextDouble (s, 5);
+         }
+      },
+      new Case ("PoissonTIACGen, lambda = 4") {
+         double next (RandomStream s, int i) {
+            return PoissonTIACGen.nextInt (s, 4.0);
+         }
+      },
+      new Case ("PoissonTIACGen, lambda = 0.5, 7") {
+         double next (RandomStream s, int i) {
+            return PoissonTIACGen.nextInt (s, i % 2 == 0 ? 0.5 : 7.0);
+         }
+      }
+   };
+
+   // Hash of the n variates generated by c with stream s.
+   static long run (Case c, RandomStream s) {
+      long h = 0;
+      for (int i = 0; i < n; i++)
+         h = 31*h + Double.doubleToLongBits (c.next (s, i));
+      return h;
+   }
+
+   static boolean check (final Case c) throws InterruptedException {
+      final RandomStream[] streams = new RandomStream[numThreads];
+      long[] seq = new long[numThreads];
+      for (int t = 0; t < numThreads; t++) {
+         MRG32k3a s = new MRG32k3a();
+         streams[t] = s;
+         seq[t] = run (c, s.clone());
+      }
+      final long[] par = new long[numThreads];
+      Thread[] threads = new Thread[numThreads];
+      for (int t = 0; t < numThreads; t++) {
+         final int k = t;
+         threads[t] = new Thread() {
+            public void run() {
+               par[k] = StaticGenThreads.run (c, streams[k]);
+            }
+         };
+      }
+      for (Thread th : threads)  th.start();
+      for (Thread th : threads)  th.join();
+      for (int t = 0; t < numThreads; t++)
+         if (par[t] != seq[t])
+            return false;
+      return true;
+   }
+
+   public static void main (String[] args) throws InterruptedException {
+      boolean ok = true;
+      for (Case c : cases) {
+         boolean same = check (c);
+         ok &= same;
+         System.out.println (c.name + ": " + (same ? "same" : "DIFFERENT") +
+                             " variates in " + numThreads + " threads");
+      }
+
+      Tally poisson = new Tally ("PoissonTIACGen, lambda = 0.5");
+      RandomStream s = new MRG32k3a();
+      for (int i = 0; i < 1000000; i++)
+         poisson.add (PoissonTIACGen.nextInt (s, 0.5));
+      System.out.println ("\n" + poisson.getName() + ": mean " +
+                          poisson.average() + ", variance " +
+                          poisson.variance() + " (both should be near 0.5)");
+      System.out.println (ok ? "\nAll the threads agree."
+                             : "\nSome threads disagree.");
+   }
+}
@@ -0,0 +1,83 @@
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.probdist.*;
+import umontreal.iro.lecuyer.randvar.*;
+import umontreal.iro.lecuyer.gof.GofStat;
+import cern.colt.list.DoubleArrayList;
+import java.util.Arrays;
+
+// Goodness-of-fit tests of NormalZigguratGen and ExponentialZigguratGen,
+// with NormalGen (inversion) as a control. For each generator, m samples
+// of size n are transformed by the distribution function, and each one is
+// tested by an equiprobable chi-square test with 1000 bins and by a
+// Kolmogorov-Smirnov test. The m p-values of each test must then look
+// uniform, which is checked by a second KS test. Finally, the number of
+// variates in the far tails is compared with its expectation.
+public class ZigguratGof {
+   static final int m = 30;          // Number of samples.
+   static final int n = 1000000;     // Size of each sample.
+   static final int numBins = 1000;  // For the chi-square tests.
+
+   // p-value of the KS test of uniformity of the sorted data u.
+   static double ksPValue (double[] u) {
+      double d = GofStat.kolmogorovSmirnov (u)[2];
+      return KolmogorovSmirnovDistQuick.barF (u.length, d);
+   }
+
+   static void test (String name, RandomVariateGen gen) {
+      Distribution dist = gen.getDistribution();
+      double[] u = new double[n];
+      double[] pChi2 = new double[m];
+      double[] pKS = new double[m];
+      for (int r = 0; r < m; r++) {
+         for (int i = 0; i < n; i++)
+            u[i] = dist.cdf (gen.nextDouble());
+         double x = GofStat.chi2Equal (new DoubleArrayList (u),
+                                       (double) n / numBins);
+         pChi2[r] = ChiSquareDist.barF (numBins - 1, 12, x);
+         Arrays.sort (u);
+         pKS[r] = ksPValue (u);
+      }
+      Arrays.sort (pChi2);
+      Arrays.sort (pKS);
+      System.out.printf ("%-24s p-values of the KS test on the %d p-values:" +
+                         " chi-square %.3f, KS %.3f%n", name, m,
+                         ksPValue (pChi2), ksPValue (pKS));
+   }
+
+   // Compares the counts of x > a[k], and of x < -a[k] if symmetric,
+   // over num variates, with their expectation.
+   static void tails (String name, RandomVariateGen gen, double[] a,
+                      boolean symmetric, int num) {
+      Distribution dist = gen.getDistribution();
+      int[] above = new int[a.length];
+      int[] below = new int[a.length];
+      for (int i = 0; i < num; i++) {
+         double x = gen.nextDouble();
+         for (int k = 0; k < a.length; k++) {
+            if (x > a[k])  above[k]++;
+            if (x < -a[k]) below[k]++;
+         }
+      }
+      for (int k = 0; k < a.length; k++) {
+         double exp = num * dist.barF (a[k]);
+         System.out.printf ("%-24s x > %-4s observed %6d, expected %9.1f%n",
+                            name, a[k], above[k], exp);
+         if (symmetric)
+            System.out.printf ("%-24s x < -%-3s observed %6d, expected %9.1f%n",
+                               name, a[k], below[k], exp);
+      }
+   }
+
+   public static void main (String[] args) {
+      int numTail = args.length > 0 ? Integer.parseInt (args[0]) : 10000000;
+      RandomStream s = new MRG32k3a();
+      test ("NormalZigguratGen", new NormalZigguratGen (s, new NormalDist()));
+      test ("ExponentialZigguratGen", new ExponentialZigguratGen (s, 1.0));
+      test ("NormalGen (control)", new NormalGen (s));
+      System.out.println();
+      tails ("NormalZigguratGen", new NormalZigguratGen (s, new NormalDist()),
+             new double[] { 4.0, 5.0 }, true, numTail);
+      tails ("ExponentialZigguratGen", new ExponentialZigguratGen (s, 1.0),
+             new double[] { 10.0, 15.0 }, false, numTail);
+   }
+}
@@ -424,6 +424,24 @@ public class DigitalNet extends PointSet  {
    }
 
 
+   public PointSet snapshot() {
+      DigitalNet p = (DigitalNet) copy();
+      // originalMat is never modified, so it can be shared.
+      if (genMat != null) {
+         p.genMat = new int[genMat.length][];
+         for (int i = 0; i < genMat.length; i++)
+            p.genMat[i] = genMat[i].clone();
+      }
+      if (digitalShift != null) {
+         p.digitalShift = new int[digitalShift.length][];
+         for (int i = 0; i < digitalShift.length; i++)
+            p.digitalShift[i] = digitalShift[i].clone();
+      }
+      p.shiftStream = null;
+      return p;
+   }
+
+
    public String toString() {
       StringBuffer sb = new StringBuffer (100);
       if (b > 0) {
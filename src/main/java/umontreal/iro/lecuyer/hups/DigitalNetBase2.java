@@ -28,6 +28,7 @@ package umontreal.iro.lecuyer.hups;
 
 import umontreal.iro.lecuyer.rng.*;
 import umontreal.iro.lecuyer.util.*;
+import java.util.NoSuchElementException;
 
 
 /**
@@ -175,6 +176,17 @@ public class DigitalNetBase2 extends DigitalNet  {
       digitalShift = null;
    }
 
+   public PointSet snapshot() {
+      DigitalNetBase2 p = (DigitalNetBase2) copy();
+      // originalMat is never modified, so it can be shared.
+      if (genMat != null)
+         p.genMat = genMat.clone();
+      if (digitalShift != null)
+         p.digitalShift = digitalShift.clone();
+      p.shiftStream = null;
+      return p;
+   }
+
    public void addRandomShift (RandomStream stream) {
       addRandomShift (0, dim, stream);
    }
@@ -619,6 +631,29 @@ public class DigitalNetBase2 extends DigitalNet  {
          }
          return resetToNextPoint();
       }
+
+      public int nextPoints (double p[], int n, int d, boolean colMajor) {
+         if (n > numPoints - curPointIndex)
+            throw new NoSuchElementException ("Not enough points available");
+         if (d > dimS)
+            throw new NoSuchElementException ("Not enough coordinates available");
+         // Each point is converted from the cached integer coordinates,
+         // then the whole cached point is updated at once by
+         // resetToNextPoint (one XOR per coordinate with the Gray code).
+         double eps = (digitalShift == null) ? 0.0 : EpsilonHalf;
+         int k = 0;
+         for (int i = 0; i < n; i++) {
+            if (colMajor) {
+               for (int j = 0, l = i; j < d; j++, l += n)
+                  p[l] = cachedCurPoint[j] * normFactor + eps;
+            } else {
+               for (int j = 0; j < d; j++)
+                  p[k++] = cachedCurPoint[j] * normFactor + eps;
+            }
+            resetToNextPoint();
+         }
+         return curPointIndex;
+      }
    }
 
 
@@ -0,0 +1,388 @@
+
+
+/*
+ * Class:        DigitalNetBase2L
+ * Description:  digital net in base 2 with up to 53 output digits
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+import java.util.NoSuchElementException;
+import umontreal.iro.lecuyer.util.PrintfFormat;
+import umontreal.iro.lecuyer.util.Num;
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+
+/**
+ * A digital net in base 2 whose generator matrices have up to 53 rows,
+ * the number of bits of the mantissa of a <TT>double</TT>, instead of 31
+ * for {@link DigitalNetBase2}. Each column of a generator matrix is stored
+ * in a <TT>long</TT>, and the points are enumerated in Gray code order as in
+ * {@link DigitalNetBase2}, so a net constructed from a
+ * {@link DigitalNetBase2} with the same number of output digits has exactly
+ * the same points. With more output digits, a left matrix scramble gives
+ * random digits down to the last bit of the coordinates.
+ *
+ * <P>
+ * The columns are stored by column number first, then by coordinate, so
+ * that moving to the next point, which adds one column of each generator
+ * matrix to the current point, scans a contiguous array; this loop and the
+ * conversion of the point to <TT>double</TT> values are simple enough for
+ * the Java virtual machine to use vector instructions.
+ * The left matrix scramble multiplies each column by the random
+ * lower-triangular matrix with word operations: the product is the
+ * exclusive-or of the columns of the scrambling matrix that correspond to
+ * the nonzero digits of the column.
+ * The digital shift is added to the current point when the iterator is
+ * reset, and a shifted coordinate is returned at the center of its
+ * interval of length <SPAN CLASS="MATH">2<SUP>-<I>w</I></SUP></SPAN>, where <SPAN CLASS="MATH"><I>w</I></SPAN> is the number of output digits.
+ *
+ */
+public class DigitalNetBase2L extends PointSet {
+   // Largest number of output digits, for exact conversion to double.
+   private static final int MAXDIGITS = 53;
+
+   protected int numCols;        // Number of columns k of the matrices.
+   protected int outDigits;      // Number of output digits w.
+   protected double normFactor;  // 2^(-w).
+   protected long[] genMat;      // Column c of C_j is genMat[c*dim + j].
+   protected long[] originalMat; // Unscrambled genMat, or null.
+   protected long[] digitalShift; // Digital shift, or null.
+
+
+   /**
+    * Constructs a net with the points and the current generator
+    * matrices of <TT>net</TT>, with <TT>w</TT> output digits. The rows
+    * of the matrices beyond the number of output digits of <TT>net</TT> are
+    * zero. The number of output digits <TT>w</TT> must be at least that of
+    * <TT>net</TT>, and at most 53.
+    *
+    * @param net the digital net giving the generator matrices
+    *
+    *    @param w number of output digits
+    *
+    *    @exception IllegalArgumentException if <TT>w</TT> is out of range
+    *
+    */
+   public DigitalNetBase2L (DigitalNetBase2 net, int w) {
+      if (w < net.outDigits || w > MAXDIGITS)
+         throw new IllegalArgumentException
+            ("w must be between the number of output digits of net and 53");
+      numCols = net.numCols;
+      outDigits = w;
+      dim = net.getDimension();
+      numPoints = net.getNumPoints();
+      normFactor = 1.0 / Num.TWOEXP[w];
+      int shift = w - net.outDigits;
+      genMat = new long[numCols * dim];
+      for (int j = 0; j < dim; j++)
+         for (int c = 0; c < numCols; c++)
+            genMat[c*dim + j] = (long) net.genMat[j*numCols + c] << shift;
+   }
+
+
+   /**
+    * Returns the number of output digits <SPAN CLASS="MATH"><I>w</I></SPAN>.
+    *
+    * @return the number of output digits
+    *
+    */
+   public int getNumOutDigits() {
+      return outDigits;
+   }
+
+
+   /**
+    * Applies a left matrix scramble, as in
+    * {@link umontreal.iro.lecuyer.hups.DigitalNetBase2#leftMatrixScramble(RandomStream) leftMatrixScramble}:
+    * each generator matrix <SPAN CLASS="MATH"><B>C</B><SUB>j</SUB></SPAN> is replaced by
+    * <SPAN CLASS="MATH"><B>M</B><SUB>j</SUB><B>C</B><SUB>j</SUB></SPAN>, where <SPAN CLASS="MATH"><B>M</B><SUB>j</SUB></SPAN> is a
+    * <SPAN CLASS="MATH"><I>w</I>&#215; <I>w</I></SPAN> lower-triangular matrix with ones on the diagonal and random
+    * bits generated with <TT>stream</TT> below it. The scramble replaces the
+    * previous one, if any.
+    *
+    * @param stream random number stream used to generate the scrambling
+    *     matrices
+    *
+    */
+   public void leftMatrixScramble (RandomStream stream) {
+      // If genMat contains the original gen. matrices, copy to originalMat.
+      if (originalMat == null) {
+         originalMat = genMat;
+         genMat = new long[numCols * dim];
+      }
+      // Column q of the scrambling matrix M_j is scrambleCol[q]. Its
+      // diagonal digit is bit w-1-q, and its random digits below the
+      // diagonal are the lower bits.
+      long[] scrambleCol = new long[outDigits];
+      for (int j = 0; j < dim; j++) {
+         for (int q = 0; q < outDigits; q++) {
+            int low = outDigits - 1 - q;
+            scrambleCol[q] = (1L << low) | randomBits (stream, low);
+         }
+         for (int c = 0; c < numCols; c++) {
+            long y = originalMat[c*dim + j];
+            long col = 0;
+            while (y != 0) {
+               int b = Long.numberOfTrailingZeros (y);
+               col ^= scrambleCol[outDigits - 1 - b];
+               y &= y - 1;
+            }
+            genMat[c*dim + j] = col;
+         }
+      }
+   }
+
+
+   /**
+    * Restores the original generator matrices, removing the left
+    * matrix scramble.
+    *
+    */
+   public void resetGeneratorMatrices() {
+      if (originalMat != null) {
+         genMat = originalMat;
+         originalMat = null;
+      }
+   }
+
+
+   /**
+    * Generates a random digital shift with <SPAN CLASS="MATH"><I>w</I></SPAN> random digits for the
+    * coordinates <TT>d1</TT> to <TT>d2-1</TT>, using <TT>stream</TT>.
+    * If <TT>d2</TT> is 0 or larger than the dimension, it is replaced by the
+    * dimension.
+    *
+    * @param d1 lower dimension of the shift
+    *
+    *    @param d2 upper dimension of the shift is <TT>d2 - 1</TT>
+    *
+    *    @param stream random number stream used to generate uniforms
+    *
+    */
+   public void addRandomShift (int d1, int d2, RandomStream stream) {
+      if (null == stream)
+         throw new IllegalArgumentException (
+              PrintfFormat.NEWLINE +
+                 "   Calling addRandomShift with null stream");
+      if (0 == d2)
+         d2 = dim;
+      d2 = Math.min (d2, dim);
+      if (d1 < 0 || d1 > d2)
+         throw new IllegalArgumentException ("illegal parameter d1 or d2");
+      if (digitalShift == null) {
+         digitalShift = new long[dim];
+         capacityShift = dim;
+      }
+      for (int j = d1; j < d2; j++)
+         digitalShift[j] = randomBits (stream, outDigits);
+      dimShift = d2;
+      shiftStream = stream;
+   }
+
+
+   /**
+    * Same as {@link #addRandomShift(int,int,RandomStream) addRandomShift}<TT>(0, dim,
+    * stream)</TT>.
+    *
+    * @param stream random number stream used to generate uniforms
+    *
+    */
+   public void addRandomShift (RandomStream stream) {
+      addRandomShift (0, dim, stream);
+   }
+
+
+   /**
+    * Erases the current digital shift, if any.
+    *
+    */
+   public void clearRandomShift() {
+      super.clearRandomShift();
+      digitalShift = null;
+   }
+
+
+   /**
+    * Restores the original generator matrices and erases the digital
+    * shift.
+    *
+    */
+   public void unrandomize() {
+      resetGeneratorMatrices();
+      clearRandomShift();
+   }
+
+
+   /**
+    * Returns a copy of this net with its current scramble and digital
+    * shift, which are not affected by the later randomizations of this net.
+    *
+    * @return a copy of this net
+    *
+    */
+   public PointSet snapshot() {
+      DigitalNetBase2L p = (DigitalNetBase2L) copy();
+      // originalMat is never modified, so it can be shared.
+      p.genMat = genMat.clone();
+      if (digitalShift != null)
+         p.digitalShift = digitalShift.clone();
+      p.shiftStream = null;
+      return p;
+   }
+
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer ("DigitalNetBase2L:" +
+                                          PrintfFormat.NEWLINE);
+      sb.append (super.toString());
+      sb.append (PrintfFormat.NEWLINE + "Num cols = " + numCols);
+      sb.append (PrintfFormat.NEWLINE + "outDigits = " + outDigits);
+      return sb.toString();
+   }
+
+   // Returns nb random bits, nb <= 63, generated 30 bits at a time.
+   private static long randomBits (RandomStream stream, int nb) {
+      long r = 0;
+      while (nb > 0) {
+         int t = Math.min (nb, 30);
+         r = (r << t) | stream.nextInt (0, (1 << t) - 1);
+         nb -= t;
+      }
+      return r;
+   }
+
+   public double getCoordinate (int i, int j) {
+      long res = (digitalShift == null) ? 0 : digitalShift[j];
+      int grayCode = i ^ (i >> 1);
+      for (int pos = 0; (grayCode >> pos) != 0; pos++)
+         if (((grayCode >> pos) & 1) != 0)
+            res ^= genMat[pos*dim + j];
+      if (digitalShift != null)
+         return res * normFactor + 0.5 * normFactor;
+      return res * normFactor;
+   }
+
+   public PointSetIterator iterator() {
+      return new DigitalNetBase2LIterator();
+   }
+
+   // *******************************************************************
+   protected class DigitalNetBase2LIterator extends DefaultPointSetIterator {
+
+      // Coordinates of the current point, as integers, including the
+      // digital shift.
+      protected long[] cachedCurPoint;
+      protected double eps;     // Added to the shifted coordinates.
+
+      public DigitalNetBase2LIterator() {
+         cachedCurPoint = new long[dim];
+         resetCurPointIndex();
+      }
+
+      private void addShiftToCache() {
+         if (digitalShift == null) {
+            for (int j = 0; j < dim; j++)
+               cachedCurPoint[j] = 0;
+            eps = 0.0;
+         } else {
+            if (dimShift < dim)
+               addRandomShift (dimShift, dim, shiftStream);
+            System.arraycopy (digitalShift, 0, cachedCurPoint, 0, dim);
+            eps = 0.5 * normFactor;
+         }
+      }
+
+      // Adds column c of all the generator matrices to the current point.
+      private void addColumn (int c) {
+         long[] mat = genMat;
+         int k = c * dim;
+         for (int j = 0; j < dim; j++)
+            cachedCurPoint[j] ^= mat[k + j];
+      }
+
+      public void setCurPointIndex (int i) {
+         curPointIndex = i;
+         curCoordIndex = 0;
+         addShiftToCache();
+         int grayCode = i ^ (i >> 1);
+         for (int pos = 0; (grayCode >> pos) != 0; pos++)
+            if (((grayCode >> pos) & 1) != 0 && pos < numCols)
+               addColumn (pos);
+      }
+
+      public int resetToNextPoint() {
+         // Position of change in Gray code = position of the first 0 in
+         // the binary code of the point index.
+         int pos = Integer.numberOfTrailingZeros (~curPointIndex);
+         if (pos < numCols)
+            addColumn (pos);
+         curCoordIndex = 0;
+         return ++curPointIndex;
+      }
+
+      public double nextDouble() {
+         return nextCoordinate();
+      }
+
+      public double nextCoordinate() {
+         if (curPointIndex >= numPoints || curCoordIndex >= dim)
+            outOfBounds();
+         return cachedCurPoint[curCoordIndex++] * normFactor + eps;
+      }
+
+      public void nextCoordinates (double p[], int d) {
+         if (curPointIndex >= numPoints || curCoordIndex + d > dim)
+            outOfBounds();
+         for (int j = 0; j < d; j++)
+            p[j] = cachedCurPoint[curCoordIndex++] * normFactor + eps;
+      }
+
+      public int nextPoint (double p[], int d) {
+         if (curPointIndex >= numPoints || d > dim)
+            outOfBounds();
+         for (int j = 0; j < d; j++)
+            p[j] = cachedCurPoint[j] * normFactor + eps;
+         return resetToNextPoint();
+      }
+
+      public int nextPoints (double p[], int n, int d, boolean colMajor) {
+         if (n > numPoints - curPointIndex)
+            throw new NoSuchElementException ("Not enough points available");
+         if (d > dim)
+            throw new NoSuchElementException
+               ("Not enough coordinates available");
+         int k = 0;
+         for (int i = 0; i < n; i++) {
+            if (colMajor) {
+               for (int j = 0, l = i; j < d; j++, l += n)
+                  p[l] = cachedCurPoint[j] * normFactor + eps;
+            } else {
+               for (int j = 0; j < d; j++)
+                  p[k++] = cachedCurPoint[j] * normFactor + eps;
+            }
+            resetToNextPoint();
+         }
+         return curPointIndex;
+      }
+   }
+}
@@ -0,0 +1,666 @@
+
+
+/*
+ * Class:        FigureOfMerit
+ * Description:  figures of merit of lattices and digital nets
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Computes figures of merit measuring the uniformity of point sets, and
+ * constructs lattice rules that minimize one of them, using several threads.
+ *
+ * <P>
+ * For a rank-1 lattice with <SPAN CLASS="MATH"><I>n</I></SPAN> points <SPAN CLASS="MATH"><B>u</B><SUB>i</SUB> = (<I>i</I><B>a</B> mod <I>n</I>)/<I>n</I></SPAN>
+ * in <SPAN CLASS="MATH"><I>s</I></SPAN> dimensions, the criterion <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN> with product weights
+ * <SPAN CLASS="MATH"><I>&#947;</I><SUB>0</SUB>,...,<I>&#947;</I><SUB><I>s</I>-1</SUB></SPAN> is
+ * 
+ * <P></P>
+ * <DIV ALIGN="CENTER" CLASS="mathdisplay">
+ * <I>P</I><SUB>&#945;</SUB> = - 1 + (1/<I>n</I>)&sum;<SUB>i=0</SUB><SUP>n-1</SUP>&prod;<SUB>j=0</SUB><SUP>s-1</SUP>(1 + <I>&#947;</I><SUB>j</SUB> <I>&#969;</I><SUB>&#945;</SUB>(<I>u</I><SUB>i, j</SUB>)),
+ * </DIV><P></P>
+ * where <SPAN CLASS="MATH"><I>&#969;</I><SUB>&#945;</SUB>(<I>x</I>) = - (- 4<I>&#960;</I><SUP>2</SUP>)<SUP>&#945;/2</SUP><I>B</I><SUB>&#945;</SUB>(<I>x</I>)/<I>&#945;</I>!</SPAN> and
+ * <SPAN CLASS="MATH"><I>B</I><SUB>&#945;</SUB></SPAN> is the Bernoulli polynomial of degree <SPAN CLASS="MATH"><I>&#945;</I></SPAN>, for
+ * <SPAN CLASS="MATH"><I>&#945;</I> = 2, 4, 6</SPAN>. It is the worst-case error of the lattice rule for
+ * functions in a weighted Korobov space of smoothness <SPAN CLASS="MATH"><I>&#945;</I></SPAN>, and the
+ * variance of the randomly shifted lattice rule for periodic functions whose
+ * Fourier coefficients decrease accordingly.
+ * It is computed in time <SPAN CLASS="MATH"><I>O</I>(<I>ns</I>)</SPAN>.
+ * The method {@link #fastCBC fastCBC} constructs the generating vector
+ * <SPAN CLASS="MATH"><B>a</B></SPAN> component by component for a prime number of points <SPAN CLASS="MATH"><I>n</I></SPAN>, each
+ * component minimizing <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN> given the previous ones, in time
+ * <SPAN CLASS="MATH"><I>O</I>(<I>sn</I> log <I>n</I>)</SPAN>, by computing the criterion for all the candidates of each
+ * component with a fast Fourier transform, as in the fast CBC construction
+ * of Nuyens and Cools.
+ *
+ * <P>
+ * The weighted <SPAN CLASS="MATH"><I>L</I><SUB>2</SUB></SPAN>-star discrepancy of an arbitrary point set is
+ * computed by Warnock's formula, in time <SPAN CLASS="MATH"><I>O</I>(<I>n</I><SUP>2</SUP> <I>s</I>)</SPAN>, and the <SPAN CLASS="MATH"><I>t</I></SPAN>-value of a
+ * digital net in base 2 is computed from the ranks of the matrices formed by
+ * the rows of its generator matrices.
+ *
+ * <P>
+ * The computations are split into independent tasks, over blocks of
+ * points or over projections, executed by the threads of a
+ * <TT>java.util.concurrent.ForkJoinPool</TT>. The partial sums are always
+ * added in the same order, so the results do not depend on the number of
+ * threads.
+ *
+ */
+public class FigureOfMerit {
+   // Number of points in each task; it does not depend on the number of
+   // threads, so that the partial sums are always the same.
+   private static final int CHUNK = 1024;
+
+   private ForkJoinPool pool;
+
+
+   /**
+    * Constructs an object computing the figures of merit with one
+    * thread for each processor available to the Java virtual machine.
+    *
+    */
+   public FigureOfMerit() {
+      this (Runtime.getRuntime().availableProcessors());
+   }
+
+
+   /**
+    * Same as above, with <TT>parallelism</TT> threads.
+    *
+    * @param parallelism the number of threads.
+    *
+    *    @exception IllegalArgumentException if <TT>parallelism</TT> is smaller
+    *     than 1.
+    *
+    */
+   public FigureOfMerit (int parallelism) {
+      if (parallelism < 1)
+         throw new IllegalArgumentException
+            ("The number of threads must be at least 1");
+      pool = new ForkJoinPool (parallelism);
+   }
+
+
+   /**
+    * Returns the number of threads used for the computations.
+    *
+    * @return the number of threads.
+    *
+    */
+   public int getParallelism() {
+      return pool.getParallelism();
+   }
+
+
+   /**
+    * Returns the criterion <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN> with weights <SPAN CLASS="MATH"><I>&#947;</I><SUB><I>j</I></SUB></SPAN> =
+    * <TT>gamma[<SPAN CLASS="MATH"><I>j</I></SPAN>]</TT>, for the rank-1 lattice with <TT>n</TT> points and
+    * generating vector <TT>a</TT> = <SPAN CLASS="MATH">(<I>a</I><SUB>0</SUB>,...,<I>a</I><SUB><I>s</I>-1</SUB>)</SPAN>, in <SPAN CLASS="MATH"><I>s</I></SPAN> =
+    * <TT>s</TT> dimensions. The smoothness <SPAN CLASS="MATH"><I>&#945;</I></SPAN> must be 2, 4 or 6.
+    *
+    * @param n number of points
+    *
+    *    @param a generating vector
+    *
+    *    @param s dimension
+    *
+    *    @param alpha smoothness <SPAN CLASS="MATH"><I>&#945;</I></SPAN>
+    *
+    *    @param gamma weights of the coordinates
+    *
+    *    @return the criterion <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN>
+    *
+    *    @exception IllegalArgumentException if <TT>alpha</TT> is not 2, 4 or 6.
+    *
+    */
+   public double pAlpha (final int n, final int[] a, final int s, int alpha,
+                         final double[] gamma) {
+      if (n < 1)
+         throw new IllegalArgumentException ("n must be positive");
+      if (a.length < s || gamma.length < s)
+         throw new IllegalArgumentException
+            ("a and gamma must have at least s elements");
+      final double[] w = omegaTable (n, alpha);
+      int numChunks = (n + CHUNK - 1) / CHUNK;
+      final double[] sums = new double[numChunks];
+      forEach (numChunks, new ChunkBody() {
+         public void run (int c) {
+            int end = Math.min (n, (c + 1)*CHUNK);
+            double sum = 0.0;
+            for (int i = c*CHUNK; i < end; i++) {
+               double prod = 1.0;
+               for (int j = 0; j < s; j++)
+                  prod *= 1.0 + gamma[j] * w[(int) ((long) i * a[j] % n)];
+               sum += prod;
+            }
+            sums[c] = sum;
+         }
+      });
+      double sum = 0.0;
+      for (int c = 0; c < numChunks; c++)
+         sum += sums[c];
+      return sum / n - 1.0;
+   }
+
+
+   /**
+    * Returns the criterion <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN> with weights <SPAN CLASS="MATH"><I>&#947;</I><SUB><I>j</I></SUB></SPAN> =
+    * <TT>gamma[<SPAN CLASS="MATH"><I>j</I></SPAN>]</TT> for the lattice <TT>lat</TT>, without its random
+    * shift.
+    *
+    * @param lat the lattice
+    *
+    *    @param alpha smoothness <SPAN CLASS="MATH"><I>&#945;</I></SPAN>
+    *
+    *    @param gamma weights of the coordinates
+    *
+    *    @return the criterion <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN>
+    *
+    */
+   public double pAlpha (Rank1Lattice lat, int alpha, double[] gamma) {
+      return pAlpha (lat.getNumPoints(), lat.getAs(), lat.getDimension(),
+                     alpha, gamma);
+   }
+
+
+   /**
+    * Constructs, by the fast component-by-component (CBC) method, the
+    * generating vector <SPAN CLASS="MATH"><B>a</B> = (<I>a</I><SUB>0</SUB>,...,<I>a</I><SUB><I>s</I>-1</SUB>)</SPAN> of a rank-1 lattice
+    * with <TT>n</TT> points in <SPAN CLASS="MATH"><I>s</I></SPAN> = <TT>s</TT> dimensions, where <TT>n</TT> is
+    * a prime number. The first component is <SPAN CLASS="MATH"><I>a</I><SUB>0</SUB> = 1</SPAN>, and for
+    * <SPAN CLASS="MATH"><I>j</I> = 1,...,<I>s</I>-1</SPAN>, <SPAN CLASS="MATH"><I>a</I><SUB><I>j</I></SUB> &#8712; {1,...,(<I>n</I>-1)/2}</SPAN> minimizes the criterion
+    * <SPAN CLASS="MATH"><I>P</I><SUB>&#945;</SUB></SPAN> with weights <SPAN CLASS="MATH"><I>&#947;</I><SUB>0</SUB>,...,<I>&#947;</I><SUB><I>j</I></SUB></SPAN> of the lattice in <SPAN CLASS="MATH"><I>j</I>+1</SPAN>
+    * dimensions, given <SPAN CLASS="MATH"><I>a</I><SUB>0</SUB>,...,<I>a</I><SUB><I>j</I>-1</SUB></SPAN>. The weights must be positive.
+    * The rank-1 lattice can then be constructed with
+    * <TT>new Rank1Lattice (n, a, s)</TT>.
+    *
+    * @param n number of points, a prime number
+    *
+    *    @param s dimension
+    *
+    *    @param alpha smoothness <SPAN CLASS="MATH"><I>&#945;</I></SPAN>
+    *
+    *    @param gamma weights of the coordinates
+    *
+    *    @return the generating vector
+    *
+    *    @exception IllegalArgumentException if <TT>n</TT> is not a prime
+    *     number, or if <TT>alpha</TT> is not 2, 4 or 6.
+    *
+    */
+   public int[] fastCBC (final int n, int s, int alpha, final double[] gamma) {
+      if (n < 3 || !isPrime (n))
+         throw new IllegalArgumentException ("n must be a prime number > 2");
+      if (s < 1 || gamma.length < s)
+         throw new IllegalArgumentException
+            ("s must be positive and gamma must have at least s elements");
+      final double[] w = omegaTable (n, alpha);
+      // The units modulo n are perm[k] = g^k mod n, k = 0,...,L-1, for a
+      // primitive root g. For the candidate z = g^k, the sum over the
+      // points i = g^(-l) of p[i] * w[i*z mod n] is the circular
+      // convolution of q[l] = p[g^(-l)] with w[g^k]. It is obtained from
+      // the linear convolution of q with two periods of w[g^k], whose
+      // terms L-1 to 2L-2 are not affected by the wrap-around of a
+      // circular convolution of size M >= 2L-1.
+      int L = n - 1;
+      int g = primitiveRoot (n);
+      int[] perm = new int[L];
+      perm[0] = 1;
+      for (int k = 1; k < L; k++)
+         perm[k] = (int) ((long) perm[k-1] * g % n);
+      int M = 1;
+      while (M < 2*L - 1)
+         M *= 2;
+      FFT fft = new FFT (M);
+      double[] psiRe = new double[M];
+      double[] psiIm = new double[M];
+      for (int t = 0; t < 2*L - 1; t++)
+         psiRe[t] = w[perm[t % L]];
+      fft.transform (psiRe, psiIm, false);
+
+      final double[] p = new double[n];
+      java.util.Arrays.fill (p, 1.0);
+      final int[] a = new int[s];
+      double[] qRe = new double[M];
+      double[] qIm = new double[M];
+      for (int j = 0; j < s; j++) {
+         int z = 1;
+         if (j > 0) {
+            java.util.Arrays.fill (qRe, 0.0);
+            java.util.Arrays.fill (qIm, 0.0);
+            for (int l = 0; l < L; l++)
+               qRe[l] = p[perm[(L - l) % L]];
+            fft.transform (qRe, qIm, false);
+            for (int t = 0; t < M; t++) {
+               double re = qRe[t]*psiRe[t] - qIm[t]*psiIm[t];
+               qIm[t] = qRe[t]*psiIm[t] + qIm[t]*psiRe[t];
+               qRe[t] = re;
+            }
+            fft.transform (qRe, qIm, true);
+            double min = Double.POSITIVE_INFINITY;
+            for (int t = L - 1; t < 2*L - 1; t++)
+               min = Math.min (min, qRe[t]);
+            // Several candidates give the same criterion, for example z and
+            // n - z, since w is symmetric, but the rounding errors of the
+            // transform differ. Keep the smallest of those within the
+            // error bound of the transform.
+            double psum = 0.0;
+            for (int i = 0; i < n; i++)
+               psum += p[i];
+            double tol = 1.0e-10 * psum * Math.abs (w[0]);
+            z = n;
+            for (int t = L - 1; t < 2*L - 1; t++)
+               if (qRe[t] <= min + tol)
+                  z = Math.min (z, Math.min (perm[t % L], n - perm[t % L]));
+         }
+         a[j] = z;
+         final int aj = z;
+         final double gj = gamma[j];
+         forEach ((n + CHUNK - 1) / CHUNK, new ChunkBody() {
+            public void run (int c) {
+               int end = Math.min (n, (c + 1)*CHUNK);
+               for (int i = c*CHUNK; i < end; i++)
+                  p[i] *= 1.0 + gj * w[(int) ((long) i * aj % n)];
+            }
+         });
+      }
+      return a;
+   }
+
+
+   /**
+    * Returns the weighted <SPAN CLASS="MATH"><I>L</I><SUB>2</SUB></SPAN>-star discrepancy, with product
+    * weights <SPAN CLASS="MATH"><I>&#947;</I><SUB><I>j</I></SUB></SPAN> = <TT>gamma[<SPAN CLASS="MATH"><I>j</I></SPAN>]</TT>, of the points of <TT>set</TT>,
+    * with its current randomization. Its square is the sum, over all the
+    * nonempty subsets <SPAN CLASS="MATH"><B>u</B></SPAN> of coordinates, of the square of the
+    * <SPAN CLASS="MATH"><I>L</I><SUB>2</SUB></SPAN>-star discrepancy of the projection of the points on
+    * <SPAN CLASS="MATH"><B>u</B></SPAN>, multiplied by <SPAN CLASS="MATH">&prod;<SUB>j&#8712;<B>u</B></SUB><I>&#947;</I><SUB><I>j</I></SUB></SPAN>.
+    * The computing time is <SPAN CLASS="MATH"><I>O</I>(<I>n</I><SUP>2</SUP> <I>s</I>)</SPAN> for <SPAN CLASS="MATH"><I>n</I></SPAN> points in <SPAN CLASS="MATH"><I>s</I></SPAN> dimensions, so
+    * this is practical only for moderate values of <SPAN CLASS="MATH"><I>n</I></SPAN>.
+    *
+    * @param set the point set
+    *
+    *    @param gamma weights of the coordinates
+    *
+    *    @return the weighted <SPAN CLASS="MATH"><I>L</I><SUB>2</SUB></SPAN>-star discrepancy
+    *
+    */
+   public double weightedL2Star (PointSet set, final double[] gamma) {
+      final int n = set.getNumPoints();
+      final int s = set.getDimension();
+      if (n == Integer.MAX_VALUE || s == Integer.MAX_VALUE)
+         throw new IllegalArgumentException
+            ("The number of points and the dimension must be finite");
+      if (gamma.length < s)
+         throw new IllegalArgumentException
+            ("gamma must have at least s elements");
+      final double[] x = new double[n*s];
+      set.iterator().nextPoints (x, n, s, false);
+      int numChunks = (n + CHUNK - 1) / CHUNK;
+      final double[] sums = new double[numChunks];
+      forEach (numChunks, new ChunkBody() {
+         public void run (int c) {
+            int end = Math.min (n, (c + 1)*CHUNK);
+            double sum = 0.0;
+            for (int i = c*CHUNK; i < end; i++) {
+               double prod = 2.0;
+               for (int j = 0; j < s; j++) {
+                  double u = x[i*s + j];
+                  prod *= 1.0 + 0.5*gamma[j]*(1.0 - u*u);
+               }
+               double sumk = 0.0;
+               for (int k = 0; k < n; k++) {
+                  double prodk = 1.0;
+                  for (int j = 0; j < s; j++)
+                     prodk *= 1.0 + gamma[j]*(1.0 - Math.max (x[i*s + j],
+                                                             x[k*s + j]));
+                  sumk += prodk;
+               }
+               sum += sumk / n - prod;
+            }
+            sums[c] = sum;
+         }
+      });
+      double d2 = 1.0;
+      for (int j = 0; j < s; j++)
+         d2 *= 1.0 + gamma[j] / 3.0;
+      double sum = 0.0;
+      for (int c = 0; c < numChunks; c++)
+         sum += sums[c];
+      d2 += sum / n;
+      return Math.sqrt (Math.max (0.0, d2));
+   }
+
+
+   /**
+    * Returns the <SPAN CLASS="MATH"><I>t</I></SPAN>-value of the projection of the digital net
+    * <TT>net</TT>, with <SPAN CLASS="MATH">2<SUP><I>m</I></SUP></SPAN> points, on the coordinates
+    * <TT>coords</TT>. This is <SPAN CLASS="MATH"><I>m</I> - <I>k</I></SPAN>, where <SPAN CLASS="MATH"><I>k</I></SPAN> is the largest integer such
+    * that, for all nonnegative integers <SPAN CLASS="MATH"><I>d</I><SUB>0</SUB>,...,<I>d</I><SUB><I>r</I>-1</SUB></SPAN> whose sum is <SPAN CLASS="MATH"><I>k</I></SPAN>,
+    * where <SPAN CLASS="MATH"><I>r</I></SPAN> is the length of <TT>coords</TT>, the <SPAN CLASS="MATH"><I>k</I></SPAN> rows made of the first
+    * <SPAN CLASS="MATH"><I>d</I><SUB><I>l</I></SUB></SPAN> rows of the generator matrix of coordinate <TT>coords[<SPAN CLASS="MATH"><I>l</I></SPAN>]</TT>,
+    * for <SPAN CLASS="MATH"><I>l</I> = 0,...,<I>r</I>-1</SPAN>, are linearly independent. These rows are
+    * added one at a time to a matrix kept in echelon form, so the rank tests
+    * are shared between the vectors <SPAN CLASS="MATH">(<I>d</I><SUB>0</SUB>,...,<I>d</I><SUB><I>r</I>-1</SUB>)</SPAN> with a common
+    * beginning; the number of these vectors grows nevertheless very quickly
+    * with <SPAN CLASS="MATH"><I>r</I></SPAN>.
+    *
+    * @param net the digital net
+    *
+    *    @param coords coordinates of the projection
+    *
+    *    @return the <SPAN CLASS="MATH"><I>t</I></SPAN>-value of the projection
+    *
+    */
+   public int tValue (DigitalNetBase2 net, int[] coords) {
+      int m = net.numCols;
+      int[][] rows = new int[coords.length][m];
+      for (int d = 0; d < coords.length; d++) {
+         int j = coords[d];
+         if (j < 0 || j >= net.getDimension())
+            throw new IllegalArgumentException ("Invalid coordinate " + j);
+         for (int r = 0; r < m && r < net.outDigits; r++) {
+            int row = 0;
+            for (int c = 0; c < m; c++)
+               row |= ((net.genMat[j*m + c] >> (net.outDigits - 1 - r)) & 1) << c;
+            rows[d][r] = row;
+         }
+      }
+      for (int k = m; k > 0; k--)
+         if (independent (rows, 0, k, new int[m]))
+            return m - k;
+      return m;
+   }
+
+
+   /**
+    * Returns the <SPAN CLASS="MATH"><I>t</I></SPAN>-value of the digital net <TT>net</TT>, in all its
+    * dimensions.
+    *
+    * @param net the digital net
+    *
+    *    @return the <SPAN CLASS="MATH"><I>t</I></SPAN>-value of the net
+    *
+    */
+   public int tValue (DigitalNetBase2 net) {
+      int[] coords = new int[net.getDimension()];
+      for (int j = 0; j < coords.length; j++)
+         coords[j] = j;
+      return tValue (net, coords);
+   }
+
+
+   /**
+    * Returns the largest <SPAN CLASS="MATH"><I>t</I></SPAN>-value of the projections of <TT>net</TT> on
+    * <TT>order</TT> distinct coordinates. The projections are processed in
+    * parallel.
+    *
+    * @param net the digital net
+    *
+    *    @param order number of coordinates of the projections
+    *
+    *    @return the largest <SPAN CLASS="MATH"><I>t</I></SPAN>-value of the projections
+    *
+    */
+   public int maxTValue (final DigitalNetBase2 net, int order) {
+      int s = net.getDimension();
+      if (order < 1 || order > s)
+         throw new IllegalArgumentException
+            ("order must be between 1 and the dimension");
+      final java.util.List<int[]> proj = new java.util.ArrayList<int[]>();
+      int[] u = new int[order];
+      for (int l = 0; l < order; l++)
+         u[l] = l;
+      while (true) {
+         proj.add (u.clone());
+         int l = order - 1;
+         while (l >= 0 && u[l] == s - order + l)
+            l--;
+         if (l < 0)
+            break;
+         u[l]++;
+         for (int i = l + 1; i < order; i++)
+            u[i] = u[i-1] + 1;
+      }
+      final int[] t = new int[proj.size()];
+      forEach (t.length, new ChunkBody() {
+         public void run (int c) {
+            t[c] = tValue (net, proj.get (c));
+         }
+      });
+      int max = 0;
+      for (int c = 0; c < t.length; c++)
+         max = Math.max (max, t[c]);
+      return max;
+   }
+
+
+   /**
+    * Returns a short description of this object.
+    *
+    * @return a short description.
+    *
+    */
+   public String toString() {
+      return "FigureOfMerit with " + pool.getParallelism() + " threads";
+   }
+
+
+   // Returns w[k] = omega_alpha (k/n), for k = 0,...,n-1.
+   private static double[] omegaTable (int n, int alpha) {
+      double c;
+      double pi2 = Math.PI * Math.PI;
+      switch (alpha) {
+      case 2: c = 2.0 * pi2;               break;
+      case 4: c = -2.0 / 3.0 * pi2 * pi2;  break;
+      case 6: c = 4.0 / 45.0 * pi2 * pi2 * pi2;  break;
+      default:
+         throw new IllegalArgumentException ("alpha must be 2, 4 or 6");
+      }
+      double[] w = new double[n];
+      for (int k = 0; k < n; k++) {
+         double x = (double) k / n;
+         double x2 = x*x;
+         double b;
+         if (alpha == 2)
+            b = x2 - x + 1.0/6.0;
+         else if (alpha == 4)
+            b = x2*x2 - 2.0*x2*x + x2 - 1.0/30.0;
+         else
+            b = x2*x2*x2 - 3.0*x2*x2*x + 2.5*x2*x2 - 0.5*x2 + 1.0/42.0;
+         w[k] = c * b;
+      }
+      return w;
+   }
+
+   private static boolean isPrime (int n) {
+      if (n < 2)
+         return false;
+      for (int d = 2; (long) d * d <= n; d++)
+         if (n % d == 0)
+            return false;
+      return true;
+   }
+
+   // Returns the smallest primitive root modulo the prime n.
+   private static int primitiveRoot (int n) {
+      int L = n - 1;
+      java.util.List<Integer> factors = new java.util.ArrayList<Integer>();
+      int m = L;
+      for (int d = 2; (long) d * d <= m; d++)
+         if (m % d == 0) {
+            factors.add (d);
+            while (m % d == 0)
+               m /= d;
+         }
+      if (m > 1)
+         factors.add (m);
+      for (int g = 2; ; g++) {
+         boolean ok = true;
+         for (int f : factors)
+            if (modPower (g, L / f, n) == 1) {
+               ok = false;
+               break;
+            }
+         if (ok)
+            return g;
+      }
+   }
+
+   private static long modPower (long a, int e, int m) {
+      long r = 1;
+      a %= m;
+      while (e > 0) {
+         if ((e & 1) != 0)
+            r = r * a % m;
+         a = a * a % m;
+         e >>= 1;
+      }
+      return r;
+   }
+
+   // Adds the first d rows of coordinate l, for all d with sum k over the
+   // coordinates l, l+1, ..., to the basis in echelon form pivot, where
+   // pivot[b] is 0 or the vector whose highest bit is b. Returns false as
+   // soon as one of these sets of rows is linearly dependent.
+   private static boolean independent (int[][] rows, int l, int k,
+                                       int[] pivot) {
+      int[] p = pivot.clone();
+      if (l == rows.length - 1) {
+         for (int r = 0; r < k; r++)
+            if (!insert (p, rows[l][r]))
+               return false;
+         return true;
+      }
+      for (int d = 0; d <= k; d++) {
+         if (d > 0 && !insert (p, rows[l][d-1]))
+            return false;
+         if (!independent (rows, l + 1, k - d, p))
+            return false;
+      }
+      return true;
+   }
+
+   // Reduces v by the basis pivot and adds it to the basis. Returns false
+   // if v is a linear combination of the vectors of the basis.
+   private static boolean insert (int[] pivot, int v) {
+      for (int b = pivot.length - 1; b >= 0 && v != 0; b--)
+         if ((v >> b & 1) != 0) {
+            if (pivot[b] == 0) {
+               pivot[b] = v;
+               return true;
+            }
+            v ^= pivot[b];
+         }
+      return false;
+   }
+
+   private interface ChunkBody {
+      void run (int c);
+   }
+
+   // Calls body.run (c) for c = 0,...,m-1, in parallel.
+   private void forEach (int m, ChunkBody body) {
+      if (m > 0)
+         pool.invoke (new RangeTask (body, 0, m));
+   }
+
+   private static class RangeTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private ChunkBody body;
+      private int lo, hi;
+
+      RangeTask (ChunkBody body, int lo, int hi) {
+         this.body = body;
+         this.lo = lo;
+         this.hi = hi;
+      }
+
+      protected void compute() {
+         if (hi - lo == 1) {
+            body.run (lo);
+            return;
+         }
+         int mid = (lo + hi) >>> 1;
+         invokeAll (new RangeTask (body, lo, mid),
+                    new RangeTask (body, mid, hi));
+      }
+   }
+
+   // Radix-2 complex fast Fourier transform of size M, a power of 2.
+   private static class FFT {
+      private int M;
+      private double[] cos, sin;
+
+      FFT (int M) {
+         this.M = M;
+         cos = new double[M/2];
+         sin = new double[M/2];
+         for (int k = 0; k < M/2; k++) {
+            cos[k] = Math.cos (2.0 * Math.PI * k / M);
+            sin[k] = Math.sin (2.0 * Math.PI * k / M);
+         }
+      }
+
+      // Replaces (re, im) by its discrete Fourier transform, or by its
+      // inverse transform, divided by M, if inverse is true.
+      void transform (double[] re, double[] im, boolean inverse) {
+         for (int i = 1, j = 0; i < M; i++) {
+            int bit = M >> 1;
+            for (; (j & bit) != 0; bit >>= 1)
+               j ^= bit;
+            j ^= bit;
+            if (i < j) {
+               double t = re[i];  re[i] = re[j];  re[j] = t;
+               t = im[i];  im[i] = im[j];  im[j] = t;
+            }
+         }
+         double sign = inverse ? 1.0 : -1.0;
+         for (int len = 2; len <= M; len <<= 1) {
+            int step = M / len;
+            for (int i = 0; i < M; i += len)
+               for (int k = 0; k < len/2; k++) {
+                  double wr = cos[k*step];
+                  double wi = sign * sin[k*step];
+                  int u = i + k, v = i + k + len/2;
+                  double xr = re[v]*wr - im[v]*wi;
+                  double xi = re[v]*wi + im[v]*wr;
+                  re[v] = re[u] - xr;
+                  im[v] = im[u] - xi;
+                  re[u] += xr;
+                  im[u] += xi;
+               }
+         }
+         if (inverse)
+            for (int i = 0; i < M; i++) {
+               re[i] /= M;
+               im[i] /= M;
+            }
+      }
+   }
+}
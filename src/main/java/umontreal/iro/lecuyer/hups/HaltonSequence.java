@@ -27,6 +27,8 @@
 
 package umontreal.iro.lecuyer.hups;
 
+import java.util.NoSuchElementException;
+
 
 /**
  * This class implements the sequence of Halton,
@@ -55,6 +57,13 @@ package umontreal.iro.lecuyer.hups;
  * digits of <SPAN CLASS="MATH"><I>i</I></SPAN> before computing each coordinate, in the same way as for the class
  * {@link HammersleyPointSet}, for all coordinates <SPAN CLASS="MATH"><I>j</I>&nbsp;&gt;=&nbsp; 0</SPAN>.
  * 
+ * <P>
+ * The iterator returned by {@link #iterator iterator} keeps the digits of <SPAN CLASS="MATH"><I>i</I></SPAN> in
+ * each base and updates them from one point to the next, which takes
+ * amortized constant time and no division, instead of recomputing them.
+ * It returns exactly the same coordinates as {@link #getCoordinate getCoordinate},
+ * with or without permutations.
+ * 
  */
 public class HaltonSequence extends PointSet { 
    private int[] base;           // Vector of prime bases.
@@ -205,5 +214,182 @@ public class HaltonSequence extends PointSet {
             return RadicalInverse.radicalInverse (base[j], k);
       }
    }
+
+   public PointSetIterator iterator() {
+      return new HaltonSequenceIterator();
+   }
+
+// ************************************************************************
+
+   protected class HaltonSequenceIterator extends DefaultPointSetIterator {
+      // For each coordinate j, the digits in base base[j] of the index
+      // k = start[j] + i of the last point visited, least significant first.
+      // Going from k to k + 1 is an odometer increment, with no division,
+      // which takes amortized O(1) time. The radical inverse is then summed
+      // in the same order and with the same weights as in
+      // RadicalInverse.radicalInverse, so the coordinates are exactly
+      // those returned by getCoordinate. The digits and weights of all
+      // coordinates are stored one after the other, from offset[j].
+      private int[] offset;         // Digits of coord. j start at offset[j]
+      private int[] digits;         // digits[offset[j] + l] = l-th digit
+      private double[] weight;      // weight[offset[j] + l] = 1/b^(l+1)
+      private int[] numDigits;      // Num. of significant digits of index[j]
+      private int[] index;          // Index k whose digits are stored
+      private static final int BLOCK = 64;  // Points per block in nextPoints
+
+      public HaltonSequenceIterator() {
+         offset = new int[dim + 1];
+         for (int j = 0; j < dim; j++) {
+            // Max. number of digits of a positive int in base b
+            int m = 1;
+            for (long p = base[j]; p <= Integer.MAX_VALUE; p *= base[j])
+               m++;
+            offset[j + 1] = offset[j] + m;
+         }
+         digits = new int[offset[dim]];
+         weight = new double[offset[dim]];
+         numDigits = new int[dim];
+         index = new int[dim];
+         for (int j = 0; j < dim; j++) {
+            double radical = 1.0 / (double) base[j];
+            weight[offset[j]] = radical;
+            for (int l = offset[j] + 1; l < offset[j + 1]; l++)
+               weight[l] = weight[l - 1] * radical;
+         }
+      }
+
+      private void setIndex (int j, int k) {
+         // Sets the digits of coordinate j to those of k.
+         int b = base[j];
+         int off = offset[j];
+         int l;
+         if (k > 0 && k - 1 == index[j]) {
+            int top = off + numDigits[j];
+            for (l = off; l < top && digits[l] == b - 1; l++)
+               digits[l] = 0;
+            if (l < top)
+               digits[l]++;
+            else {
+               digits[top] = 1;
+               numDigits[j]++;
+            }
+         } else {
+            l = off;
+            for (int kk = k; kk > 0; kk /= b)
+               digits[l++] = kk % b;
+            numDigits[j] = l - off;
+         }
+         index[j] = k;
+      }
+
+      private double coordinate (int j) {
+         // Returns getCoordinate (curPointIndex, j).
+         if (radinv != null)
+            return getCoordinate (curPointIndex, j);
+         int k = start[j] + curPointIndex;
+         if (k < 0)
+            k = (k & positiveBitMask) + 1;
+         if (k != index[j])
+            setIndex (j, k);
+         int off = offset[j];
+         int top = off + numDigits[j];
+         double inverse = 0.0;
+         if (permuted) {
+            int[] pi = permutation[j];
+            for (int l = off; l < top; l++)
+               inverse += weight[l] * (double) pi[digits[l]];
+         } else {
+            for (int l = off; l < top; l++)
+               inverse += weight[l] * (double) digits[l];
+         }
+         return inverse;
+      }
+
+      private void fill (int j, int n, double[] p, int pos, int step) {
+         // Puts coordinate j of the n points starting at curPointIndex
+         // in p[pos], p[pos + step], p[pos + 2*step], ...
+         // Changes curPointIndex.
+         int m = 0;         // Number of points done with local digits
+         if (radinv == null) {
+            int k = start[j] + curPointIndex;
+            if (k < 0)
+               k = (k & positiveBitMask) + 1;
+            if (k != index[j])
+               setIndex (j, k);
+            // k must not overflow in the loop below
+            if (k >= 0)
+               m = (int) Math.min (n, Integer.MAX_VALUE - (long) k + 1);
+            int b = base[j];
+            int off = offset[j];
+            int top = off + numDigits[j];
+            int[] pi = permuted ? permutation[j] : null;
+            for (int i = 0; i < m; i++) {
+               if (i > 0) {
+                  int l;
+                  for (l = off; l < top && digits[l] == b - 1; l++)
+                     digits[l] = 0;
+                  if (l < top)
+                     digits[l]++;
+                  else
+                     digits[top++] = 1;
+               }
+               double inverse = 0.0;
+               if (pi == null)
+                  for (int l = off; l < top; l++)
+                     inverse += weight[l] * (double) digits[l];
+               else
+                  for (int l = off; l < top; l++)
+                     inverse += weight[l] * (double) pi[digits[l]];
+               p[pos] = inverse;
+               pos += step;
+            }
+            if (m > 0) {
+               numDigits[j] = top - off;
+               index[j] = k + m - 1;
+            }
+         }
+         int i0 = curPointIndex;
+         for (int i = m; i < n; i++) {
+            curPointIndex = i0 + i;
+            p[pos] = coordinate (j);
+            pos += step;
+         }
+      }
+
+      public double nextCoordinate() {
+         if (curPointIndex >= numPoints || curCoordIndex >= dim)
+            outOfBounds();
+         return coordinate (curCoordIndex++);
+      }
+
+      public int nextPoints (double p[], int n, int d, boolean colMajor) {
+         if (n > getNumPoints() - curPointIndex)
+            throw new NoSuchElementException ("Not enough points available");
+         if (d > dim)
+            throw new NoSuchElementException ("Not enough coordinates available");
+         // Coordinate by coordinate, so that the digits of one coordinate
+         // stay in registers for many points. In row-major order, the points
+         // are taken by blocks of BLOCK, to keep the part of p being written
+         // in cache.
+         int i0 = curPointIndex;
+         if (colMajor) {
+            for (int j = 0; j < d; j++) {
+               curPointIndex = i0;
+               fill (j, n, p, j*n, 1);
+            }
+         } else {
+            for (int i = 0; i < n; i += BLOCK) {
+               int nb = Math.min (BLOCK, n - i);
+               for (int j = 0; j < d; j++) {
+                  curPointIndex = i0 + i;
+                  fill (j, nb, p, i*d + j, d);
+               }
+            }
+         }
+         curPointIndex = i0 + n;
+         curCoordIndex = 0;
+         return curPointIndex;
+      }
+   }
 }
 
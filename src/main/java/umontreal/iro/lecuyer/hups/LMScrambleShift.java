@@ -35,7 +35,8 @@ package umontreal.iro.lecuyer.hups;
  * {@link umontreal.iro.lecuyer.hups.PointSetRandomization PointSetRandomization}
  * that performs a left matrix scrambling and adds a random digital
  * shift. Point set must be a
- * {@link umontreal.iro.lecuyer.hups.DigitalNet DigitalNet} or an
+ * {@link umontreal.iro.lecuyer.hups.DigitalNet DigitalNet} or a
+ * {@link umontreal.iro.lecuyer.hups.DigitalNetBase2L DigitalNetBase2L}, or an
  * {@link java.lang.IllegalArgumentException IllegalArgumentException} is thrown.
  * 
  */
@@ -70,8 +71,12 @@ public class LMScrambleShift extends RandomShift  {
     *    {@link umontreal.iro.lecuyer.hups.DigitalNet#leftMatrixScramble(RandomStream) leftMatrixScramble},
     *    then
     *    {@link umontreal.iro.lecuyer.hups.DigitalNet#addRandomShift(RandomStream) addRandomShift}.
-    *    If <TT>p</TT> is not a
-    *    {@link umontreal.iro.lecuyer.hups.DigitalNet DigitalNet}, an
+    *    The same methods of
+    *    {@link umontreal.iro.lecuyer.hups.DigitalNetBase2L DigitalNetBase2L} are called
+    *    if <TT>p</TT> is a <TT>DigitalNetBase2L</TT>.
+    *    If <TT>p</TT> is neither a
+    *    {@link umontreal.iro.lecuyer.hups.DigitalNet DigitalNet} nor a
+    *    <TT>DigitalNetBase2L</TT>, an
     * {@link java.lang.IllegalArgumentException IllegalArgumentException} is thrown.
     * 
     * @param p Point set to randomize
@@ -82,9 +87,12 @@ public class LMScrambleShift extends RandomShift  {
       if (p instanceof DigitalNet) {
          ((DigitalNet)p).leftMatrixScramble (stream);
          ((DigitalNet)p).addRandomShift (stream);
+      } else if (p instanceof DigitalNetBase2L) {
+         ((DigitalNetBase2L)p).leftMatrixScramble (stream);
+         ((DigitalNetBase2L)p).addRandomShift (stream);
       } else {
          throw new IllegalArgumentException("LMScrambleShift"+
-                                            " can only randomize a DigitalNet");
+                       " can only randomize a DigitalNet or a DigitalNetBase2L");
       }
    }
    
@@ -0,0 +1,464 @@
+
+
+/*
+ * Class:        OffHeapCachedPointSet
+ * Description:  point set cached outside of the Java heap
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.NoSuchElementException;
+import umontreal.iro.lecuyer.util.PrintfFormat;
+import umontreal.iro.lecuyer.util.Num;
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+
+/**
+ * This container class caches a point set, like {@link CachedPointSet},
+ * but stores its points outside of the Java heap, in a contiguous region of
+ * native memory or in a file mapped in memory.
+ * The points are stored one after the other, coordinate by coordinate,
+ * either as <TT>double</TT> values (8 bytes per coordinate), or as
+ * 31-bit integers giving the first 31 binary digits of each coordinate
+ * (4 bytes per coordinate).
+ * The second format is exact for digital nets in base 2 with at most 31
+ * output digits, such as {@link SobolSequence}, before any randomization;
+ * for other point sets, it truncates the coordinates to a multiple of
+ * <SPAN CLASS="MATH">2<SUP>-31</SUP></SPAN>.
+ * For example, <SPAN CLASS="MATH">2<SUP>22</SUP></SPAN> points in 200 dimensions take 6.7 gigabytes as
+ * <TT>double</TT> values and 3.4 gigabytes as digits, none of which is
+ * scanned by the garbage collector. Very large point sets should be stored
+ * in a file, since the native memory available to direct buffers is limited
+ * by the option <TT>-XX:MaxDirectMemorySize</TT> of the Java virtual machine.
+ *
+ * <P>
+ * The iterators read the coordinates directly from the stored region, and
+ * the random shifts are applied on the fly, when the coordinates are read,
+ * so the points are never cached again.
+ * For the points stored as digits, {@link #addRandomShift addRandomShift} generates a
+ * random digital shift in base 2, which is added to the digits by a
+ * bitwise exclusive-or; for the points stored as <TT>double</TT> values,
+ * it generates a random shift modulo 1.
+ * The stored points are never modified after construction, so
+ * {@link #snapshot snapshot} returns a copy which shares them with this point set,
+ * and only copies the shift.
+ *
+ */
+public class OffHeapCachedPointSet extends CachedPointSet {
+   // Largest number of bytes in a segment, since a buffer is indexed by
+   // an int.
+   private static final int MAXSEGMENT = Integer.MAX_VALUE - 7;
+   private static final double NORM = 1.0 / Num.TWOEXP[31];
+   // Added to the shifted digits, to return the center of the box, as
+   // the iterators of DigitalNetBase2 do.
+   private static final double HALF = 0.5 * NORM;
+
+   private boolean digits;       // true if the points are stored as digits
+   private int pointsPerSeg;     // number of points in each segment
+   private IntBuffer[] intSeg;   // segments of the points stored as digits
+   private DoubleBuffer[] doubleSeg; // segments of the points as doubles
+   private int[] digitalShift;   // random digital shift
+   private double[] shift;       // random shift modulo 1
+
+
+   /**
+    * Creates a new point set that stores, in native memory, the first
+    * <TT>dim</TT> coordinates of the first <TT>n</TT> points of <TT>P</TT>,
+    * as digits if <TT>digits</TT> is <TT>true</TT>, and as <TT>double</TT>
+    * values otherwise.
+    * The original point set <TT>P</TT> itself is not modified.
+    *
+    *
+    * @param P point set to be cached
+    *
+    *    @param n number of points
+    *
+    *    @param dim number of dimensions of the points
+    *
+    *    @param digits <TT>true</TT> to store the points as 31-bit integers
+    *
+    */
+   public OffHeapCachedPointSet (PointSet P, int n, int dim,
+                                 boolean digits) {
+      check (P, n, dim);
+      numPoints = n;
+      this.dim = dim;
+      this.P = P;
+      this.digits = digits;
+      ByteBuffer[] seg = segments();
+      for (int s = 0; s < seg.length; s++)
+         seg[s] = ByteBuffer.allocateDirect (segmentSize (s));
+      setSegments (seg);
+      init();
+   }
+
+
+   /**
+    * Creates a new point set that stores, in native memory, all the points
+    * of <TT>P</TT>. The number of points and their dimension are the same as
+    * in the original point set. Both must be finite.
+    *
+    *
+    * @param P point set to be cached
+    *
+    *    @param digits <TT>true</TT> to store the points as 31-bit integers
+    *
+    */
+   public OffHeapCachedPointSet (PointSet P, boolean digits) {
+      this (P, P.getNumPoints(), P.getDimension(), digits);
+   }
+
+
+   /**
+    * Same as {@link #OffHeapCachedPointSet(PointSet,int,int,boolean) OffHeapCachedPointSet},
+    * except that the points are stored in the file <TT>filename</TT>, mapped
+    * in memory. The file is created if it does not exist, and overwritten
+    * otherwise. The operating system then keeps in memory only the parts of
+    * the file being used, so the point set may be larger than the physical
+    * memory.
+    *
+    *
+    * @param P point set to be cached
+    *
+    *    @param n number of points
+    *
+    *    @param dim number of dimensions of the points
+    *
+    *    @param digits <TT>true</TT> to store the points as 31-bit integers
+    *
+    *    @param filename name of the file storing the points
+    *
+    *    @exception IOException if the file cannot be created or mapped
+    *
+    */
+   public OffHeapCachedPointSet (PointSet P, int n, int dim,
+                                 boolean digits, String filename)
+                                 throws IOException {
+      check (P, n, dim);
+      numPoints = n;
+      this.dim = dim;
+      this.P = P;
+      this.digits = digits;
+      ByteBuffer[] seg = segments();
+      RandomAccessFile file = new RandomAccessFile (filename, "rw");
+      try {
+         FileChannel channel = file.getChannel();
+         long pos = 0;
+         for (int s = 0; s < seg.length; s++) {
+            int size = segmentSize (s);
+            seg[s] = channel.map (FileChannel.MapMode.READ_WRITE, pos, size);
+            pos += size;
+         }
+         file.setLength (pos);
+      } finally {
+         file.close();
+      }
+      setSegments (seg);
+      init();
+   }
+
+
+   private static void check (PointSet P, int n, int dim) {
+      if (n == Integer.MAX_VALUE)
+         throw new IllegalArgumentException(
+            "Cannot cache infinite number of points");
+      if (dim == Integer.MAX_VALUE)
+         throw new IllegalArgumentException(
+            "Cannot cache infinite dimensional points");
+      if (P.getNumPoints() < n)
+         throw new IllegalArgumentException(
+            "Cannot cache more points than in point set P.");
+      if (P.getDimension() < dim)
+         throw new IllegalArgumentException(
+            "Cannot cache points with more coordinates than the dimension.");
+      if (n < 0 || dim < 1)
+         throw new IllegalArgumentException(
+            "The number of points and dimension must be positive.");
+      if (dim > MAXSEGMENT / 8)
+         throw new IllegalArgumentException(
+            "Cannot cache points with so many coordinates.");
+   }
+
+   // Returns an array with one element for each segment, and sets
+   // pointsPerSeg. Each segment is smaller than 2^31 bytes.
+   private ByteBuffer[] segments() {
+      pointsPerSeg = MAXSEGMENT / (dim * (digits ? 4 : 8));
+      int numSeg = (numPoints + pointsPerSeg - 1) / pointsPerSeg;
+      return new ByteBuffer[Math.max (1, numSeg)];
+   }
+
+   // Returns the number of bytes in segment s.
+   private int segmentSize (int s) {
+      int m = Math.min (pointsPerSeg, numPoints - s*pointsPerSeg);
+      return m * dim * (digits ? 4 : 8);
+   }
+
+   private void setSegments (ByteBuffer[] seg) {
+      if (digits)
+         intSeg = new IntBuffer[seg.length];
+      else
+         doubleSeg = new DoubleBuffer[seg.length];
+      for (int s = 0; s < seg.length; s++) {
+         seg[s].order (ByteOrder.nativeOrder());
+         if (digits)
+            intSeg[s] = seg[s].asIntBuffer();
+         else
+            doubleSeg[s] = seg[s].asDoubleBuffer();
+      }
+   }
+
+   protected void init() {
+      PointSetIterator itr = P.iterator();
+      double[] u = new double[dim];
+      int[] v = new int[dim];
+      for (int i = 0; i < numPoints; i++) {
+         int s = i / pointsPerSeg;
+         int k = (i - s*pointsPerSeg) * dim;
+         itr.nextPoint (u, dim);
+         if (digits) {
+            for (int j = 0; j < dim; j++)
+               v[j] = (int) (u[j] * Num.TWOEXP[31]);
+            intSeg[s].position (k);
+            intSeg[s].put (v);
+         } else {
+            doubleSeg[s].position (k);
+            doubleSeg[s].put (u);
+         }
+      }
+   }
+
+
+   /**
+    * Returns <TT>true</TT> if the points are stored as 31-bit integers, and
+    * <TT>false</TT> if they are stored as <TT>double</TT> values.
+    *
+    * @return <TT>true</TT> if the points are stored as digits
+    *
+    */
+   public boolean isDigital() {
+      return digits;
+   }
+
+
+   /**
+    * Generates a random shift for coordinates <TT>d1</TT> to <TT>d2-1</TT>,
+    * using <TT>stream</TT>. The shift is a digital shift in base 2 if the
+    * points are stored as digits, and a shift modulo 1 otherwise. It is applied
+    * when the coordinates are read; the stored points are not modified.
+    * If <TT>d2</TT> is 0 or larger than the dimension, it is replaced by the
+    * dimension.
+    *
+    * @param d1 lower dimension of the shift
+    *
+    *    @param d2 upper dimension of the shift is <TT>d2 - 1</TT>
+    *
+    *    @param stream random number stream used to generate uniforms
+    *
+    */
+   public void addRandomShift (int d1, int d2, RandomStream stream) {
+      if (null == stream)
+         throw new IllegalArgumentException (
+              PrintfFormat.NEWLINE +
+                 "   Calling addRandomShift with null stream");
+      if (0 == d2)
+         d2 = dim;
+      d2 = Math.min (d2, dim);
+      if (d1 < 0 || d1 > d2)
+         throw new IllegalArgumentException ("illegal parameter d1 or d2");
+      if (d2 > capacityShift) {
+         if (digits) {
+            int[] temp = new int[dim];
+            for (int j = 0; j < d1; j++)
+               temp[j] = digitalShift[j];
+            digitalShift = temp;
+         } else {
+            double[] temp = new double[dim];
+            for (int j = 0; j < d1; j++)
+               temp[j] = shift[j];
+            shift = temp;
+         }
+         capacityShift = dim;
+      }
+      for (int j = d1; j < d2; j++) {
+         if (digits)
+            digitalShift[j] = stream.nextInt (0, 2147483647);
+         else
+            shift[j] = stream.nextDouble();
+      }
+      dimShift = d2;
+      shiftStream = stream;
+   }
+
+
+   /**
+    * Same as {@link #addRandomShift(int,int,RandomStream) addRandomShift}<TT>(0, dim, stream)</TT>,
+    * where <TT>dim</TT> is the dimension of the point set.
+    *
+    * @param stream random number stream used to generate uniforms
+    *
+    */
+   public void addRandomShift (RandomStream stream) {
+      addRandomShift (0, dim, stream);
+   }
+
+
+   /**
+    * Erases the current random shift, if any.
+    *
+    */
+   public void clearRandomShift() {
+      super.clearRandomShift();
+      digitalShift = null;
+      shift = null;
+   }
+
+
+   /**
+    * Randomizes this point set using <TT>rand</TT>. Unlike
+    * {@link CachedPointSet}, this does not randomize the contained point set,
+    * so only randomizations that call {@link #addRandomShift addRandomShift}, such as
+    * {@link RandomShift}, can be used.
+    *
+    */
+   public void randomize (PointSetRandomization rand) {
+      rand.randomize (this);
+   }
+
+
+   /**
+    * Returns a copy of this point set with its current random shift. The copy
+    * shares the stored points with this point set.
+    *
+    * @return a copy of this point set
+    *
+    */
+   public PointSet snapshot() {
+      OffHeapCachedPointSet p = (OffHeapCachedPointSet) copy();
+      if (digitalShift != null)
+         p.digitalShift = digitalShift.clone();
+      if (shift != null)
+         p.shift = shift.clone();
+      p.shiftStream = null;
+      return p;
+   }
+
+
+   public String toString() {
+     StringBuffer sb = new StringBuffer ("Off-heap cached point set (");
+     sb.append (digits ? "31-bit digits)" : "doubles)");
+     sb.append (PrintfFormat.NEWLINE + "Number of points: " + numPoints);
+     sb.append (PrintfFormat.NEWLINE + "Point set dimension: " + dim);
+     sb.append (PrintfFormat.NEWLINE + "Cached point set information {"
+                + PrintfFormat.NEWLINE);
+     sb.append (P.toString());
+     sb.append (PrintfFormat.NEWLINE + "}");
+     return sb.toString();
+   }
+
+   // Returns coordinate j of the point stored from index k of segment s.
+   private double getCoordinate (int s, int k, int j) {
+      if (digits) {
+         int v = intSeg[s].get (k + j);
+         if (j < dimShift)
+            return (v ^ digitalShift[j]) * NORM + HALF;
+         return v * NORM;
+      } else {
+         double u = doubleSeg[s].get (k + j);
+         if (j < dimShift) {
+            u += shift[j];
+            if (u >= 1.0)
+               u -= 1.0;
+            if (u <= 0.0)
+               u = EpsilonHalf;  // avoid u = 0
+         }
+         return u;
+      }
+   }
+
+   public double getCoordinate (int i, int j) {
+      // As x[i][j] in CachedPointSet; j must be checked since the
+      // coordinates of all the points of a segment are contiguous.
+      if (i < 0 || i >= numPoints)
+         throw new ArrayIndexOutOfBoundsException (i);
+      if (j < 0 || j >= dim)
+         throw new ArrayIndexOutOfBoundsException (j);
+      int s = i / pointsPerSeg;
+      return getCoordinate (s, (i - s*pointsPerSeg) * dim, j);
+   }
+
+   public PointSetIterator iterator() {
+      return new OffHeapCachedPointSetIterator();
+   }
+
+   // ***************************************************************
+
+   protected class OffHeapCachedPointSetIterator
+                   extends DefaultPointSetIterator {
+      private int seg = 0;    // segment of the current point
+      private int base = 0;   // index of its first coordinate in seg
+
+      public void setCurPointIndex (int i) {
+         curPointIndex = i;
+         seg = i / pointsPerSeg;
+         base = (i - seg*pointsPerSeg) * dim;
+         resetCurCoordIndex();
+      }
+
+      public double nextCoordinate() {
+         if (curPointIndex >= numPoints || curCoordIndex >= dim)
+            outOfBounds();
+         return getCoordinate (seg, base, curCoordIndex++);
+      }
+
+      public void nextCoordinates (double p[], int d) {
+         if (curPointIndex >= numPoints || curCoordIndex + d > dim)
+            outOfBounds();
+         for (int j = 0; j < d; j++)
+            p[j] = getCoordinate (seg, base, curCoordIndex++);
+      }
+
+      public int nextPoints (double p[], int n, int d, boolean colMajor) {
+         if (n > numPoints - curPointIndex)
+            throw new NoSuchElementException ("Not enough points available");
+         if (d > dim)
+            throw new NoSuchElementException
+               ("Not enough coordinates available");
+         for (int i = 0; i < n; i++) {
+            if (colMajor)
+               for (int j = 0; j < d; j++)
+                  p[j*n + i] = getCoordinate (seg, base, j);
+            else
+               for (int j = 0; j < d; j++)
+                  p[i*d + j] = getCoordinate (seg, base, j);
+            setCurPointIndex (curPointIndex + 1);
+         }
+         return curPointIndex;
+      }
+   }
+}
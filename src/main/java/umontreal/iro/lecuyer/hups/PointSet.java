@@ -82,7 +82,7 @@ import umontreal.iro.lecuyer.util.PrintfFormat;
  * One should access the coordinates only via the iterators.
  * 
  */
-public abstract class PointSet  {
+public abstract class PointSet implements Cloneable  {
 
    // The maximum number of usable bits (binary digits).
    // Since Java has no unsigned type, the
@@ -292,6 +292,49 @@ public abstract class PointSet  {
   }
 
 
+   /**
+    * Returns a copy of this point set with its current
+    *    randomization, which shares no modifiable state with this point set:
+    *    randomizing this point set afterwards does not change the copy.
+    *    Several threads can enumerate the points of the copy at the same time,
+    *    each with its own iterator, as long as the copy itself is not
+    *    randomized. The random shift of the copy is never extended, so it must
+    *    already cover all the coordinates that will be used; reading a coordinate
+    *    beyond it throws an <TT>IllegalArgumentException</TT>, whereas this
+    *    point set would extend its shift with its random stream.
+    *    This method is implemented in {@link DigitalNet},
+    *    {@link DigitalNetBase2}, {@link DigitalNetBase2L}, {@link Rank1Lattice}
+    *    and {@link OffHeapCachedPointSet}, and their subclasses, by copying the
+    *    randomization. By default, it returns a {@link CachedPointSet} containing
+    *    the points of this point set, computed with an iterator; this requires a
+    *    finite number of points and a finite dimension, and memory for all the
+    *    coordinates.
+    * 
+    * @return a copy of this point set, with its current randomization
+    * 
+    *    @exception UnsupportedOperationException if the default implementation
+    *       is used and the number of points or the dimension is infinite
+    * 
+    */
+   public PointSet snapshot() {
+      if (getNumPoints() == Integer.MAX_VALUE ||
+          getDimension() == Integer.MAX_VALUE)
+         throw new UnsupportedOperationException
+            ("snapshot of " + getClass().getName() +
+             " requires a finite number of points and a finite dimension");
+      return new CachedPointSet (this);
+   }
+
+   // Returns a shallow copy of this point set, used by snapshot.
+   protected PointSet copy() {
+      try {
+         return (PointSet)super.clone();
+      } catch (CloneNotSupportedException e) {
+         throw new IllegalStateException ("PointSet can't clone");
+      }
+   }
+
+
    /**
     * Formats a string that contains information about the point set.
     * 
@@ -676,6 +719,21 @@ public abstract class PointSet  {
          return resetToNextPoint();
       }
 
+      public int nextPoints (double p[], int n, int d, boolean colMajor) {
+         if (n > getNumPoints() - getCurPointIndex())
+            throw new NoSuchElementException ("Not enough points available");
+         double[] x = new double[d];
+         for (int i = 0; i < n; i++) {
+            nextPoint (x, d);
+            if (colMajor)
+               for (int j = 0; j < d; j++)
+                  p[j*n + i] = x[j];
+            else
+               System.arraycopy (x, 0, p, i*d, d);
+         }
+         return getCurPointIndex();
+      }
+
 
       public void resetStartStream() {     // Same as resetCurPointIndex();
          resetCurPointIndex();
@@ -235,4 +235,39 @@ public interface PointSetIterator extends RandomStream {
     * 
     */
    public int nextPoint (double[] p, int d);
+
+
+   /**
+    * Returns the first <TT>d</TT> coordinates of the <TT>n</TT> points
+    *    starting from the <SPAN  CLASS="textit">current</SPAN> point in the block <TT>p</TT>,
+    *    advances to the point that follows them, and returns the index of the
+    *    <SPAN  CLASS="textit">new</SPAN> current point.
+    *    If <TT>colMajor</TT> is <TT>false</TT>, the block is filled in
+    *    row-major order: coordinate <SPAN CLASS="MATH"><I>j</I></SPAN> of the <SPAN CLASS="MATH"><I>i</I></SPAN>-th point returned is put in
+    *    <TT>p[<SPAN CLASS="MATH"><I>i</I></SPAN>*d + <SPAN CLASS="MATH"><I>j</I></SPAN>]</TT>, so the points are stored one after the other,
+    *    as with <TT>n</TT> calls to {@link #nextPoint nextPoint}.
+    *    Otherwise, it is filled in column-major order: this coordinate is put in
+    *    <TT>p[<SPAN CLASS="MATH"><I>j</I></SPAN>*n + <SPAN CLASS="MATH"><I>i</I></SPAN>]</TT>, so that the <TT>n</TT> values of each
+    *    coordinate are contiguous.
+    *    The points returned are the same as those returned by <TT>n</TT>
+    *    calls to {@link #nextPoint nextPoint}, but specialized implementations
+    *    compute them in a single loop, updating all the coordinates of the
+    *    current point at once rather than one coordinate at a time.
+    *  
+    * @param p array of size at least <TT>n*d</TT> to be filled with
+    *              the points, starting from array index 0
+    * 
+    *    @param n number of points to return
+    * 
+    *    @param d number of coordinates to return for each point
+    * 
+    *    @param colMajor <TT>true</TT> to store the points in
+    *              column-major order, <TT>false</TT> for row-major order
+    * 
+    *    @return index of the new current point
+    *    @exception NoSuchElementException if there are less than <TT>n</TT>
+    *      points left, or less than <TT>d</TT> coordinates in each point
+    * 
+    */
+   public int nextPoints (double[] p, int n, int d, boolean colMajor);
 }
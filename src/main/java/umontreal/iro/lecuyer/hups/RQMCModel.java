@@ -0,0 +1,66 @@
+
+
+/*
+ * Class:        RQMCModel
+ * Description:  model simulated with randomized quasi-Monte Carlo
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+
+/**
+ * Represents a model simulated with randomized quasi-Monte Carlo by a
+ * {@link RQMCRunner}. The method {@link #simulate simulate} performs one
+ * simulation run, using the coordinates of one point of a randomized point
+ * set as its uniform random numbers, and returns the value of the
+ * performance measure for this run, for example the discounted payoff of an
+ * option.
+ *
+ * <P>
+ * An object implementing this interface may perform several runs, one after
+ * the other, but never two at the same time. It must therefore keep its
+ * state (for example, the path of a process) in its own fields, not in
+ * static variables nor in objects shared with other instances.
+ *
+ */
+public interface RQMCModel {
+
+
+   /**
+    * Performs one simulation run using the uniforms given by
+    * <TT>stream</TT>, and returns the value of the performance measure.
+    * When called by a {@link RQMCRunner}, <TT>stream</TT> is a
+    * {@link PointSetIterator} positioned at the first coordinate of a point,
+    * and successive calls to <TT>stream.nextDouble()</TT> return the
+    * successive coordinates of this point.
+    * The method must not change the current point of <TT>stream</TT>.
+    *
+    * @param stream the stream of uniforms for this run.
+    *
+    * @return the value of the performance measure.
+    *
+    */
+   public double simulate (RandomStream stream);
+
+}
@@ -0,0 +1,48 @@
+
+
+/*
+ * Class:        RQMCModelFactory
+ * Description:  constructs the models simulated by an RQMCRunner
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+
+/**
+ * Constructs the {@link RQMCModel} objects used by a {@link RQMCRunner},
+ * one for each thread performing simulation runs, so that the state of the
+ * model is never shared between threads.
+ *
+ */
+public interface RQMCModelFactory {
+
+
+   /**
+    * Constructs and returns a new instance of the model, which
+    * shares no modifiable state with the other ones.
+    *
+    * @return the new model.
+    *
+    */
+   public RQMCModel newInstance();
+
+}
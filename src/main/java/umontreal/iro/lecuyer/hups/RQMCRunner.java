@@ -0,0 +1,295 @@
+
+
+/*
+ * Class:        RQMCRunner
+ * Description:  simulates RQMC randomizations in parallel
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import umontreal.iro.lecuyer.stat.Tally;
+
+
+/**
+ * Estimates the expectation of the performance measure of a model with
+ * randomized quasi-Monte Carlo (RQMC), by simulating one run of the model
+ * for each point of <SPAN CLASS="MATH"><I>m</I></SPAN> independent randomizations of a point set, using
+ * several threads.
+ * Randomization <SPAN CLASS="MATH"><I>r</I></SPAN> is obtained by calling <TT>randomize</TT> on the
+ * {@link PointSetRandomization}, for <SPAN CLASS="MATH"><I>r</I>=0,...,<I>m</I>-1</SPAN> in this order, so that
+ * the random numbers used by the randomizations are the same as in a
+ * sequential program. After each randomization, an immutable copy of the
+ * randomized point set is taken with {@link PointSet#snapshot() PointSet.snapshot};
+ * the runs for the <SPAN CLASS="MATH"><I>n</I></SPAN> points of these copies are then distributed over the
+ * threads of a <TT>java.util.concurrent.ForkJoinPool</TT>.
+ * Each thread uses its own {@link RQMCModel}, constructed by a
+ * {@link RQMCModelFactory}, and its own {@link PointSetIterator}.
+ *
+ * <P>
+ * For randomization <SPAN CLASS="MATH"><I>r</I></SPAN>, the run for point <SPAN CLASS="MATH"><I>i</I></SPAN> uses a stream positioned at
+ * point <SPAN CLASS="MATH"><I>i</I></SPAN>, as a sequential program calling <TT>resetNextSubstream</TT> on
+ * the iterator after each run does. The values of the <SPAN CLASS="MATH"><I>n</I></SPAN> runs are stored by
+ * point number, and their average is computed by adding them in increasing
+ * order of point number to a {@link umontreal.iro.lecuyer.stat.Tally Tally}.
+ * The <SPAN CLASS="MATH"><I>m</I></SPAN> averages are thus the same, to the last bit, as those of the
+ * sequential program, whatever the number of threads.
+ *
+ * <P>
+ * Since the copies cannot extend their random shift, the randomization must
+ * shift all the coordinates used by the model, as is done by the
+ * randomizations of the point sets of finite dimension; otherwise, reading
+ * the other coordinates throws an <TT>IllegalArgumentException</TT>,
+ * which the sequential program would not do.
+ * The threads of the runner are kept between calls to <TT>simulate</TT>;
+ * the method {@link #shutdown shutdown} terminates them.
+ *
+ */
+public class RQMCRunner {
+   // Smallest number of points simulated by a single task.
+   private static final int MIN_CHUNK = 64;
+
+   private RQMCModelFactory factory;
+   private ForkJoinPool pool;
+
+
+   /**
+    * Constructs a runner for the models created by <TT>factory</TT>,
+    * with one thread for each processor available to the Java virtual machine.
+    *
+    * @param factory the factory creating the models.
+    *
+    */
+   public RQMCRunner (RQMCModelFactory factory) {
+      this (factory, Runtime.getRuntime().availableProcessors());
+   }
+
+
+   /**
+    * Same as above, with <TT>parallelism</TT> threads.
+    *
+    * @param factory the factory creating the models.
+    *
+    *    @param parallelism the number of threads.
+    *
+    *    @exception IllegalArgumentException if <TT>parallelism</TT> is smaller
+    *     than 1.
+    *
+    */
+   public RQMCRunner (RQMCModelFactory factory, int parallelism) {
+      if (parallelism < 1)
+         throw new IllegalArgumentException
+            ("The number of threads must be at least 1");
+      this.factory = factory;
+      pool = new ForkJoinPool (parallelism);
+   }
+
+
+   /**
+    * Returns the number of threads used to simulate the runs.
+    *
+    * @return the number of threads.
+    *
+    */
+   public int getParallelism() {
+      return pool.getParallelism();
+   }
+
+
+   /**
+    * Simulates one run for each point of each point set in <TT>sets</TT>,
+    * and returns the average value of the runs for each point set.
+    * The point sets must not be modified while this method executes; they are
+    * normally obtained by {@link PointSet#snapshot() PointSet.snapshot} after
+    * each randomization.
+    *
+    * @param sets the randomized point sets.
+    *
+    *    @return the average value of the runs for each point set.
+    *
+    */
+   public double[] simulate (PointSet[] sets) {
+      final PointSet[] views = sets.clone();
+      final double[] averages = new double[views.length];
+      final ThreadLocal<RQMCModel> models = new ThreadLocal<RQMCModel>() {
+         protected RQMCModel initialValue() {
+            return factory.newInstance();
+         }
+      };
+      pool.invoke (new RecursiveAction() {
+         protected void compute() {
+            RandomizationTask[] tasks = new RandomizationTask[views.length];
+            for (int r = 0; r < views.length; r++)
+               tasks[r] = new RandomizationTask (views[r], averages, r, models);
+            invokeAll (tasks);
+         }
+      });
+      return averages;
+   }
+
+
+   /**
+    * Randomizes <TT>p</TT> <SPAN CLASS="MATH"><I>m</I></SPAN> times with <TT>rand</TT>, simulates one
+    * run for each point of each randomization, and returns the <SPAN CLASS="MATH"><I>m</I></SPAN> average
+    * values. After the call, <TT>p</TT> is left with its last randomization,
+    * as in the sequential program.
+    *
+    * @param p the point set.
+    *
+    *    @param rand the randomization applied to the point set.
+    *
+    *    @param m the number of randomizations.
+    *
+    *    @return the average value of the runs for each randomization.
+    *
+    *    @exception IllegalArgumentException if <TT>m</TT> is negative or
+    *     the number of points of <TT>p</TT> is infinite.
+    *
+    *    @exception UnsupportedOperationException if <TT>p</TT> does not
+    *     support <TT>snapshot</TT>.
+    *
+    */
+   public double[] simulate (PointSet p, PointSetRandomization rand, int m) {
+      if (m < 0)
+         throw new IllegalArgumentException
+            ("The number of randomizations must not be negative");
+      if (p.getNumPoints() == Integer.MAX_VALUE)
+         throw new IllegalArgumentException
+            ("The number of points must be finite");
+      PointSet[] views = new PointSet[m];
+      for (int r = 0; r < m; r++) {
+         rand.randomize (p);
+         views[r] = p.snapshot();
+      }
+      return simulate (views);
+   }
+
+
+   /**
+    * Same as {@link #simulate(PointSet,PointSetRandomization,int) simulate},
+    * but adds the <SPAN CLASS="MATH"><I>m</I></SPAN> averages, in increasing order of randomization number,
+    * to <TT>statRQMC</TT>.
+    *
+    * @param p the point set.
+    *
+    *    @param rand the randomization applied to the point set.
+    *
+    *    @param m the number of randomizations.
+    *
+    *    @param statRQMC the collector receiving the averages.
+    *
+    */
+   public void simulate (PointSet p, PointSetRandomization rand, int m,
+                         Tally statRQMC) {
+      double[] averages = simulate (p, rand, m);
+      for (int r = 0; r < m; r++)
+         statRQMC.add (averages[r]);
+   }
+
+
+   /**
+    * Terminates the threads of this runner, once the runs in progress
+    *   are completed. The runner cannot simulate anything afterwards.
+    *
+    */
+   public void shutdown() {
+      pool.shutdown();
+   }
+
+
+   /**
+    * Returns a short description of this runner.
+    *
+    * @return a short description.
+    *
+    */
+   public String toString() {
+      return "RQMCRunner with " + pool.getParallelism() + " threads";
+   }
+
+
+   // Simulates all the points of one randomized point set.
+   private class RandomizationTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private PointSet set;
+      private double[] averages;
+      private int r;
+      private ThreadLocal<RQMCModel> models;
+
+      RandomizationTask (PointSet set, double[] averages, int r,
+                         ThreadLocal<RQMCModel> models) {
+         this.set = set;
+         this.averages = averages;
+         this.r = r;
+         this.models = models;
+      }
+
+      protected void compute() {
+         int n = set.getNumPoints();
+         int chunk = Math.max (MIN_CHUNK, n / (8*pool.getParallelism()));
+         double[] values = new double[n];
+         invokeAll (new PointsTask (set, values, 0, n, chunk, models));
+         Tally stat = new Tally();
+         for (int i = 0; i < n; i++)
+            stat.add (values[i]);
+         averages[r] = stat.average();
+      }
+   }
+
+   // Simulates the points lo to hi - 1 of a randomized point set.
+   private static class PointsTask extends RecursiveAction {
+      private static final long serialVersionUID = 1L;
+      private PointSet set;
+      private double[] values;
+      private int lo, hi, chunk;
+      private ThreadLocal<RQMCModel> models;
+
+      PointsTask (PointSet set, double[] values, int lo, int hi, int chunk,
+                  ThreadLocal<RQMCModel> models) {
+         this.set = set;
+         this.values = values;
+         this.lo = lo;
+         this.hi = hi;
+         this.chunk = chunk;
+         this.models = models;
+      }
+
+      protected void compute() {
+         if (hi - lo > chunk) {
+            int mid = (lo + hi) >>> 1;
+            invokeAll (new PointsTask (set, values, lo, mid, chunk, models),
+                       new PointsTask (set, values, mid, hi, chunk, models));
+            return;
+         }
+         if (lo >= hi)
+            return;
+         RQMCModel model = models.get();
+         PointSetIterator stream = set.iterator();
+         stream.setCurPointIndex (lo);
+         for (int i = lo; i < hi; i++) {
+            values[i] = model.simulate (stream);
+            stream.resetNextSubstream();
+         }
+      }
+   }
+}
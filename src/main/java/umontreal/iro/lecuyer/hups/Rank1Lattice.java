@@ -27,6 +27,7 @@
 package umontreal.iro.lecuyer.hups;
 import umontreal.iro.lecuyer.util.PrintfFormat;
 import umontreal.iro.lecuyer.rng.RandomStream;
+import java.util.NoSuchElementException;
 
 
 /**
@@ -147,6 +148,14 @@ public class Rank1Lattice extends PointSet  {
       shift = null;
    }
 
+   public PointSet snapshot() {
+      Rank1Lattice p = (Rank1Lattice) copy();
+      if (shift != null)
+         p.shift = shift.clone();
+      p.shiftStream = null;
+      return p;
+   }
+
  
 
    public String toString() {
@@ -227,5 +236,34 @@ public class Rank1Lattice extends PointSet  {
          curCoordIndex++;
          return x;
       }
+
+      public int nextPoints (double p[], int n, int d, boolean colMajor) {
+         if (n > numPoints - curPointIndex)
+            throw new NoSuchElementException ("Not enough points available");
+         if (d > dim)
+            throw new NoSuchElementException ("Not enough coordinates available");
+         if (shift != null && d > dimShift)   // Extend the shift.
+            addRandomShift (dimShift, d, shiftStream);
+         int k = 0;
+         for (int i = 0; i < n; i++) {
+            for (int j = 0; j < d; j++) {
+               double x = (curPointIndex * v[j]) % 1.0;
+               if (shift != null) {
+                  x += shift[j];
+                  if (x >= 1.0)
+                     x -= 1.0;
+                  if (x <= 0.0)
+                     x = EpsilonHalf;  // avoid x = 0
+               }
+               if (colMajor)
+                  p[j*n + i] = x;
+               else
+                  p[k++] = x;
+            }
+            curPointIndex++;
+         }
+         curCoordIndex = 0;
+         return curPointIndex;
+      }
    }
 }
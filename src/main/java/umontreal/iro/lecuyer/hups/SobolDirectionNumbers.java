@@ -0,0 +1,366 @@
+
+
+/*
+ * Class:        SobolDirectionNumbers
+ * Description:  direction numbers of Sobol sequences in a binary file
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.hups;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * This class gives access to the primitive polynomials and initial direction
+ * numbers of a Sobol' sequence stored in a compact binary file, for example
+ * the direction numbers of Joe and Kuo in more than 21000 dimensions,
+ * available at
+ * <TT><A NAME="tex2html1"
+ *   HREF="http://web.maths.unsw.edu.au/~fkuo/sobol/index.html">http://web.maths.unsw.edu.au/~fkuo/sobol/index.html</A></TT>.
+ * Such a file is created from a text file in the format described in
+ * class {@link SobolSequence} by the method {@link #convert convert}, which can
+ * also be called from the command line:
+ *
+ * <P>
+ * <TT>java umontreal.iro.lecuyer.hups.SobolDirectionNumbers
+ * new-joe-kuo-6.21201 joe-kuo-6.21201.bin</TT>
+ *
+ * <P>
+ * The binary file is mapped in memory rather than read, and the
+ * parameters of each dimension are decoded only when they are requested,
+ * so that building a {@link SobolSequence} in thousands of dimensions with
+ * the constructor
+ * {@link SobolSequence#SobolSequence(SobolDirectionNumbers,int,int,int) SobolSequence}
+ * reads only the parameters of its dimensions.
+ * A <TT>SobolDirectionNumbers</TT> object is immutable, and it can be shared
+ * by several Sobol' sequences and several threads.
+ *
+ * <P>
+ * The file contains the 32-bit integers <SPAN CLASS="MATH">1399808620</SPAN> (the magic number), <SPAN CLASS="MATH">1</SPAN>
+ * (the version of the format) and <SPAN CLASS="MATH"><I>N</I></SPAN>, the number of dimensions described
+ * in the file, excluding the first one, whose generator matrix is always
+ * the identity. These are followed by <SPAN CLASS="MATH"><I>N</I></SPAN> integers giving the position of
+ * the record of each dimension <SPAN CLASS="MATH"><I>j</I> = 1,...,<I>N</I></SPAN> in the file, then by the
+ * records. The record of dimension <SPAN CLASS="MATH"><I>j</I></SPAN> contains the degree <SPAN CLASS="MATH"><I>c</I><SUB><I>j</I></SUB></SPAN> of its
+ * primitive polynomial in one byte, the integer <SPAN CLASS="MATH"><I>a</I></SPAN> that gives its inner
+ * coefficients (see class {@link SobolSequence}) in three bytes, then the
+ * <SPAN CLASS="MATH"><I>c</I><SUB><I>j</I></SUB></SPAN> initial direction numbers <SPAN CLASS="MATH"><I>m</I><SUB><I>j</I>,0</SUB>,...,<I>m</I><SUB><I>j</I>,<I>c</I><SUB><I>j</I></SUB>-1</SUB></SPAN>, where
+ * <SPAN CLASS="MATH"><I>m</I><SUB><I>j</I>,<I>c</I></SUB></SPAN> is stored with <SPAN CLASS="MATH"><I>c</I>+1</SPAN> bits, the bits of all the direction
+ * numbers being packed together. All the integers are in big-endian order.
+ *
+ */
+public class SobolDirectionNumbers {
+   private static final int MAGIC = 0x536f626c;  // "Sobl"
+   private static final int VERSION = 1;
+   private static final int HEADER = 12;         // Magic, version, N
+
+   private String name;
+   private ByteBuffer buf;    // Read only with absolute get's
+   private int numRecords;    // N: dimensions 1, ..., N are in the file
+
+
+   /**
+    * Opens the binary file of direction numbers <TT>filename</TT>.
+    * If there is no such file, the file is searched in the directory
+    * <TT>umontreal/iro/lecuyer/hups/data/</TT> of the class path, for
+    * example in <TT>ssj.jar</TT>. The file is mapped in memory, unless it
+    * is in a jar file, in which case it is read.
+    *
+    * @param filename name of the binary file of direction numbers
+    *
+    *    @exception IOException if the file cannot be read, or is not a
+    *     valid file of direction numbers
+    *
+    */
+   public SobolDirectionNumbers (String filename) throws IOException {
+      File f = new File (filename);
+      if (f.exists()) {
+         if (f.isDirectory())
+            throw new IOException (filename + " is a directory");
+         buf = map (f);
+      } else {              // else read it from ssj.jar
+         String pathname = "umontreal/iro/lecuyer/hups/data/" +
+                           filename.replace (File.separatorChar, '/');
+         URL url = SobolDirectionNumbers.class.getClassLoader().getResource (
+                      pathname);
+         if (url == null)
+            throw new FileNotFoundException (filename);
+         if ("file".equals (url.getProtocol()))
+            buf = map (new File (URLDecoder.decode (url.getPath(), "UTF-8")));
+         else {
+            InputStream is = url.openStream();
+            try {
+               buf = ByteBuffer.wrap (readAll (is));
+            } finally {
+               is.close();
+            }
+         }
+      }
+      name = filename;
+      if (buf.limit() < HEADER || buf.getInt (0) != MAGIC)
+         throw new IOException (filename +
+             " is not a file of Sobol direction numbers");
+      if (buf.getInt (4) != VERSION)
+         throw new IOException (filename + ": unsupported format version " +
+                                buf.getInt (4));
+      numRecords = buf.getInt (8);
+      if (numRecords < 0 || HEADER + 4L * numRecords > buf.limit())
+         throw new IOException (filename + " is truncated");
+   }
+
+   private static ByteBuffer map (File f) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile (f, "r");
+      try {
+         FileChannel ch = raf.getChannel();
+         // The mapping remains valid after the channel is closed.
+         return ch.map (FileChannel.MapMode.READ_ONLY, 0, ch.size());
+      } finally {
+         raf.close();
+      }
+   }
+
+   private static byte[] readAll (InputStream is) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] b = new byte[8192];
+      int n;
+      while ((n = is.read (b)) > 0)
+         out.write (b, 0, n);
+      return out.toByteArray();
+   }
+
+
+   /**
+    * Returns the maximal dimension <SPAN CLASS="MATH"><I>s</I></SPAN> of the Sobol' sequences that can be
+    * built from this file, that is, <SPAN CLASS="MATH"><I>N</I> + 1</SPAN>.
+    *
+    * @return the maximal dimension
+    *
+    */
+   public int getMaxDimension() {
+      return numRecords + 1;
+   }
+
+
+   /**
+    * Returns the primitive polynomial <SPAN CLASS="MATH"><I>f</I><SUB><I>j</I></SUB>(<I>z</I>)</SPAN> of dimension <SPAN CLASS="MATH"><I>j</I></SPAN>, in the form
+    * of the integer <SPAN CLASS="MATH">2<SUP><I>c</I><SUB><I>j</I></SUB></SUP> + <I>a</I><SUB><I>j</I>,1</SUB>2<SUP><I>c</I><SUB><I>j</I></SUB>-1</SUP> + &#8943; + <I>a</I><SUB><I>j</I>,<I>c</I><SUB><I>j</I></SUB></SUB></SPAN>, for
+    * <SPAN CLASS="MATH"><I>j</I> = 0,...,<I>N</I></SPAN>. For <SPAN CLASS="MATH"><I>j</I>=0</SPAN>, it returns 1.
+    *
+    * @param j the dimension
+    *
+    *    @return the primitive polynomial of dimension <TT>j</TT>
+    *
+    *    @exception IllegalArgumentException if <TT>j</TT> is not in
+    *     <SPAN CLASS="MATH">{0,...,<I>N</I>}</SPAN>
+    *
+    */
+   public int getPolynomial (int j) {
+      if (j == 0)
+         return 1;
+      int pos = position (j);
+      int s = buf.get (pos) & 0xff;
+      int a = ((buf.get (pos + 1) & 0xff) << 16) |
+              ((buf.get (pos + 2) & 0xff) << 8) | (buf.get (pos + 3) & 0xff);
+      return (1 << s) ^ (a << 1) ^ 1;
+   }
+
+
+   /**
+    * Returns the degree <SPAN CLASS="MATH"><I>c</I><SUB><I>j</I></SUB></SPAN> of the primitive polynomial of dimension <SPAN CLASS="MATH"><I>j</I></SPAN>,
+    * for <SPAN CLASS="MATH"><I>j</I> = 0,...,<I>N</I></SPAN>.
+    *
+    * @param j the dimension
+    *
+    *    @return the degree of the polynomial of dimension <TT>j</TT>
+    *
+    *    @exception IllegalArgumentException if <TT>j</TT> is not in
+    *     <SPAN CLASS="MATH">{0,...,<I>N</I>}</SPAN>
+    *
+    */
+   public int getDegree (int j) {
+      if (j == 0)
+         return 0;
+      return buf.get (position (j)) & 0xff;
+   }
+
+
+   /**
+    * Puts the initial direction numbers <SPAN CLASS="MATH"><I>m</I><SUB><I>j</I>,0</SUB>,...,<I>m</I><SUB><I>j</I>,<I>c</I><SUB><I>j</I></SUB>-1</SUB></SPAN> of
+    * dimension <SPAN CLASS="MATH"><I>j</I></SPAN> in <TT>m[0]</TT>, ..., <TT>m[<SPAN CLASS="MATH"><I>c</I><SUB><I>j</I></SUB></SPAN>-1]</TT>,
+    * for <SPAN CLASS="MATH"><I>j</I> = 0,...,<I>N</I></SPAN>. Dimension 0 has no direction numbers.
+    *
+    * @param j the dimension
+    *
+    *    @param m array of size at least <SPAN CLASS="MATH"><I>c</I><SUB><I>j</I></SUB></SPAN> receiving the direction numbers
+    *
+    *    @exception IllegalArgumentException if <TT>j</TT> is not in
+    *     <SPAN CLASS="MATH">{0,...,<I>N</I>}</SPAN>
+    *
+    */
+   public void getDirectionNumbers (int j, int[] m) {
+      if (j == 0)
+         return;
+      int pos = position (j);
+      int s = buf.get (pos) & 0xff;
+      long bit = 8L * (pos + 4);    // Position of the first bit of m_{j,0}
+      for (int c = 0; c < s; c++) {
+         int x = 0;
+         for (int l = 0; l <= c; l++, bit++)
+            x = (x << 1) | ((buf.get ((int) (bit >> 3)) >> (7 - (int) (bit & 7))) & 1);
+         m[c] = x;
+      }
+   }
+
+
+   /**
+    * Reads the direction numbers in the text file (or URL address)
+    * <TT>textFile</TT>, in the format described in the constructor
+    * {@link SobolSequence#SobolSequence(String,int,int,int) SobolSequence},
+    * and writes them in the binary file <TT>binFile</TT>.
+    *
+    * @param textFile file or URL address of the direction numbers in text format
+    *
+    *    @param binFile name of the binary file to write
+    *
+    *    @exception IOException if a file cannot be read or written, or if
+    *     <TT>textFile</TT> is not in the expected format
+    *
+    */
+   public static void convert (String textFile, String binFile)
+          throws IOException {
+      BufferedReader reader;
+      if (textFile.startsWith ("http") || textFile.startsWith ("ftp"))
+         reader = DigitalNetFromFile.openURL (textFile);
+      else
+         reader = new BufferedReader (new FileReader (textFile));
+
+      ByteArrayOutputStream records = new ByteArrayOutputStream();
+      ByteArrayOutputStream positions = new ByteArrayOutputStream();
+      DataOutputStream pos = new DataOutputStream (positions);
+      int n = 0;
+      try {
+         // First line of file is a comment; discard it
+         String line = reader.readLine();
+         int lineNumber = 1;
+         while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.length() == 0)
+               continue;
+            String[] tokens = line.split ("[\t ]+");
+            int d, s, a;
+            try {
+               d = Integer.parseInt (tokens[0]);
+               s = Integer.parseInt (tokens[1]);
+               a = Integer.parseInt (tokens[2]);
+            } catch (RuntimeException e) {
+               throw new IOException (textFile + ", line " + lineNumber +
+                                      ": bad direction number file format");
+            }
+            if (d != n + 2)
+               throw new IOException (textFile + ", line " + lineNumber +
+                  ": dimensions must be in increasing order, one per line," +
+                  " starting at 2");
+            if (s < 1 || s > SobolSequence.MAXDEGREE || a < 0 ||
+                a >= (1 << (s - 1)) || tokens.length != s + 3)
+               throw new IOException (textFile + ", line " + lineNumber +
+                                      ": bad direction number file format");
+            pos.writeInt (records.size());
+            records.write (s);
+            records.write (a >> 16);
+            records.write (a >> 8);
+            records.write (a);
+            int bits = 0, nbits = 0;
+            for (int c = 0; c < s; c++) {
+               int m = Integer.parseInt (tokens[c + 3]);
+               if ((m & 1) == 0 || m >= (1 << (c + 1)))
+                  throw new IOException (textFile + ", line " + lineNumber +
+                     ": m_" + (c + 1) + " must be odd and smaller than 2^" +
+                     (c + 1));
+               for (int l = c; l >= 0; l--) {
+                  bits = (bits << 1) | ((m >> l) & 1);
+                  if (++nbits == 8) {
+                     records.write (bits);
+                     bits = nbits = 0;
+                  }
+               }
+            }
+            if (nbits > 0)
+               records.write (bits << (8 - nbits));
+            n++;
+         }
+      } finally {
+         reader.close();
+      }
+
+      DataOutputStream out = new DataOutputStream (new BufferedOutputStream
+                                (new FileOutputStream (binFile)));
+      try {
+         out.writeInt (MAGIC);
+         out.writeInt (VERSION);
+         out.writeInt (n);
+         // The positions are relative to the first record; make them
+         // absolute.
+         DataInputStream in = new DataInputStream
+            (new ByteArrayInputStream (positions.toByteArray()));
+         for (int j = 0; j < n; j++)
+            out.writeInt (HEADER + 4 * n + in.readInt());
+         records.writeTo (out);
+      } finally {
+         out.close();
+      }
+   }
+
+
+   /**
+    * Calls {@link #convert convert} with the text file <TT>args[0]</TT> and the
+    * binary file <TT>args[1]</TT>.
+    *
+    */
+   public static void main (String[] args) throws IOException {
+      if (args.length != 2) {
+         System.err.println ("usage: java umontreal.iro.lecuyer.hups." +
+            "SobolDirectionNumbers <text file> <binary file>");
+         System.exit (1);
+      }
+      convert (args[0], args[1]);
+   }
+
+
+   // Returns the position of the record of dimension j in the file.
+   private int position (int j) {
+      if (j < 1 || j > numRecords)
+         throw new IllegalArgumentException ("Dimension " + j +
+             " is not in " + name + ": must be in [0, " + numRecords + "]");
+      return buf.getInt (HEADER + 4 * (j - 1));
+   }
+
+
+   public String toString() {
+      return "SobolDirectionNumbers: " + name + ", maximal dimension " +
+             getMaxDimension();
+   }
+}
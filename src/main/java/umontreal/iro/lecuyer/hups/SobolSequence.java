@@ -133,6 +133,9 @@ import java.net.MalformedURLException;
  * Several files of parameters for Sobol sequences are given on F. Kuo's
  * Web site at <TT><A NAME="tex2html2"
  *   HREF="http://web.maths.unsw.edu.au/~fkuo/sobol/index.html">http://web.maths.unsw.edu.au/~fkuo/sobol/index.html</A></TT>.
+ * Direction numbers for thousands of dimensions, such as those of Joe and
+ * Kuo, can be converted to a compact binary file and used through the class
+ * {@link SobolDirectionNumbers}.
  * 
  */
 public class SobolSequence extends DigitalSequenceBase2  { 
@@ -141,6 +144,7 @@ public class SobolSequence extends DigitalSequenceBase2  {
     protected static final int MAXDIM    = 360;
     protected static final int MAXDEGREE = 18;  // Of primitive polynomial
     private String filename = null;
+    private SobolDirectionNumbers dirNum = null;
 
 
 
@@ -165,14 +169,14 @@ public class SobolSequence extends DigitalSequenceBase2  {
    }
 
    private void init (int k, int r, int w, int dim) {
-      if (filename == null)
-         if ((dim < 1) || (dim > MAXDIM))
-            throw new IllegalArgumentException 
-               ("Dimension for SobolSequence must be > 0 and <= " + MAXDIM);
-      else
-         if (dim < 1)
-            throw new IllegalArgumentException 
-               ("Dimension for SobolSequence must be > 0");
+      int maxDim = MAXDIM;
+      if (dirNum != null)
+         maxDim = dirNum.getMaxDimension();
+      else if (filename != null)
+         maxDim = poly_from_file.length;
+      if ((dim < 1) || (dim > maxDim))
+         throw new IllegalArgumentException 
+            ("Dimension for SobolSequence must be > 0 and <= " + maxDim);
 
       if (r < k || w < r || w > MAXBITS || k >= MAXBITS) 
          throw new IllegalArgumentException
@@ -384,6 +388,35 @@ public class SobolSequence extends DigitalSequenceBase2  {
 
       init(k, w, w, dim);
    }
+
+
+   /**
+    * Constructs a new digital net with <SPAN CLASS="MATH"><I>n</I> = 2<SUP>k</SUP></SPAN> points, <SPAN CLASS="MATH"><I>w</I></SPAN> output digits
+    *    and dimension <TT>dim</TT>, using the primitive polynomials and
+    *    direction numbers of <TT>dirNum</TT>, for example the direction numbers
+    *    of Joe and Kuo in more than 21000 dimensions.
+    *    Only the parameters of the first <TT>dim</TT> dimensions are read from
+    *    <TT>dirNum</TT>, so that this constructor is fast even when
+    *    <TT>dim</TT> is large.
+    *    Restrictions: 
+    * <SPAN CLASS="MATH">0 &lt;= <I>k</I> &lt;= 30</SPAN>, <SPAN CLASS="MATH"><I>k</I> &lt;= <I>w</I></SPAN> and
+    *    <TT>dim</TT> <SPAN CLASS="MATH">&lt;=</SPAN> <TT>dirNum.getMaxDimension()</TT>.
+    * 
+    * @param dirNum the direction numbers
+    * 
+    *    @param k number of points is <SPAN CLASS="MATH">2<SUP>k</SUP></SPAN>
+    * 
+    *    @param w number of output digits
+    * 
+    *    @param dim dimension of the point set
+    * 
+    * 
+    */
+   public SobolSequence (SobolDirectionNumbers dirNum, int k, int w,
+                         int dim)  {
+      this.dirNum = dirNum;
+      init (k, w, w, dim);
+   }
  
 
    public String toString() {
@@ -409,14 +442,16 @@ public class SobolSequence extends DigitalSequenceBase2  {
          genMat[c] = (1 << (outDigits-c-1));
 
       // the other dimensions j > 0.
+      int[] m = new int[MAXDEGREE];
       for (j = 1; j < dim; j++) {
+         int polynomial = getDirectionNumbers (j, m);
          // find the degree of primitive polynomial f_j
-         for (degree = MAXDEGREE;  ((poly[j] >> degree) & 1) == 0; degree--)
+         for (degree = MAXDEGREE;  ((polynomial >> degree) & 1) == 0; degree--)
             ;
          // Get initial direction numbers m_{j,0},..., m_{j,degree-1}.
          start = j * numCols;
          for (c = 0; (c < degree && c < numCols); c++)
-            genMat[start+c] = minit[j-1][c] << (outDigits-c-1);
+            genMat[start+c] = m[c] << (outDigits-c-1);
 
          // Compute the following ones via the recursion.
          for (c = degree; c < numCols; c++) {
@@ -425,7 +460,7 @@ public class SobolSequence extends DigitalSequenceBase2  {
             else {
                nextCol = genMat[start+c-degree] >> degree;
                for (i = 0; i < degree; i++)
-                  if (((poly[j] >> i) & 1) == 1)
+                  if (((polynomial >> i) & 1) == 1)
                      nextCol ^= genMat[start+c-degree+i];
                genMat[start+c] = nextCol;
             }
@@ -434,6 +469,24 @@ public class SobolSequence extends DigitalSequenceBase2  {
    }
 
 
+   // Returns the primitive polynomial f_j, and puts the initial direction
+   // numbers m_{j,0},..., m_{j,degree-1} of dimension j > 0 in m.
+   // If a direction number file was provided, use it.
+   private int getDirectionNumbers (int j, int[] m) {
+      if (dirNum != null) {
+         dirNum.getDirectionNumbers (j, m);
+         return dirNum.getPolynomial (j);
+      } else if (filename != null) {
+         System.arraycopy (minit_from_file[j-1], 0, m, 0, MAXDEGREE);
+         return poly_from_file[j];
+      } else {
+         System.arraycopy (minit[j-1], 0, m, 0,
+                           Math.min (minit[j-1].length, MAXDEGREE));
+         return poly[j];
+      }
+   }
+
+
    // Initializes the generator matrices for a sequence.
    private void initGenMat()  {
       int start, degree, nextCol;
@@ -444,19 +497,16 @@ public class SobolSequence extends DigitalSequenceBase2  {
          genMat[c] = (1 << (outDigits-c-1));
 
       // the other dimensions j > 0.
+      int[] m = new int[MAXDEGREE];
       for (j = 1; j < dim; j++) {
-         // if a direction number file was provided, use it
-         int polynomial = (filename != null ? poly_from_file[j] : poly[j]);
+         int polynomial = getDirectionNumbers (j, m);
          // find the degree of primitive polynomial f_j
          for (degree = MAXDEGREE; ((polynomial >> degree) & 1) == 0; degree--)
             ;
          // Get initial direction numbers m_{j,0},..., m_{j,degree-1}.
          start = j * numCols;
-         for (c = 0; (c < degree && c < numCols); c++) {
-             int m_i = (filename != null ? 
-                        minit_from_file[j-1][c] : minit[j-1][c]);
-             genMat[start+c] = m_i << (outDigits-c-1);
-         }
+         for (c = 0; (c < degree && c < numCols); c++)
+            genMat[start+c] = m[c] << (outDigits-c-1);
 
          // Compute the following ones via the recursion.
          for (c = degree; c < numCols; c++) {
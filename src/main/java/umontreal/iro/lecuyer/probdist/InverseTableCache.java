@@ -0,0 +1,283 @@
+
+
+/*
+ * Class:        InverseTableCache
+ * Description:  cache of tables for the fast inversion of distributions
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.probdist;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A bounded cache of the tables used to compute quickly the inverse of
+ * continuous distributions, that is, of {@link InverseDistFromDensity}
+ * objects, built from the density of the distribution by Gauss-Lobatto
+ * integration and Newton interpolation of order 5.
+ * The tables for a distribution depend only on the class of the
+ * distribution, its parameters, its support and the <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution
+ * <SPAN CLASS="MATH"><I>&#949;</I></SPAN>, and the cache keeps one object for each such combination.
+ * Building the tables is slow, typically a few milliseconds, but then the
+ * inverse is computed much faster than by the root finding used in the
+ * <TT>inverseF</TT> method of distributions such as {@link GammaDist} or
+ * {@link BetaDist}, for which the inverse has no closed form.
+ * When the tables for the same parameters are needed again and again, for
+ * example by several generators, or by a generator constructed in each
+ * simulation run, they are then built only once.
+ *
+ * <P>
+ * The cache keeps at most a given number of objects; when it is full,
+ * the least recently used one is removed. The cache returned by
+ * {@link #getShared getShared} is used by the random variate generators of
+ * package <TT>randvar</TT>.
+ * The same cache may be used by several threads, and the
+ * {@link InverseDistFromDensity} objects it returns can be shared by
+ * several threads. The tables are built outside of the lock of the cache,
+ * so a thread building tables does not block the others.
+ *
+ */
+public class InverseTableCache {
+   private static final int ORDER = 5;
+   // Number of equidistant values of u at which the tables are checked,
+   // in addition to the values 10^(-k/2) and 1 - 10^(-k/2) in the tails.
+   private static final int NCHECK = 256;
+   private static final InverseTableCache shared = new InverseTableCache (16);
+   private int capacity;
+   private LinkedHashMap<Key,InverseDistFromDensity> map;
+
+   // The class, parameters and support of a distribution, and eps.
+   private static class Key {
+      private final Class<?> cl;
+      private final double[] params;
+      private final int hash;
+
+      Key (ContinuousDistribution dist, double eps) {
+         cl = dist.getClass();
+         double[] p = dist.getParams();
+         params = new double[p.length + 3];
+         System.arraycopy (p, 0, params, 0, p.length);
+         params[p.length] = dist.getXinf();
+         params[p.length + 1] = dist.getXsup();
+         params[p.length + 2] = eps;
+         hash = 31*cl.hashCode() + Arrays.hashCode (params);
+      }
+
+      public int hashCode() {
+         return hash;
+      }
+
+      public boolean equals (Object o) {
+         if (!(o instanceof Key))
+            return false;
+         Key k = (Key)o;
+         return cl == k.cl && Arrays.equals (params, k.params);
+      }
+   }
+
+
+   /**
+    * Constructs an empty cache keeping at most <TT>capacity</TT>
+    * objects. If <TT>capacity</TT> is 0, nothing is ever kept.
+    *
+    * @param capacity the maximal number of objects kept
+    *
+    *    @exception IllegalArgumentException if <TT>capacity</TT> is negative
+    *
+    */
+   public InverseTableCache (int capacity) {
+      if (capacity < 0)
+         throw new IllegalArgumentException ("capacity < 0");
+      this.capacity = capacity;
+      map = new LinkedHashMap<Key,InverseDistFromDensity> (16, 0.75f, true) {
+         private static final long serialVersionUID = 1L;
+         protected boolean removeEldestEntry
+                              (Map.Entry<Key,InverseDistFromDensity> eldest) {
+            return size() > InverseTableCache.this.capacity;
+         }
+      };
+   }
+
+
+   /**
+    * Returns the cache shared by all the generators of package
+    * <TT>randvar</TT> using fast inversion, which keeps 16 objects by default.
+    *
+    * @return the shared cache
+    *
+    */
+   public static InverseTableCache getShared() {
+      return shared;
+   }
+
+
+   /**
+    * Returns the tables for the numerical inverse of <TT>dist</TT>
+    * with <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution <TT>eps</TT>, building them if they are not in the
+    * cache. The median of <TT>dist</TT> is used as the central point <SPAN CLASS="MATH"><I>x</I><SUB><I>c</I></SUB></SPAN> of
+    * {@link InverseDistFromDensity}. If the parameters of <TT>dist</TT> are
+    * changed afterwards, this method must be called again.
+    * 
+    * <P>
+    * The tables are then checked: for 256 equidistant values of <SPAN CLASS="MATH"><I>u</I></SPAN> in
+    * <SPAN CLASS="MATH">(0, 1)</SPAN>, and for <SPAN CLASS="MATH"><I>u</I> = 10<SUP>-k/2</SUP></SPAN> and <SPAN CLASS="MATH"><I>u</I> = 1 - 10<SUP>-k/2</SUP></SPAN>, 
+    * <SPAN CLASS="MATH"><I>k</I> = 2,..., 30</SPAN>, the value <SPAN CLASS="MATH"><I>x</I></SPAN> they give must satisfy
+    * <SPAN CLASS="MATH">| <I>F</I>(<I>x</I>) - <I>u</I>| &lt;= 2max(<TT>eps</TT>, 10<SUP>-11</SUP>)</SPAN>, where <SPAN CLASS="MATH"><I>F</I></SPAN> is the distribution
+    * function, computed by <TT>cdf</TT> with an absolute error of about <SPAN CLASS="MATH">10<SUP>-12</SUP></SPAN>,
+    * unless <TT>inverseF</TT> of <TT>dist</TT> does almost as badly because <SPAN CLASS="MATH"><I>F</I></SPAN>
+    * cannot be resolved in double precision. This can fail only when the
+    * density is unbounded, as for the gamma distribution with <SPAN CLASS="MATH"><I>&#945;</I> &lt; 1</SPAN> or
+    * the beta distribution with a shape parameter smaller than 1, and it
+    * always fails for shape parameters smaller than 0.5, for which the tables
+    * can be off by <SPAN CLASS="MATH">10<SUP>-5</SUP></SPAN> or more in a tail. This method then returns
+    * <TT>null</TT>, and keeps it in the cache, and the exact <TT>inverseF</TT> of the
+    * distribution must be used instead.
+    * The accuracy is not checked between the values of <SPAN CLASS="MATH"><I>u</I></SPAN> above.
+    *
+    * @param dist the distribution
+    *
+    *    @param eps the <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution, between <SPAN CLASS="MATH">10<SUP>-15</SUP></SPAN> and <SPAN CLASS="MATH">10<SUP>-3</SUP></SPAN>
+    *
+    *    @return the tables for the inverse of <TT>dist</TT>, or <TT>null</TT> if they
+    *     are not accurate enough
+    *
+    *    @exception IllegalArgumentException if <TT>eps</TT> is outside
+    *     <SPAN CLASS="MATH">[10<SUP>-15</SUP>, 10<SUP>-3</SUP>]</SPAN>
+    *
+    */
+   public InverseDistFromDensity get (ContinuousDistribution dist,
+                                      double eps) {
+      Key key = new Key (dist, eps);
+      synchronized (this) {
+         if (map.containsKey (key))
+            return map.get (key);
+      }
+      // The tables are built without holding the lock, so the other
+      // threads can use the cache meanwhile. If two threads build the same
+      // tables, the first ones put in the cache are kept.
+      InverseDistFromDensity inv = new InverseDistFromDensity
+                             (dist, dist.inverseF (0.5), eps, ORDER);
+      if (!isAccurate (dist, inv, eps))
+         inv = null;
+      synchronized (this) {
+         if (map.containsKey (key))
+            return map.get (key);
+         if (capacity > 0)
+            map.put (key, inv);
+      }
+      return inv;
+   }
+
+   private static boolean isAccurate (ContinuousDistribution dist,
+                                      InverseDistFromDensity inv,
+                                      double eps) {
+      // Checks that |F(x) - u| <= tol for the x returned by the tables,
+      // at NCHECK equidistant values of u and far in the tails, where the
+      // tables are inaccurate when the density is unbounded. Since cdf
+      // itself has an absolute error up to about 1e-12, tol is never
+      // smaller than 2e-11. A larger error is accepted only if the exact
+      // inverse does almost as badly, as near an end of the support where
+      // F varies too fast to be resolved in double precision.
+      final double tol = 2.0*Math.max (eps, 1.0e-11);
+      final int ntail = 29;
+      for (int i = 0; i < NCHECK + 2*ntail; i++) {
+         double u;
+         if (i < NCHECK)
+            u = (i + 0.5) / NCHECK;
+         else {
+            double v = Math.pow (10.0, -0.5*(2 + (i - NCHECK)/2));
+            u = (i - NCHECK) % 2 == 0 ? v : 1.0 - v;
+         }
+         double err = Math.abs (dist.cdf (inv.inverseF (u)) - u);
+         if (!(err <= tol) &&
+             !(err <= Math.abs (dist.cdf (dist.inverseF (u)) - u) + tol))
+            return false;
+      }
+      return true;
+   }
+
+
+   /**
+    * Returns the maximal number of objects kept by this cache.
+    *
+    * @return the capacity of the cache
+    *
+    */
+   public synchronized int getCapacity() {
+      return capacity;
+   }
+
+
+   /**
+    * Sets the maximal number of objects kept by this cache to
+    * <TT>capacity</TT>, removing the least recently used objects if there
+    * are more.
+    *
+    * @param capacity the maximal number of objects kept
+    *
+    *    @exception IllegalArgumentException if <TT>capacity</TT> is negative
+    *
+    */
+   public synchronized void setCapacity (int capacity) {
+      if (capacity < 0)
+         throw new IllegalArgumentException ("capacity < 0");
+      this.capacity = capacity;
+      Iterator<Key> it = map.keySet().iterator();
+      while (map.size() > capacity) {
+         it.next();
+         it.remove();
+      }
+   }
+
+
+   /**
+    * Returns the number of objects in the cache.
+    *
+    * @return the number of objects kept
+    *
+    */
+   public synchronized int size() {
+      return map.size();
+   }
+
+
+   /**
+    * Removes all the objects from the cache.
+    *
+    */
+   public synchronized void clear() {
+      map.clear();
+   }
+
+
+   public synchronized String toString() {
+      StringBuffer sb = new StringBuffer (getClass().getName());
+      sb.append ('[');
+      sb.append ("size: ").append (map.size());
+      sb.append (", capacity: ").append (capacity);
+      sb.append (']');
+      return sb.toString();
+   }
+}
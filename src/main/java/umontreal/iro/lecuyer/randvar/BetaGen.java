@@ -48,7 +48,8 @@ import umontreal.iro.lecuyer.probdist.*;
  * Local copies of the parameters <SPAN CLASS="MATH"><I>&#945;</I></SPAN>, <SPAN CLASS="MATH"><I>&#946;</I></SPAN>, <SPAN CLASS="MATH"><I>a</I></SPAN>, and <SPAN CLASS="MATH"><I>b</I></SPAN>
  * are maintained in this class.
  * The (non-static) <TT>nextDouble</TT> method simply calls <TT>inverseF</TT> on the
- * distribution.
+ * distribution, or, after a call to {@link #setFastInversion setFastInversion}, computes
+ * the inverse much faster from precomputed tables.
  * 
  */
 public class BetaGen extends RandomVariateGen  {
@@ -59,6 +60,7 @@ public class BetaGen extends RandomVariateGen  {
    protected double a;
    protected double b;
    protected int gen;
+   protected InverseDistFromDensity fastInverse = null;
 
 
 
@@ -98,6 +100,63 @@ public class BetaGen extends RandomVariateGen  {
    }
 
 
+   /**
+    * Sets the <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution of the fast inversion to <TT>eps</TT>.
+    * If <TT>eps</TT> is positive, {@link #nextDouble() nextDouble} then computes the
+    * inverse of the distribution with the tables of an
+    * {@link umontreal.iro.lecuyer.probdist.InverseDistFromDensity InverseDistFromDensity}
+    * object, instead of calling <TT>inverseF</TT> on the distribution.
+    * The tables are built the first time they are needed for these parameters
+    * and this <TT>eps</TT>, which takes a few milliseconds, and are then kept in
+    * the cache returned by
+    * {@link umontreal.iro.lecuyer.probdist.InverseTableCache#getShared() InverseTableCache.getShared},
+    * where all the generators with the same parameters find them.
+    * Each variate is still obtained from a single uniform <SPAN CLASS="MATH"><I>u</I></SPAN> by inversion,
+    * so it can be used with quasi-Monte Carlo, but only approximately.
+    * The tables are checked by
+    * {@link umontreal.iro.lecuyer.probdist.InverseTableCache#get(ContinuousDistribution,double) InverseTableCache.get}
+    * at values of <SPAN CLASS="MATH"><I>u</I></SPAN> that include the far tails, where <SPAN CLASS="MATH"><I>F</I>(<I>x</I>)</SPAN> must differ
+    * from <SPAN CLASS="MATH"><I>u</I></SPAN> by at most <SPAN CLASS="MATH">2max(<TT>eps</TT>, 10<SUP>-11</SUP>)</SPAN>, <SPAN CLASS="MATH"><I>x</I></SPAN> being the value returned
+    * and <SPAN CLASS="MATH"><I>F</I></SPAN> the distribution function.
+    * This fails in the tails when <SPAN CLASS="MATH"><I>&#945;</I></SPAN> or <SPAN CLASS="MATH"><I>&#946;</I></SPAN> is smaller than 0.5, and may
+    * fail when one of them is smaller than 1, because the density is
+    * unbounded; the tables are then not used, and {@link #nextDouble() nextDouble} keeps
+    * calling <TT>inverseF</TT>.
+    * If <TT>eps</TT> is 0, {@link #nextDouble() nextDouble} calls <TT>inverseF</TT> again.
+    * The tables must be set again if the parameters of the distribution
+    * are changed.
+    * Subclasses using another generation method than inversion
+    * ignore this setting.
+    *
+    * @param eps the <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution, 0 or between <SPAN CLASS="MATH">10<SUP>-15</SUP></SPAN> and <SPAN CLASS="MATH">10<SUP>-3</SUP></SPAN>
+    *
+    *    @exception IllegalArgumentException if <TT>eps</TT> is neither 0 nor in
+    *     <SPAN CLASS="MATH">[10<SUP>-15</SUP>, 10<SUP>-3</SUP>]</SPAN>
+    *
+    */
+   public void setFastInversion (double eps) {
+      if (eps == 0.0)
+         fastInverse = null;
+      else
+         fastInverse = InverseTableCache.getShared().get
+                          ((ContinuousDistribution)dist, eps);
+   }
+
+
+   /**
+    * Generates a new variate by inversion, with the tables set by
+    * {@link #setFastInversion setFastInversion} if there are any.
+    *
+    * @return the generated value
+    *
+    */
+   public double nextDouble() {
+      if (fastInverse == null)
+         return dist.inverseF (stream.nextDouble());
+      return fastInverse.inverseF (stream.nextDouble());
+   }
+
+
    /**
     * Generates a variate from the <EM>beta</EM> distribution with
     *  parameters <SPAN CLASS="MATH"><I>&#945;</I> =</SPAN>&nbsp;<TT>alpha</TT>, <SPAN CLASS="MATH"><I>&#946;</I> =</SPAN>&nbsp;<TT>beta</TT>, over the
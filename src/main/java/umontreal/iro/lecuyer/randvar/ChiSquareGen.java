@@ -44,11 +44,13 @@ import umontreal.iro.lecuyer.probdist.*;
  * 
  * <P>
  * The (non-static) <TT>nextDouble</TT> method simply calls <TT>inverseF</TT> on the
- * distribution.
+ * distribution, or, after a call to {@link #setFastInversion setFastInversion}, computes
+ * the inverse much faster from precomputed tables.
  * 
  */
 public class ChiSquareGen extends RandomVariateGen  {
    protected int n = -1;
+   protected InverseDistFromDensity fastInverse = null;
     
 
 
@@ -76,6 +78,60 @@ public class ChiSquareGen extends RandomVariateGen  {
    }
 
 
+   /**
+    * Sets the <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution of the fast inversion to <TT>eps</TT>.
+    * If <TT>eps</TT> is positive, {@link #nextDouble() nextDouble} then computes the
+    * inverse of the distribution with the tables of an
+    * {@link umontreal.iro.lecuyer.probdist.InverseDistFromDensity InverseDistFromDensity}
+    * object, instead of calling <TT>inverseF</TT> on the distribution.
+    * The tables are built the first time they are needed for these parameters
+    * and this <TT>eps</TT>, which takes a few milliseconds, and are then kept in
+    * the cache returned by
+    * {@link umontreal.iro.lecuyer.probdist.InverseTableCache#getShared() InverseTableCache.getShared},
+    * where all the generators with the same parameters find them.
+    * Each variate is still obtained from a single uniform <SPAN CLASS="MATH"><I>u</I></SPAN> by inversion,
+    * so it can be used with quasi-Monte Carlo, but only approximately.
+    * The tables are checked by
+    * {@link umontreal.iro.lecuyer.probdist.InverseTableCache#get(ContinuousDistribution,double) InverseTableCache.get}
+    * at values of <SPAN CLASS="MATH"><I>u</I></SPAN> that include the far tails, where <SPAN CLASS="MATH"><I>F</I>(<I>x</I>)</SPAN> must differ
+    * from <SPAN CLASS="MATH"><I>u</I></SPAN> by at most <SPAN CLASS="MATH">2max(<TT>eps</TT>, 10<SUP>-11</SUP>)</SPAN>, <SPAN CLASS="MATH"><I>x</I></SPAN> being the value returned
+    * and <SPAN CLASS="MATH"><I>F</I></SPAN> the distribution function.
+    * This may fail when <SPAN CLASS="MATH"><I>n</I> = 1</SPAN>, because the density is unbounded at 0;
+    * the tables are then not used, and {@link #nextDouble() nextDouble} keeps calling
+    * <TT>inverseF</TT>.
+    * If <TT>eps</TT> is 0, {@link #nextDouble() nextDouble} calls <TT>inverseF</TT> again.
+    * The tables must be set again if the parameters of the distribution
+    * are changed.
+    *
+    * @param eps the <SPAN CLASS="MATH"><I>u</I></SPAN>-resolution, 0 or between <SPAN CLASS="MATH">10<SUP>-15</SUP></SPAN> and <SPAN CLASS="MATH">10<SUP>-3</SUP></SPAN>
+    *
+    *    @exception IllegalArgumentException if <TT>eps</TT> is neither 0 nor in
+    *     <SPAN CLASS="MATH">[10<SUP>-15</SUP>, 10<SUP>-3</SUP>]</SPAN>
+    *
+    */
+   public void setFastInversion (double eps) {
+      if (eps == 0.0)
+         fastInverse = null;
+      else
+         fastInverse = InverseTableCache.getShared().get
+                          ((ContinuousDistribution)dist, eps);
+   }
+
+
+   /**
+    * Generates a new variate by inversion, with the tables set by
+    * {@link #setFastInversion setFastInversion} if there are any.
+    *
+    * @return the generated value
+    *
+    */
+   public double nextDouble() {
+      if (fastInverse == null)
+         return dist.inverseF (stream.nextDouble());
+      return fastInverse.inverseF (stream.nextDouble());
+   }
+
+
    /**
     * Generates a new variate from the chi square distribution 
     *    with <SPAN CLASS="MATH"><I>n</I></SPAN> degrees of freedom, using stream <TT>s</TT>.
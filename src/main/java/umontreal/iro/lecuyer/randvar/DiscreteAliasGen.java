@@ -0,0 +1,242 @@
+
+
+/*
+ * Class:        DiscreteAliasGen
+ * Description:  random variate generators for discrete distributions
+                 using the alias method
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.randvar;
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.probdist.*;
+
+
+/**
+ * This class implements random variate generators for discrete
+ * distributions over a finite number of values, using the
+ * <EM>alias method</EM> of Walker (1977), with the construction of the
+ * tables proposed by Vose (1991).
+ * The <SPAN CLASS="MATH"><I>n</I></SPAN> values are numbered <SPAN CLASS="MATH">0,...,<I>n</I>-1</SPAN> and value <SPAN CLASS="MATH"><I>i</I></SPAN> has probability
+ * <SPAN CLASS="MATH"><I>p</I><SUB><I>i</I></SUB></SPAN>. The tables contain, for each <SPAN CLASS="MATH"><I>i</I></SPAN>, a probability <SPAN CLASS="MATH"><I>q</I><SUB><I>i</I></SUB></SPAN> and an
+ * alias <SPAN CLASS="MATH"><I>a</I><SUB><I>i</I></SUB></SPAN>. To generate a value, an index <SPAN CLASS="MATH"><I>i</I></SPAN> is chosen uniformly among
+ * <SPAN CLASS="MATH">0,...,<I>n</I>-1</SPAN> with a first uniform; then <SPAN CLASS="MATH"><I>i</I></SPAN> is returned with
+ * probability <SPAN CLASS="MATH"><I>q</I><SUB><I>i</I></SUB></SPAN>, using a second uniform, and <SPAN CLASS="MATH"><I>a</I><SUB><I>i</I></SUB></SPAN> is returned otherwise.
+ * The tables are built in time <SPAN CLASS="MATH"><I>O</I>(<I>n</I>)</SPAN>, after which each value is generated
+ * in constant time, whatever the value of <SPAN CLASS="MATH"><I>n</I></SPAN> and the shape of the distribution.
+ *
+ * <P>
+ * The generator can be constructed from a {@link DiscreteDistributionInt},
+ * in which case {@link #nextInt nextInt} returns the values of the distribution.
+ * When the support of the distribution is infinite, it is truncated to
+ * the values <SPAN CLASS="MATH"><I>x</I></SPAN> such that <SPAN CLASS="MATH"><I>F</I>(<I>x</I>) &gt;= &#949;</SPAN> and <SPAN CLASS="MATH">1 - <I>F</I>(<I>x</I>-1) &gt;= &#949;</SPAN>,
+ * where <SPAN CLASS="MATH">&#949;</SPAN> is <TT>DiscreteDistributionInt.EPSILON</TT>.
+ * It can also be constructed from a {@link DiscreteDistribution}, such as
+ * an {@link EmpiricalDist}, in which case {@link #nextInt nextInt} returns the
+ * number <SPAN CLASS="MATH"><I>i</I></SPAN> of the value and {@link #nextDouble nextDouble} returns the value
+ * <SPAN CLASS="MATH"><I>x</I><SUB><I>i</I></SUB></SPAN> itself, or from an array of non-negative weights proportional to
+ * the probabilities <SPAN CLASS="MATH"><I>p</I><SUB><I>i</I></SUB></SPAN>, in which case {@link #nextInt nextInt} returns <SPAN CLASS="MATH"><I>i</I></SPAN>.
+ *
+ * <P>
+ * Since it uses two uniforms for each value and the transformation is not
+ * monotone, this generator should not be used with quasi-Monte Carlo
+ * point sets; {@link DiscreteGuideTableGen} generates by inversion
+ * instead. When the generation of the uniforms dominates the cost, as with
+ * {@link MRG32k3a}, {@link DiscreteGuideTableGen} is also usually faster,
+ * since it needs a single uniform for each value.
+ * The method {@link #nextArrayOfInt nextArrayOfInt} obtains all the uniforms by blocks
+ * with the <TT>nextArrayOfDouble</TT> method of the stream, and returns
+ * the same values as the same number of calls to {@link #nextInt nextInt}.
+ *
+ * <P>
+ * References:
+ * A. J. Walker, An efficient method for generating discrete random
+ * variables with general distributions, <EM>ACM Transactions on
+ * Mathematical Software</EM>, 3(3):253-256, 1977;
+ * M. D. Vose, A linear algorithm for generating random numbers with a given
+ * distribution, <EM>IEEE Transactions on Software Engineering</EM>,
+ * 17(9):972-975, 1991.
+ *
+ */
+public class DiscreteAliasGen extends RandomVariateGenInt  {
+   private static final int BLOCK = 256;
+   private int size;            // number of values
+   private int offset;          // value number 0, for a DiscreteDistributionInt
+   private double[] values;     // values of a DiscreteDistribution, or null
+   private double[] q;          // probability of keeping index i
+   private int[] alias;         // value returned otherwise
+   private double[] ubuf;       // uniforms for nextArrayOfInt
+
+
+   /**
+    * Creates a generator for the discrete distribution over the
+    * integers <TT>dist</TT>, using stream <TT>s</TT>.
+    *
+    */
+   public DiscreteAliasGen (RandomStream s, DiscreteDistributionInt dist) {
+      super (s, dist);
+      int lo = Math.max (dist.getXinf(),
+                         dist.inverseFInt (DiscreteDistributionInt.EPSILON));
+      int hi = Math.min (dist.getXsup(),
+                   dist.inverseFInt (1.0 - DiscreteDistributionInt.EPSILON));
+      if ((long)hi - lo >= Integer.MAX_VALUE)
+         throw new IllegalArgumentException ("support too large");
+      double[] w = new double[hi - lo + 1];
+      for (int i = 0; i < w.length; i++)
+         w[i] = dist.prob (lo + i);
+      offset = lo;
+      init (w);
+   }
+
+
+   /**
+    * Creates a generator for the discrete distribution <TT>dist</TT>,
+    * using stream <TT>s</TT>. The method {@link #nextInt nextInt} returns the number
+    * of the value, and {@link #nextDouble nextDouble} the value itself.
+    * The method {@link #getDistribution getDistribution} returns <TT>null</TT>.
+    *
+    */
+   public DiscreteAliasGen (RandomStream s, DiscreteDistribution dist) {
+      super (s, null);
+      double[] w = new double[dist.getN()];
+      values = new double[w.length];
+      for (int i = 0; i < w.length; i++) {
+         w[i] = dist.prob (i);
+         values[i] = dist.getValue (i);
+      }
+      init (w);
+   }
+
+
+   /**
+    * Creates a generator returning <SPAN CLASS="MATH"><I>i</I></SPAN> with probability proportional
+    * to <TT>weights[i]</TT>, for <SPAN CLASS="MATH"><I>i</I> = 0,...,<I>n</I>-1</SPAN>, where <SPAN CLASS="MATH"><I>n</I></SPAN> is the length of
+    * <TT>weights</TT>, using stream <TT>s</TT>. The weights must be
+    * non-negative and finite, and their sum must be positive.
+    * The method {@link #getDistribution getDistribution} returns <TT>null</TT>.
+    *
+    * @param s the random stream
+    *
+    *    @param weights the weights of the values
+    *
+    *    @exception IllegalArgumentException if a weight is negative or not
+    *     finite, or if the sum of the weights is 0
+    *
+    */
+   public DiscreteAliasGen (RandomStream s, double[] weights) {
+      super (s, null);
+      init (weights);
+   }
+
+
+   public int nextInt() {
+      int i = (int)(stream.nextDouble()*size);
+      if (i >= size)
+         i = size - 1;
+      return offset + (stream.nextDouble() < q[i] ? i : alias[i]);
+   }
+
+   public double nextDouble() {
+      int i = nextInt();
+      return values == null ? i : values[i];
+   }
+
+   public void nextArrayOfInt (int[] v, int start, int n) {
+      if (n < 0)
+         throw new IllegalArgumentException ("n must be positive.");
+      if (ubuf == null)
+         ubuf = new double[2*BLOCK];
+      for (int k = 0; k < n; k += BLOCK) {
+         int m = Math.min (BLOCK, n - k);
+         // The uniforms are used in pairs, as in nextInt.
+         stream.nextArrayOfDouble (ubuf, 0, 2*m);
+         for (int j = 0; j < m; j++) {
+            int i = (int)(ubuf[2*j]*size);
+            if (i >= size)
+               i = size - 1;
+            v[start + k + j] = offset + (ubuf[2*j + 1] < q[i] ? i : alias[i]);
+         }
+      }
+   }
+
+
+   /**
+    * Returns the number <SPAN CLASS="MATH"><I>n</I></SPAN> of values in the tables.
+    *
+    * @return the number of values
+    *
+    */
+   public int getN() {
+      return size;
+   }
+
+
+   // Builds the tables with Vose's algorithm: the cells whose scaled
+   // probability is smaller than 1 are filled with the excess of cells
+   // whose scaled probability is larger than 1.
+   private void init (double[] w) {
+      size = w.length;
+      if (size == 0)
+         throw new IllegalArgumentException ("no values");
+      double sum = 0.0;
+      for (int i = 0; i < size; i++) {
+         if (!(w[i] >= 0.0) || Double.isInfinite (w[i]))
+            throw new IllegalArgumentException
+               ("weights must be non-negative and finite");
+         sum += w[i];
+      }
+      if (!(sum > 0.0) || Double.isInfinite (sum))
+         throw new IllegalArgumentException ("invalid sum of weights");
+      q = new double[size];
+      alias = new int[size];
+      int[] small = new int[size];
+      int[] large = new int[size];
+      int ns = 0, nl = 0;
+      for (int i = 0; i < size; i++) {
+         q[i] = w[i]/sum*size;
+         if (q[i] < 1.0)
+            small[ns++] = i;
+         else
+            large[nl++] = i;
+      }
+      while (ns > 0 && nl > 0) {
+         int l = small[--ns];
+         int g = large[nl - 1];
+         alias[l] = g;
+         q[g] = (q[g] + q[l]) - 1.0;
+         if (q[g] < 1.0) {
+            nl--;
+            small[ns++] = g;
+         }
+      }
+      // The remaining cells are full, up to rounding errors.
+      while (nl > 0) {
+         int g = large[--nl];
+         q[g] = 1.0;
+         alias[g] = g;
+      }
+      while (ns > 0) {
+         int l = small[--ns];
+         q[l] = 1.0;
+         alias[l] = l;
+      }
+   }
+}
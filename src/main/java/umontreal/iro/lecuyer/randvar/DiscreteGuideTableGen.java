@@ -0,0 +1,225 @@
+
+
+/*
+ * Class:        DiscreteGuideTableGen
+ * Description:  random variate generators for discrete distributions
+                 using inversion with a guide table
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.randvar;
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.probdist.*;
+
+
+/**
+ * This class implements random variate generators for discrete
+ * distributions over a finite number of values, by inversion with a
+ * <EM>guide table</EM>, also called indexed search, of Chen and Asau (1974).
+ * The <SPAN CLASS="MATH"><I>n</I></SPAN> values are numbered <SPAN CLASS="MATH">0,...,<I>n</I>-1</SPAN> and value <SPAN CLASS="MATH"><I>i</I></SPAN> has probability
+ * <SPAN CLASS="MATH"><I>p</I><SUB><I>i</I></SUB></SPAN>. The generator keeps the cumulative probabilities
+ * <SPAN CLASS="MATH"><I>F</I><SUB><I>i</I></SUB> = <I>p</I><SUB>0</SUB> + &#8943; + <I>p</I><SUB><I>i</I></SUB></SPAN>, and a guide table <SPAN CLASS="MATH"><I>g</I><SUB>0</SUB>,...,<I>g</I><SUB><I>n</I>-1</SUB></SPAN> in which
+ * <SPAN CLASS="MATH"><I>g</I><SUB><I>j</I></SUB></SPAN> is the smallest <SPAN CLASS="MATH"><I>i</I></SPAN> such that <SPAN CLASS="MATH"><I>F</I><SUB><I>i</I></SUB> &gt;= <I>j</I>/n</SPAN>. For a uniform <SPAN CLASS="MATH"><I>u</I></SPAN>,
+ * the search for the smallest <SPAN CLASS="MATH"><I>i</I></SPAN> such that <SPAN CLASS="MATH"><I>F</I><SUB><I>i</I></SUB> &gt;= <I>u</I></SPAN> then starts at
+ * <SPAN CLASS="MATH"><I>g</I><SUB><I>j</I></SUB></SPAN>, where <SPAN CLASS="MATH"><I>j</I> = &lfloor;<I>nu</I>&rfloor;</SPAN>, instead of the beginning of the
+ * table; the expected number of comparisons is at most 2, whatever the
+ * value of <SPAN CLASS="MATH"><I>n</I></SPAN> and the shape of the distribution.
+ * The tables are built in time <SPAN CLASS="MATH"><I>O</I>(<I>n</I>)</SPAN>.
+ *
+ * <P>
+ * Each value is obtained from a single uniform by inversion, so this
+ * generator can be used with quasi-Monte Carlo point sets, contrary to
+ * {@link DiscreteAliasGen}. Up to rounding errors in the cumulative
+ * probabilities, it returns the same values as the <TT>inverseFInt</TT>
+ * method of the distribution.
+ * The generator can be constructed from a {@link DiscreteDistributionInt},
+ * a {@link DiscreteDistribution} or an array of weights, as explained in
+ * {@link DiscreteAliasGen}.
+ * The method {@link #nextArrayOfInt nextArrayOfInt} obtains all the uniforms by blocks
+ * with the <TT>nextArrayOfDouble</TT> method of the stream, and returns
+ * the same values as the same number of calls to {@link #nextInt nextInt}.
+ *
+ * <P>
+ * Reference:
+ * H. C. Chen and Y. Asau, On generating random variates from an empirical
+ * distribution, <EM>AIIE Transactions</EM>, 6(2):163-166, 1974.
+ *
+ */
+public class DiscreteGuideTableGen extends RandomVariateGenInt  {
+   private static final int BLOCK = 256;
+   private int size;            // number of values
+   private int offset;          // value number 0, for a DiscreteDistributionInt
+   private double[] values;     // values of a DiscreteDistribution, or null
+   private double[] cdf;        // cumulative probabilities, cdf[size-1] = 1
+   private int[] guide;         // guide[j] = min {i : cdf[i] > 0, (int)(cdf[i]*size) >= j}
+   private double[] ubuf;       // uniforms for nextArrayOfInt
+
+
+   /**
+    * Creates a generator for the discrete distribution over the
+    * integers <TT>dist</TT>, using stream <TT>s</TT>. The support of
+    * <TT>dist</TT> is truncated as in {@link DiscreteAliasGen}.
+    *
+    */
+   public DiscreteGuideTableGen (RandomStream s,
+                                 DiscreteDistributionInt dist) {
+      super (s, dist);
+      int lo = Math.max (dist.getXinf(),
+                         dist.inverseFInt (DiscreteDistributionInt.EPSILON));
+      int hi = Math.min (dist.getXsup(),
+                   dist.inverseFInt (1.0 - DiscreteDistributionInt.EPSILON));
+      if ((long)hi - lo >= Integer.MAX_VALUE)
+         throw new IllegalArgumentException ("support too large");
+      double[] w = new double[hi - lo + 1];
+      for (int i = 0; i < w.length; i++)
+         w[i] = dist.prob (lo + i);
+      offset = lo;
+      init (w);
+   }
+
+
+   /**
+    * Creates a generator for the discrete distribution <TT>dist</TT>,
+    * using stream <TT>s</TT>. The method {@link #nextInt nextInt} returns the number
+    * of the value, and {@link #nextDouble nextDouble} the value itself.
+    * The method {@link #getDistribution getDistribution} returns <TT>null</TT>.
+    *
+    */
+   public DiscreteGuideTableGen (RandomStream s, DiscreteDistribution dist) {
+      super (s, null);
+      double[] w = new double[dist.getN()];
+      values = new double[w.length];
+      for (int i = 0; i < w.length; i++) {
+         w[i] = dist.prob (i);
+         values[i] = dist.getValue (i);
+      }
+      init (w);
+   }
+
+
+   /**
+    * Creates a generator returning <SPAN CLASS="MATH"><I>i</I></SPAN> with probability proportional
+    * to <TT>weights[i]</TT>, for <SPAN CLASS="MATH"><I>i</I> = 0,...,<I>n</I>-1</SPAN>, where <SPAN CLASS="MATH"><I>n</I></SPAN> is the length of
+    * <TT>weights</TT>, using stream <TT>s</TT>. The weights must be
+    * non-negative and finite, and their sum must be positive.
+    * The method {@link #getDistribution getDistribution} returns <TT>null</TT>.
+    *
+    * @param s the random stream
+    *
+    *    @param weights the weights of the values
+    *
+    *    @exception IllegalArgumentException if a weight is negative or not
+    *     finite, or if the sum of the weights is 0
+    *
+    */
+   public DiscreteGuideTableGen (RandomStream s, double[] weights) {
+      super (s, null);
+      init (weights);
+   }
+
+
+   public int nextInt() {
+      return offset + search (stream.nextDouble());
+   }
+
+   public double nextDouble() {
+      int i = nextInt();
+      return values == null ? i : values[i];
+   }
+
+   public void nextArrayOfInt (int[] v, int start, int n) {
+      if (n < 0)
+         throw new IllegalArgumentException ("n must be positive.");
+      if (ubuf == null)
+         ubuf = new double[BLOCK];
+      for (int k = 0; k < n; k += BLOCK) {
+         int m = Math.min (BLOCK, n - k);
+         stream.nextArrayOfDouble (ubuf, 0, m);
+         for (int j = 0; j < m; j++)
+            v[start + k + j] = offset + search (ubuf[j]);
+      }
+   }
+
+
+   /**
+    * Returns the number <SPAN CLASS="MATH"><I>n</I></SPAN> of values in the tables.
+    *
+    * @return the number of values
+    *
+    */
+   public int getN() {
+      return size;
+   }
+
+
+   // Returns the smallest i such that cdf[i] >= u and cdf[i] > 0, so that
+   // a value of probability 0 is never returned. Since the product by
+   // size is monotone, (int)(cdf[i]*size) >= (int)(u*size) for this i,
+   // so the search can start at guide[(int)(u*size)].
+   private int search (double u) {
+      int j = (int)(u*size);
+      if (j >= size)
+         j = size - 1;
+      int i = guide[j];
+      while (cdf[i] < u)
+         i++;
+      return i;
+   }
+
+   private void init (double[] w) {
+      size = w.length;
+      if (size == 0)
+         throw new IllegalArgumentException ("no values");
+      double sum = 0.0;
+      int first = -1;           // first value with a positive probability
+      int last = 0;             // last value with a positive probability
+      for (int i = 0; i < size; i++) {
+         if (!(w[i] >= 0.0) || Double.isInfinite (w[i]))
+            throw new IllegalArgumentException
+               ("weights must be non-negative and finite");
+         sum += w[i];
+         if (w[i] > 0.0) {
+            if (first < 0)
+               first = i;
+            last = i;
+         }
+      }
+      if (!(sum > 0.0) || Double.isInfinite (sum))
+         throw new IllegalArgumentException ("invalid sum of weights");
+      cdf = new double[size];
+      double c = 0.0;
+      for (int i = 0; i < last; i++) {
+         c += w[i];
+         cdf[i] = Math.min (c/sum, 1.0);
+      }
+      for (int i = last; i < size; i++)
+         cdf[i] = 1.0;
+      // The values before first have cdf 0 and could be returned for
+      // u = 0, so the guide table, and thus the search, starts at first.
+      guide = new int[size];
+      int j = 0;
+      for (int i = first; i < size && j < size; i++) {
+         int jmax = Math.min ((int)(cdf[i]*size), size - 1);
+         while (j <= jmax)
+            guide[j++] = i;
+      }
+   }
+}
@@ -104,4 +104,19 @@ public class ExponentialGen extends RandomVariateGen  {
       this.lambda = lam;
    }
 
+
+   public void nextArrayOfDouble (double[] v, int start, int n) {
+      if (getClass() != ExponentialGen.class ||
+          dist.getClass() != ExponentialDist.class) {
+         super.nextArrayOfDouble (v, start, n);
+         return;
+      }
+      if (n <= 0)
+         throw new IllegalArgumentException ("n must be positive.");
+      stream.nextArrayOfDouble (v, start, n);
+      final double lam = ((ExponentialDist)dist).getLambda();
+      for (int i = start; i < start + n; i++)
+         v[i] = ExponentialDist.inverseF (lam, v[i]);
+   }
+
 }
@@ -0,0 +1,143 @@
+
+
+/*
+ * Class:        ExponentialZigguratGen
+ * Description:  exponential random variate generators using the ziggurat
+                 method
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.randvar;
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.probdist.*;
+
+
+/**
+ * This class implements <EM>exponential</EM> random variate generators using
+ * the <EM>ziggurat</EM> method of Marsaglia and Tsang (2000).
+ * The area under the density <SPAN CLASS="MATH"><I>e</I><SUP>-<I>x</I></SUP></SPAN> is covered by 256 layers of equal
+ * area: 255 horizontal rectangles and a base layer made of a rectangle and
+ * the tail beyond <SPAN CLASS="MATH"><I>r</I> &#8776; 7.697</SPAN>. A layer and a point in it are chosen at
+ * random; in about 98% of the cases, the point lies in the part of the
+ * rectangle under the density and its abscissa is returned after a single
+ * multiplication. Otherwise, the point is accepted or rejected with one more
+ * uniform, and a point in the tail is <SPAN CLASS="MATH"><I>r</I></SPAN> plus an exponential variate
+ * obtained by inversion.
+ * As in {@link NormalZigguratGen}, the layer and the position in it are
+ * obtained from a single uniform, whose 8 most significant bits give the
+ * layer, and the boundaries of the layers are computed once and shared by
+ * all the generators.
+ * This generator should not be used with quasi-Monte Carlo point sets,
+ * for the reasons given in {@link NormalZigguratGen}.
+ *
+ * <P>
+ * Reference:
+ * G. Marsaglia and W. W. Tsang, The ziggurat method for generating random
+ * variables, <EM>Journal of Statistical Software</EM>, 5(8), 2000.
+ *
+ */
+public class ExponentialZigguratGen extends ExponentialGen  {
+   private static final int N = 256;            // number of layers
+   private static final double R = 7.697117470131049;    // start of tail
+   private static final double V = 3.949659822581559e-3; // area of a layer
+
+   // x[i] is the right end of layer i, with x[0] = V/f(R) for the base
+   // layer and x[N] = 0; ratio[i] = x[i+1]/x[i]. These arrays are never
+   // modified after the class is loaded.
+   private static final double[] x = new double[N + 1];
+   private static final double[] ratio = new double[N];
+
+   static {
+      double f = Math.exp (-R);
+      x[0] = V/f;
+      x[1] = R;
+      for (int i = 2; i < N; i++) {
+         x[i] = -Math.log (V/x[i-1] + f);
+         f = Math.exp (-x[i]);
+      }
+      x[N] = 0.0;
+      for (int i = 0; i < N; i++)
+         ratio[i] = x[i+1]/x[i];
+   }
+
+
+   /**
+    * Creates an exponential random variate generator with
+    * parameter <SPAN CLASS="MATH"><I>&#955;</I> =</SPAN> <TT>lambda</TT>, using stream <TT>s</TT>.
+    *
+    */
+   public ExponentialZigguratGen (RandomStream s, double lambda)  {
+      super (s, lambda);
+   }
+
+
+   /**
+    * Creates a random variate generator for the exponential
+    * distribution <TT>dist</TT> and stream <TT>s</TT>.
+    *
+    */
+   public ExponentialZigguratGen (RandomStream s, ExponentialDist dist)  {
+      super (s, dist);
+   }
+
+
+   public double nextDouble() {
+      return nextStandard (stream)/lambda;
+   }
+
+
+   /**
+    * Generates a variate from the exponential distribution with
+    * parameter <SPAN CLASS="MATH"><I>&#955;</I> =</SPAN>&nbsp;<TT>lambda</TT>, using stream <TT>s</TT>.
+    *
+    * @param s the random stream
+    *
+    *    @param lambda the parameter of the distribution
+    *
+    *    @return the generated value
+    *
+    */
+   public static double nextDouble (RandomStream s, double lambda) {
+      if (lambda <= 0.0)
+         throw new IllegalArgumentException ("lambda <= 0");
+      return nextStandard (s)/lambda;
+   }
+
+   private static double nextStandard (RandomStream s) {
+      while (true) {
+         // Layer from the 8 high-order bits of the uniform, position in
+         // the layer from the other ones.
+         double t = s.nextDouble()*N;
+         int i = (int)t;
+         double u = t - i;
+         if (u < ratio[i])
+            return u*x[i];             // inside the rectangle
+         if (i == 0)
+            return R - Math.log (s.nextDouble());
+         double z = u*x[i];
+         double f0 = Math.exp (z - x[i]);
+         double f1 = Math.exp (z - x[i+1]);
+         if (f1 + s.nextDouble()*(f0 - f1) < 1.0)
+            return z;
+      }
+   }
+
+}
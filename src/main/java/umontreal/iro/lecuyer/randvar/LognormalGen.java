@@ -133,4 +133,21 @@ public class LognormalGen extends RandomVariateGen  {
       this.sigma = sigma;
    }
 
+
+   public void nextArrayOfDouble (double[] v, int start, int n) {
+      if (getClass() != LognormalGen.class ||
+          dist.getClass() != LognormalDist.class) {
+         super.nextArrayOfDouble (v, start, n);
+         return;
+      }
+      if (n <= 0)
+         throw new IllegalArgumentException ("n must be positive.");
+      stream.nextArrayOfDouble (v, start, n);
+      LognormalDist ld = (LognormalDist)dist;
+      final double m = ld.getMu();
+      final double sd = ld.getSigma();
+      for (int i = start; i < start + n; i++)
+         v[i] = LognormalDist.inverseF (m, sd, v[i]);
+   }
+
 }
@@ -169,4 +169,22 @@ public class NormalGen extends RandomVariateGen  {
       this.sigma = sigma;
    }
 
+
+   public void nextArrayOfDouble (double[] v, int start, int n) {
+      if (getClass() != NormalGen.class || dist.getClass() != NormalDist.class) {
+         super.nextArrayOfDouble (v, start, n);
+         return;
+      }
+      if (n <= 0)
+         throw new IllegalArgumentException ("n must be positive.");
+      // Draw all the uniforms first, then invert them in a loop that
+      // does not go through the distribution object.
+      stream.nextArrayOfDouble (v, start, n);
+      NormalDist nd = (NormalDist)dist;
+      final double m = nd.getMu();
+      final double sd = nd.getSigma();
+      for (int i = start; i < start + n; i++)
+         v[i] = m + sd * NormalDist.inverseF01 (v[i]);
+   }
+
 }
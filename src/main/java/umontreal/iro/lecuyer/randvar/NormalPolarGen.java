@@ -41,7 +41,6 @@ public class NormalPolarGen extends NormalGen  {
    // used by polar method which calculate always two random values;
    private boolean available = false;
    private double[] variates = new double[2];
-   private static double[] staticVariates = new double[2];
 
 
    /**
@@ -90,8 +89,11 @@ public class NormalPolarGen extends NormalGen  {
    }
 
    public static double nextDouble (RandomStream s, double mu, double sigma) {
-      polar (s, mu, sigma, staticVariates);
-      return mu + sigma*staticVariates[0];
+      // A new array on each call, so that threads can call this method
+      // at the same time.
+      double[] variates = new double[2];
+      polar (s, mu, sigma, variates);
+      return mu + sigma*variates[0];
    }
    /**
     * Generates a variate from the normal distribution with
@@ -0,0 +1,184 @@
+
+
+/*
+ * Class:        NormalZigguratGen
+ * Description:  normal random variate generators using the ziggurat method
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.randvar;
+import umontreal.iro.lecuyer.rng.*;
+import umontreal.iro.lecuyer.probdist.*;
+
+
+/**
+ * This class implements <EM>normal</EM> random variate generators using
+ * the <EM>ziggurat</EM> method of Marsaglia and Tsang (2000), in the version
+ * of Doornik (2005). The area under the half density
+ * <SPAN CLASS="MATH"><I>e</I><SUP>-<I>x</I><SUP>2</SUP>/2</SUP></SPAN> and its tail is covered by 256 layers of equal area: 255
+ * horizontal rectangles and a base layer made of a rectangle and the tail
+ * beyond <SPAN CLASS="MATH"><I>r</I> &#8776; 3.654</SPAN>. A layer and a point in it are chosen at random;
+ * in about 98.5% of the cases, the point lies in the part of the rectangle
+ * under the density and its abscissa is returned after a single
+ * multiplication. Otherwise, the point is accepted or rejected with one more
+ * uniform, and the tail is handled by Marsaglia's method.
+ * The boundaries of the layers are computed once, when the class is loaded,
+ * and shared by all the generators.
+ *
+ * <P>
+ * The layer, the sign and the abscissa of the point are all obtained from
+ * a single uniform <SPAN CLASS="MATH"><I>u</I></SPAN>: the 9 most significant bits of <SPAN CLASS="MATH"><I>u</I></SPAN> give the layer
+ * and the sign, and the remaining ones give the position in the layer.
+ * With the generators of SSJ whose uniforms have a resolution of
+ * <SPAN CLASS="MATH">2<SUP>-32</SUP></SPAN>, such as {@link MRG32k3a}, the position in the layer thus
+ * has 23 bits of resolution; a stream with a finer resolution
+ * (see <TT>increasedPrecision</TT> in {@link RandomStreamBase}) gives a finer one.
+ * Since the number of uniforms used for each variate is random and the
+ * transformation is not monotone, this generator should not be used with
+ * quasi-Monte Carlo point sets; it is meant for plain Monte Carlo, where it is
+ * usually faster than the other normal generators of this package.
+ *
+ * <P>
+ * References:
+ * G. Marsaglia and W. W. Tsang, The ziggurat method for generating random
+ * variables, <EM>Journal of Statistical Software</EM>, 5(8), 2000;
+ * J. A. Doornik, An improved ziggurat method to generate normal random
+ * samples, University of Oxford, 2005.
+ *
+ */
+public class NormalZigguratGen extends NormalGen  {
+   private static final int N = 256;            // number of layers
+   private static final double R = 3.654152885361009;    // start of tail
+   private static final double V = 4.928673233974657e-3; // area of a layer
+
+   // x[i] is the right end of layer i, with x[0] = V/f(R) for the base
+   // layer and x[N] = 0; ratio[i] = x[i+1]/x[i]. These arrays are never
+   // modified after the class is loaded.
+   private static final double[] x = new double[N + 1];
+   private static final double[] ratio = new double[N];
+
+   static {
+      double f = Math.exp (-0.5*R*R);
+      x[0] = V/f;
+      x[1] = R;
+      for (int i = 2; i < N; i++) {
+         x[i] = Math.sqrt (-2.0*Math.log (V/x[i-1] + f));
+         f = Math.exp (-0.5*x[i]*x[i]);
+      }
+      x[N] = 0.0;
+      for (int i = 0; i < N; i++)
+         ratio[i] = x[i+1]/x[i];
+   }
+
+
+   /**
+    * Creates a normal random variate generator with mean <TT>mu</TT>
+    * and standard deviation <TT>sigma</TT>, using stream <TT>s</TT>.
+    *
+    */
+   public NormalZigguratGen (RandomStream s, double mu, double sigma)  {
+      super (s, null);
+      setParams (mu, sigma);
+   }
+
+
+   /**
+    * Creates a standard normal random variate generator with mean
+    * <TT>0</TT> and standard deviation <TT>1</TT>, using stream <TT>s</TT>.
+    *
+    */
+   public NormalZigguratGen (RandomStream s)  {
+      this (s, 0.0, 1.0);
+   }
+
+
+   /**
+    * Creates a random variate generator for the normal distribution
+    * <TT>dist</TT> and stream <TT>s</TT>.
+    *
+    */
+   public NormalZigguratGen (RandomStream s, NormalDist dist)  {
+      super (s, dist);
+      if (dist != null)
+         setParams (dist.getMu(), dist.getSigma());
+   }
+
+
+   public double nextDouble() {
+      return mu + sigma*nextStandard (stream);
+   }
+
+
+   /**
+    * Generates a variate from the normal distribution with
+    * parameters <SPAN CLASS="MATH"><I>&#956;</I> =</SPAN>&nbsp;<TT>mu</TT> and <SPAN CLASS="MATH"><I>&#963;</I> =</SPAN>&nbsp;<TT>sigma</TT>, using
+    * stream <TT>s</TT>.
+    *
+    * @param s the random stream
+    *
+    *    @param mu the mean of the distribution
+    *
+    *    @param sigma the standard deviation of the distribution
+    *
+    *    @return the generated value
+    *
+    */
+   public static double nextDouble (RandomStream s, double mu, double sigma) {
+      if (sigma <= 0)
+         throw new IllegalArgumentException ("sigma <= 0");
+      return mu + sigma*nextStandard (s);
+   }
+
+   private static double nextStandard (RandomStream s) {
+      while (true) {
+         // Layer and sign from the 9 high-order bits of the uniform,
+         // position in the layer from the other ones.
+         double t = s.nextDouble()*(2*N);
+         int k = (int)t;
+         int i = k & (N - 1);
+         double u = t - k;
+         double z;
+         if (u < ratio[i])
+            z = u*x[i];                // inside the rectangle
+         else if (i == 0)
+            z = tail (s);
+         else {
+            z = u*x[i];
+            double f0 = Math.exp (-0.5*(x[i]*x[i] - z*z));
+            double f1 = Math.exp (-0.5*(x[i+1]*x[i+1] - z*z));
+            if (f1 + s.nextDouble()*(f0 - f1) >= 1.0)
+               continue;               // above the density
+         }
+         return k >= N ? -z : z;
+      }
+   }
+
+   // Marsaglia's method for the tail beyond R.
+   private static double tail (RandomStream s) {
+      double a, b;
+      do {
+         a = -Math.log (s.nextDouble())/R;
+         b = -Math.log (s.nextDouble());
+      } while (b + b < a*a);
+      return R + a;
+   }
+
+}
@@ -42,10 +42,22 @@ public class PoissonTIACGen extends PoissonGen  {
  
    private double[] pp    = new double[36];
    private int[]    llref = {0};
-   private static double[] staticPP    = new double[36];
-   private static int[]    staticllref = {0};
    // Used by TIAC, avoid creating a table upon each call.
 
+   // The table of the static method, one for each thread, with the
+   // lambda for which it was computed.
+   private static class Table {
+      double   lambda = -1.0;
+      double[] pp     = new double[36];
+      int[]    llref  = {0};
+   }
+   private static final ThreadLocal<Table> staticTable =
+      new ThreadLocal<Table>() {
+         protected Table initialValue() {
+            return new Table();
+         }
+      };
+
 
 
    /**
@@ -75,7 +87,12 @@ public class PoissonTIACGen extends PoissonGen  {
    }
 
    public static int nextInt (RandomStream s, double lambda) {
-      return tiac (s, lambda, staticPP, staticllref);
+      Table t = staticTable.get();
+      if (t.lambda != lambda) {
+         t.lambda = lambda;
+         t.llref[0] = 0;
+      }
+      return tiac (s, lambda, t.pp, t.llref);
    }
 
  
@@ -153,6 +170,12 @@ public class PoissonTIACGen extends PoissonGen  {
             }
 
             // Step C. Creation of new prob. 
+            if (ll != 0) {
+               // Continue from the last tabulated probability.
+               for (k = 1; k <= ll; k++)
+                  p *= lambda / (double)k;
+               q = pp[ll];
+            }
             for (k = ll +1; k <= 35; k++) {
                 p *= lambda / (double)k;
                 q += p;
@@ -280,10 +303,5 @@ public class PoissonTIACGen extends PoissonGen  {
          }
       }
    }
-
-   static {
-      for (int i = 0; i < staticPP.length; i++)
-         staticPP[i] = 0.0;
-   }
 }
 
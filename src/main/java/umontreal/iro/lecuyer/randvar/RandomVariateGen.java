@@ -103,6 +103,12 @@ public class RandomVariateGen  {
     *    starting from index <TT>start</TT>.
     *    By default, this method calls {@link #nextDouble() nextDouble()} <TT>n</TT>
     *    times, but one can override it in subclasses for better efficiency.
+    *    The generators using inversion in {@link NormalGen},
+    *    {@link LognormalGen}, {@link ExponentialGen} and {@link UniformGen}
+    *    override it to obtain the <TT>n</TT> uniforms with a single call to
+    *    the <TT>nextArrayOfDouble</TT> method of the stream, and then invert
+    *    them one after the other. The values and the state of the stream
+    *    are the same as with <TT>n</TT> calls to {@link #nextDouble() nextDouble()}.
     *  
     * @param v array in which the variates will be stored
     * 
@@ -46,7 +46,6 @@ public class StudentPolarGen extends StudentGen  {
 
     private boolean available = false;
     private double[] variates = new double[2];
-    private static double[] staticVariates = new double[2];
     // Used by the polar method.
 
 
@@ -86,8 +85,11 @@ public class StudentPolarGen extends StudentGen  {
    }
 
    public static double nextDouble (RandomStream s, int n) {
-      polar (s, n, staticVariates);
-      return staticVariates[0];
+      // A new array on each call, so that threads can call this method
+      // at the same time.
+      double[] variates = new double[2];
+      polar (s, n, variates);
+      return variates[0];
    }
    /**
     * Generates a new variate from the Student distribution
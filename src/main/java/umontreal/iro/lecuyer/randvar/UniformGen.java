@@ -122,5 +122,32 @@ public class UniformGen extends RandomVariateGen  {
       this.a = a;
       this.b = b;
    }
-      
+
+
+   public void nextArrayOfDouble (double[] v, int start, int n) {
+      if (getClass() != UniformGen.class ||
+          dist.getClass() != UniformDist.class) {
+         super.nextArrayOfDouble (v, start, n);
+         return;
+      }
+      if (n <= 0)
+         throw new IllegalArgumentException ("n must be positive.");
+      stream.nextArrayOfDouble (v, start, n);
+      UniformDist ud = (UniformDist)dist;
+      final double a0 = ud.getA();
+      final double b0 = ud.getB();
+      final double w = b0 - a0;
+      for (int i = start; i < start + n; i++) {
+         double u = v[i];
+         if (u > 1.0 || u < 0.0)
+            throw new IllegalArgumentException ("u not in [0, 1]");
+         if (u <= 0.0)
+            v[i] = a0;
+         else if (u >= 1.0)
+            v[i] = b0;
+         else
+            v[i] = a0 + w*u;
+      }
+   }
+
 }
@@ -176,20 +176,22 @@ public class F2NL607  extends WELL607base {
       stream = new int[R];
       substream = new int[R];
 
-      for(int i = 0; i < R; i++)
-         stream[i] = curr_stream[i];
+      synchronized (F2NL607.class) {
+         for(int i = 0; i < R; i++)
+            stream[i] = curr_stream[i];
 
 //    advanceSeed(curr_stream, Apz);
-      advanceSeed(curr_stream, WELL607.pz);
+         advanceSeed(curr_stream, WELL607.pz);
 
-      //non-linear part
-      nlState = new int[nlData.length];
-      nlStream = new int[nlData.length];
-      nlSubstream = new int[nlData.length];
+         //non-linear part
+         nlState = new int[nlData.length];
+         nlStream = new int[nlData.length];
+         nlSubstream = new int[nlData.length];
 
-      for(int i = 0; i < nlData.length; i++) {
-         nlStream[i] = curr_nlStream[i];
-         curr_nlStream[i] += nlJumpZ[i];
+         for(int i = 0; i < nlData.length; i++) {
+            nlStream[i] = curr_nlStream[i];
+            curr_nlStream[i] += nlJumpZ[i];
+         }
       }
 
       resetStartStream();
@@ -248,7 +250,7 @@ public class F2NL607  extends WELL607base {
     * 
     * 
     */
-   public static void setPackageLinearSeed (int seed[])  {
+   public static synchronized void setPackageLinearSeed (int seed[])  {
       verifySeed(seed);
 
       for(int i = 0; i < R; i++)
@@ -309,7 +311,7 @@ public class F2NL607  extends WELL607base {
     * 
     * 
     */
-   public static void setPackageNonLinearSeed (int seed[])  {
+   public static synchronized void setPackageNonLinearSeed (int seed[])  {
       if (seed.length < nlData.length)
          throw new IllegalArgumentException("Seed must contain " +
                                             nlData.length + " values");
@@ -575,5 +577,85 @@ public class F2NL607  extends WELL607base {
          result += 0x100000000L;
       return result * NORM;
    }
+
+   protected void nextValues (double[] u, int start, int n) {
+      int z0, z1, z2, nonLin;
+      long result;
+      final int[][] nld = nlData;
+      final int[] nls = nlState;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         for (int k = 0; k < nld.length; k++)
+            if (nls[k] >= nld[k].length - 1)
+               nls[k] = 0;
+            else
+               nls[k]++;
+         nonLin = 0;
+         for (int k = 0; k < nld.length; k++)
+            nonLin += nld[k][nls[k]];
+
+         // linear part, as in WELL607base.nextInt
+         z0 = (st[(si + R1) & MASK_STATE] & MASKL) |
+              (st[(si + R2) & MASK_STATE] & MASKU);
+         z1 = (st[si] ^ (st[si] >>> 19)) ^
+              (st[(si + M1) & MASK_STATE] ^ (st[(si + M1) & MASK_STATE] >>> 11));
+         z2 = (st[(si + M2) & MASK_STATE] ^ (st[(si + M2) & MASK_STATE] << (14))) ^
+              st[(si + M3) & MASK_STATE];
+         st[si] = z1 ^ z2;
+         st[(si - 1) & MASK_STATE] = (z0 ^ (z0 >>> 18)) ^
+                                     z1 ^ (st[si] ^ (st[si] << 5));
+         si = (si - 1) & MASK_STATE;
+
+         result = (st[si] ^ nonLin);
+         if(result <= 0)
+            result += 0x100000000L;
+         u[ii] = result * NORM;
+      }
+      state_i = si;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      int z0, z1, z2, nonLin;
+      long result;
+      final int[][] nld = nlData;
+      final int[] nls = nlState;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         for (int k = 0; k < nld.length; k++)
+            if (nls[k] >= nld[k].length - 1)
+               nls[k] = 0;
+            else
+               nls[k]++;
+         nonLin = 0;
+         for (int k = 0; k < nld.length; k++)
+            nonLin += nld[k][nls[k]];
+
+         z0 = (st[(si + R1) & MASK_STATE] & MASKL) |
+              (st[(si + R2) & MASK_STATE] & MASKU);
+         z1 = (st[si] ^ (st[si] >>> 19)) ^
+              (st[(si + M1) & MASK_STATE] ^ (st[(si + M1) & MASK_STATE] >>> 11));
+         z2 = (st[(si + M2) & MASK_STATE] ^ (st[(si + M2) & MASK_STATE] << (14))) ^
+              st[(si + M3) & MASK_STATE];
+         st[si] = z1 ^ z2;
+         st[(si - 1) & MASK_STATE] = (z0 ^ (z0 >>> 18)) ^
+                                     z1 ^ (st[si] ^ (st[si] << 5));
+         si = (si - 1) & MASK_STATE;
+
+         result = (st[si] ^ nonLin);
+         if(result <= 0)
+            result += 0x100000000L;
+         u[ii] = i + (int)(result * NORM * d);
+      }
+      state_i = si;
+   }
 }
 
@@ -0,0 +1,193 @@
+
+
+/*
+ * Class:        F2Poly
+ * Description:  polynomials over F_2 used to jump ahead F_2-linear generators
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.rng;
+
+import java.math.BigInteger;
+
+
+/*
+ * Static methods on polynomials with coefficients in F_2, used by the
+ * F_2-linear generators to jump ahead by an arbitrary number of steps.
+ * A polynomial is stored in an array of int: bit k of p[j] is the
+ * coefficient of z^(32j + k), the same format as the pw and pz arrays
+ * of the WELL generators.
+ *
+ * If P(z) is the characteristic polynomial of the transition matrix A of
+ * a generator, and  z^n mod P(z) = c_0 + c_1 z + ... + c_{k-1} z^{k-1},
+ * then A^n x = c_0 x + c_1 A x + ... + c_{k-1} A^{k-1} x, which is
+ * computed by running the generator k steps from state x and adding up
+ * the states for which c_i = 1.
+ */
+final class F2Poly {
+
+   private F2Poly() {}
+
+
+   // Returns the degree of p, or -1 if p = 0.
+   static int degree (int[] p) {
+      for (int j = p.length - 1; j >= 0; j--)
+         if (p[j] != 0)
+            return 32*j + 31 - Integer.numberOfLeadingZeros (p[j]);
+      return -1;
+   }
+
+
+   // dst ^= src * z^shift
+   private static void xorShifted (int[] dst, int[] src, int shift) {
+      int w = shift >>> 5;
+      int b = shift & 31;
+      if (b == 0) {
+         for (int j = 0; j < src.length && j + w < dst.length; j++)
+            dst[j + w] ^= src[j];
+      } else {
+         for (int j = 0; j < src.length && j + w < dst.length; j++) {
+            dst[j + w] ^= src[j] << b;
+            if (j + w + 1 < dst.length)
+               dst[j + w + 1] ^= src[j] >>> (32 - b);
+         }
+      }
+   }
+
+
+   /*
+    * Returns the minimal polynomial of the binary sequence s_0,...,s_{n-1},
+    * where s_i is bit (i & 31) of s[i >> 5], computed with the
+    * Berlekamp-Massey algorithm. When the sequence is a nonzero output bit
+    * of an F_2-linear generator with a primitive characteristic
+    * polynomial of degree k, and n >= 2k, this is the characteristic
+    * polynomial of the generator.
+    */
+   static int[] minimalPolynomial (int[] s, int n) {
+      int nw = (n >>> 5) + 2;
+      // r holds the sequence in reverse order, r_i = s_{n-1-i}
+      int[] r = new int[nw + 1];
+      for (int i = 0; i < n; i++)
+         if (((s[i >>> 5] >>> (i & 31)) & 1) != 0)
+            r[(n - 1 - i) >>> 5] |= 1 << ((n - 1 - i) & 31);
+
+      // connection polynomials, C(z) = 1 + C_1 z + ... + C_L z^L
+      int[] C = new int[nw];
+      int[] B = new int[nw];
+      int[] T = new int[nw];
+      C[0] = B[0] = 1;
+      int L = 0;
+      int m = 1;
+      for (int k = 0; k < n; k++) {
+         // d = sum_{i=0}^{L} C_i s_{k-i} = sum_i C_i r_{n-1-k+i}
+         int off = n - 1 - k;
+         int ow = off >>> 5;
+         int ob = off & 31;
+         int d = 0;
+         for (int j = 0; j <= (L >>> 5); j++) {
+            int x = r[ow + j] >>> ob;
+            if (ob != 0)
+               x |= r[ow + j + 1] << (32 - ob);
+            d ^= C[j] & x;
+         }
+         if ((Integer.bitCount (d) & 1) == 0)
+            m++;
+         else if (2*L <= k) {
+            System.arraycopy (C, 0, T, 0, nw);
+            xorShifted (C, B, m);
+            L = k + 1 - L;
+            int[] tmp = B;
+            B = T;
+            T = tmp;
+            m = 1;
+         } else {
+            xorShifted (C, B, m);
+            m++;
+         }
+      }
+
+      // the characteristic polynomial is the reciprocal z^L C(1/z)
+      int[] P = new int[(L >>> 5) + 1];
+      for (int i = 0; i <= L; i++)
+         if (((C[i >>> 5] >>> (i & 31)) & 1) != 0)
+            P[(L - i) >>> 5] |= 1 << ((L - i) & 31);
+      return P;
+   }
+
+
+   // spreads the 16 lower bits of x over the even bits of the result
+   private static int spread (int x) {
+      x &= 0xFFFF;
+      x = (x | (x << 8)) & 0x00FF00FF;
+      x = (x | (x << 4)) & 0x0F0F0F0F;
+      x = (x | (x << 2)) & 0x33333333;
+      x = (x | (x << 1)) & 0x55555555;
+      return x;
+   }
+
+
+   /*
+    * Returns z^e mod P(z), where P has degree k >= 1, in an array
+    * of (k + 31)/32 ints.
+    */
+   static int[] powerOfZ (BigInteger e, int[] P) {
+      if (e.signum() < 0)
+         throw new IllegalArgumentException ("The exponent must not be negative");
+      int k = degree (P);
+      int kw = (k + 31) >>> 5;
+      // Ps[b] = P(z) z^b
+      int[][] Ps = new int[32][kw + 1];
+      for (int b = 0; b < 32; b++)
+         xorShifted (Ps[b], P, b);
+
+      int[] res = new int[kw];
+      int[] t = new int[2*kw + 1];
+      res[0] = 1;
+      for (int i = e.bitLength() - 1; i >= 0; i--) {
+         // t = res^2
+         for (int j = 0; j < kw; j++) {
+            t[2*j] = spread (res[j]);
+            t[2*j + 1] = spread (res[j] >>> 16);
+         }
+         t[2*kw] = 0;
+         int deg = 2*k - 2;
+         if (e.testBit (i)) {
+            // t = t z
+            for (int j = 2*kw; j > 0; j--)
+               t[j] = (t[j] << 1) | (t[j - 1] >>> 31);
+            t[0] <<= 1;
+            deg++;
+         }
+         // reduce t modulo P
+         for (int d = deg; d >= k; d--) {
+            if (((t[d >>> 5] >>> (d & 31)) & 1) != 0) {
+               int sh = d - k;
+               int[] ps = Ps[sh & 31];
+               int w = sh >>> 5;
+               for (int j = 0; j <= kw && j + w < t.length; j++)
+                  t[j + w] ^= ps[j];
+            }
+         }
+         System.arraycopy (t, 0, res, 0, kw);
+      }
+      return res;
+   }
+}
@@ -198,7 +198,7 @@ public class GenF2w32 extends RandomStreamBase  {
 
 
 
-   static private void initialisation() {
+   static synchronized private void initialisation() {
       //initialise all of the state variables
 
       curr_stream = new int[]{0x95F24DAB, 0x0B685215, 0xE76CCAE7, 0xAF3EC239,
@@ -323,11 +323,13 @@ public class GenF2w32 extends RandomStreamBase  {
       substream = new int[R];
       state = new int[R];
 
-      for(int i = 0; i < R; i++)
-         stream[i] = curr_stream[i];
-      //stream.copyFrom(curr_stream);
+      synchronized (GenF2w32.class) {
+         for(int i = 0; i < R; i++)
+            stream[i] = curr_stream[i];
+         //stream.copyFrom(curr_stream);
 
-      advanceSeed(curr_stream, Apz);
+         advanceSeed(curr_stream, Apz);
+      }
       //      curr_stream = curr_stream.multiply(jumpZ);
 
       resetStartStream();
@@ -356,7 +358,7 @@ public class GenF2w32 extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (int seed[])  {
+   public static synchronized void setPackageSeed (int seed[])  {
       if (!initialised)
          initialisation();
       if (seed.length < R)
@@ -0,0 +1,91 @@
+
+
+/*
+ * Class:        JumpableRandomStream
+ * Description:  random streams that can jump ahead by any number of steps
+ * Environment:  Java
+ * Software:     SSJ 
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author       
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.rng;
+
+import java.math.BigInteger;
+
+
+/**
+ * {@link JumpableRandomStream} extends {@link RandomStream} with methods
+ * that advance the current state of a stream by an arbitrary number of
+ * steps <SPAN CLASS="MATH"><I>n</I></SPAN>, in a number of operations proportional to 
+ * <SPAN CLASS="MATH">log <I>n</I></SPAN> rather
+ * than <SPAN CLASS="MATH"><I>n</I></SPAN>. This is useful, for instance, to split a long simulation
+ * run made with a single stream into consecutive segments that are
+ * simulated in parallel: the stream of segment <SPAN CLASS="MATH"><I>i</I></SPAN> starts <SPAN CLASS="MATH"><I>i</I></SPAN> times the
+ * segment length after the current state.
+ * 
+ * <P>
+ * For the multiple recursive generators such as {@link MRG32k3a}, the jump
+ * is computed by raising the transition matrix to the power <SPAN CLASS="MATH"><I>n</I></SPAN> modulo <SPAN CLASS="MATH"><I>m</I></SPAN>.
+ * For the 
+ * <SPAN CLASS="MATH"><B>F</B><SUB>2</SUB></SPAN>-linear generators such as {@link LFSR113},
+ * the <TT>WELL</TT> generators and {@link MT19937}, the state after <SPAN CLASS="MATH"><I>n</I></SPAN> steps
+ * is obtained as 
+ * <SPAN CLASS="MATH"><I>c</I>(<I>A</I>)&nbsp;<I>x</I></SPAN>, where <SPAN CLASS="MATH"><I>x</I></SPAN> is the current state, <SPAN CLASS="MATH"><I>A</I></SPAN> is the
+ * transition matrix, and 
+ * <SPAN CLASS="MATH"><I>c</I>(<I>z</I>) = <I>z</I><SUP>n</SUP> mod <I>P</I>(<I>z</I>)</SPAN> with <SPAN CLASS="MATH"><I>P</I>(<I>z</I>)</SPAN> the characteristic
+ * polynomial of <SPAN CLASS="MATH"><I>A</I></SPAN>; this requires 
+ * <SPAN CLASS="MATH"><I>O</I>(<I>k</I><SUP>2</SUP>log <I>n</I>)</SPAN> bit operations to compute
+ * <SPAN CLASS="MATH"><I>c</I>(<I>z</I>)</SPAN> plus <SPAN CLASS="MATH"><I>k</I></SPAN> steps of the generator, where <SPAN CLASS="MATH"><I>k</I></SPAN> is the degree of <SPAN CLASS="MATH"><I>P</I>(<I>z</I>)</SPAN>.
+ * 
+ */
+public interface JumpableRandomStream extends RandomStream  { 
+
+
+   /**
+    * Advances the current state of this stream by <SPAN CLASS="MATH"><I>n</I></SPAN> steps of
+    *    its backbone generator, as if <TT>nextValue</TT> had been called <SPAN CLASS="MATH"><I>n</I></SPAN>
+    *    times. The starting points of the stream and of the current substream
+    *    are not changed, so <TT>resetStartSubstream</TT> still returns to the
+    *    beginning of the current substream.
+    *    When the stream is in increased precision mode, each call to
+    *    <TT>nextDouble</TT> uses two steps of the generator.
+    *  
+    * @param n the number of steps
+    * 
+    *    @exception IllegalArgumentException if <TT>n</TT> is negative.
+    * 
+    * 
+    */
+   public void jumpAhead (long n);
+
+
+   /**
+    * Same as {@link #jumpAhead(long) jumpAhead}, for a number of steps
+    *    <SPAN CLASS="MATH"><I>n</I></SPAN> that may exceed the range of <TT>long</TT>.
+    *  
+    * @param n the number of steps
+    * 
+    *    @exception IllegalArgumentException if <TT>n</TT> is negative.
+    * 
+    * 
+    */
+   public void jumpAhead (BigInteger n);
+ 
+}
+
@@ -27,6 +27,7 @@
 package umontreal.iro.lecuyer.rng; 
 
 import java.io.Serializable;
+import java.math.BigInteger;
 
 
 /**
@@ -44,7 +45,7 @@ import java.io.Serializable;
  * The <TT>nextValue</TT> method returns numbers with 32 bits of precision.
  * 
  */
-public class LFSR113 extends RandomStreamBase  {
+public class LFSR113 extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    // La date de modification a l'envers, lire 10/05/2007
@@ -76,54 +77,51 @@ public class LFSR113 extends RandomStreamBase  {
       stream = new int[4];
       substream = new int[4];
 
-      for(int i = 0; i < 4; i++)
-         stream[i] = curr_stream[i];
-
+      synchronized (LFSR113.class) {
+         for(int i = 0; i < 4; i++)
+            stream[i] = curr_stream[i];
+
+         // Les operations qui suivent permettent de faire sauter en avant
+         // de 2^90 iterations chacunes des composantes du generateur.
+         // L'etat interne apres le saut est cependant legerement different
+         // de celui apres 2^90 iterations puisqu'il ignore l'etat dans
+         // lequel se retrouvent les premiers bits de chaque composantes,
+         // puisqu'ils sont ignores dans la recurrence. L'etat redevient
+         // identique a ce que l'on aurait avec des iterations normales
+         // apres un appel a nextValue().
+
+         int z, b;
+
+         z = curr_stream[0] & -2;
+         b = (z <<  6) ^ z;
+         z = (z) ^ (z << 2) ^ (z << 3) ^ (z << 10) ^ (z << 13) ^
+            (z << 16) ^ (z << 19) ^ (z << 22) ^ (z << 25) ^
+            (z << 27) ^ (z << 28) ^
+            (b >>> 3) ^ (b >>> 4) ^ (b >>> 6) ^ (b >>> 9) ^ (b >>> 12) ^
+            (b >>> 15) ^ (b >>> 18) ^ (b >>> 21);
+         curr_stream[0] = z;
+
+         z = curr_stream[1] & -8;
+         b = (z <<  2) ^ z;
+         z = (b >>> 13) ^ (z << 16);
+         curr_stream[1] = z;
+
+         z = curr_stream[2] & -16;
+         b = (z <<  13) ^ z;
+         z = (z << 2) ^ (z << 4) ^ (z << 10) ^ (z << 12) ^ (z << 13) ^
+            (z << 17) ^ (z << 25) ^
+            (b >>> 3) ^ (b >>> 11) ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 24);
+         curr_stream[2] = z;
+
+         z = curr_stream[3] & -128;
+         b = (z <<  3) ^ z;
+         z = (z << 9) ^ (z << 10) ^ (z << 11) ^ (z << 14) ^ (z << 16) ^
+            (z << 18) ^ (z << 23) ^ (z << 24) ^
+            (b >>> 1) ^ (b >>> 2) ^ (b >>> 7) ^ (b >>> 9) ^ (b >>> 11) ^
+            (b >>> 14) ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 23) ^ (b >>> 24);
+         curr_stream[3] = z;
+      }
       resetStartStream();
-
-
-      // Les operations qui suivent permettent de faire sauter en avant
-      // de 2^90 iterations chacunes des composantes du generateur.
-      // L'etat interne apres le saut est cependant legerement different
-      // de celui apres 2^90 iterations puisqu'il ignore l'etat dans
-      // lequel se retrouvent les premiers bits de chaque composantes,
-      // puisqu'ils sont ignores dans la recurrence. L'etat redevient
-      // identique a ce que l'on aurait avec des iterations normales
-      // apres un appel a nextValue().
-
-      int z, b;
-
-      z = curr_stream[0] & -2;
-      b = (z <<  6) ^ z;
-      z = (z) ^ (z << 2) ^ (z << 3) ^ (z << 10) ^ (z << 13) ^
-         (z << 16) ^ (z << 19) ^ (z << 22) ^ (z << 25) ^
-         (z << 27) ^ (z << 28) ^
-         (b >>> 3) ^ (b >>> 4) ^ (b >>> 6) ^ (b >>> 9) ^ (b >>> 12) ^
-         (b >>> 15) ^ (b >>> 18) ^ (b >>> 21);
-      curr_stream[0] = z;
-
-
-      z = curr_stream[1] & -8;
-      b = (z <<  2) ^ z;
-      z = (b >>> 13) ^ (z << 16);
-      curr_stream[1] = z;
-
-
-      z = curr_stream[2] & -16;
-      b = (z <<  13) ^ z;
-      z = (z << 2) ^ (z << 4) ^ (z << 10) ^ (z << 12) ^ (z << 13) ^
-         (z << 17) ^ (z << 25) ^
-         (b >>> 3) ^ (b >>> 11) ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 24);
-      curr_stream[2] = z;
-
-
-      z = curr_stream[3] & -128;
-      b = (z <<  3) ^ z;
-      z = (z << 9) ^ (z << 10) ^ (z << 11) ^ (z << 14) ^ (z << 16) ^
-         (z << 18) ^ (z << 23) ^ (z << 24) ^
-         (b >>> 1) ^ (b >>> 2) ^ (b >>> 7) ^ (b >>> 9) ^ (b >>> 11) ^
-         (b >>> 14) ^ (b >>> 15) ^ (b >>> 16) ^ (b >>> 23) ^ (b >>> 24);
-      curr_stream[3] = z;
    }
 
 
@@ -152,7 +150,7 @@ public class LFSR113 extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (int[] seed)  {
+   public static synchronized void setPackageSeed (int[] seed)  {
       checkSeed (seed);
       for(int i = 0; i < 4; i++)
          curr_stream[i] = seed[i];
@@ -335,6 +333,58 @@ public class LFSR113 extends RandomStreamBase  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      if (n.signum() == 0)
+         return;
+      // The low-order bits of each component are not used by the
+      // recurrence, and the jump is exact only for a state produced by
+      // the recurrence, so z^(n-1) is applied after one step.
+      nextNumber();
+      int[] c = F2Poly.powerOfZ (n.subtract (BigInteger.ONE), getCharPoly());
+      int x0 = 0, x1 = 0, x2 = 0, x3 = 0;
+      for (int i = 0; i < 32*c.length; i++) {
+         if (((c[i >>> 5] >>> (i & 31)) & 1) != 0) {
+            x0 ^= z0;
+            x1 ^= z1;
+            x2 ^= z2;
+            x3 ^= z3;
+         }
+         nextNumber();
+      }
+      z0 = x0;
+      z1 = x1;
+      z2 = x2;
+      z3 = x3;
+   }
+
+   // characteristic polynomial of the generator, computed at the first jump
+   private static int[] charPoly;
+
+   private int[] getCharPoly() {
+      synchronized (LFSR113.class) {
+         if (charPoly == null) {
+            // minimal polynomial of the most significant output bit
+            LFSR113 g = clone();
+            int[] s = new int[8];
+            g.nextNumber();
+            for (int i = 0; i < 2*113; i++) {
+               g.nextNumber();
+               if ((g.z0 ^ g.z1 ^ g.z2 ^ g.z3) < 0)
+                  s[i >>> 5] |= 1 << (i & 31);
+            }
+            charPoly = F2Poly.minimalPolynomial (s, 2*113);
+         }
+         return charPoly;
+      }
+   }
+
 
    public String toString()  {
       if (name == null)
@@ -369,6 +419,55 @@ public class LFSR113 extends RandomStreamBase  {
       return nextNumber() * NORM;
    }
 
+   protected void nextValues (double[] u, int start, int n) {
+      int b;
+      long r;
+      int s0 = z0, s1 = z1, s2 = z2, s3 = z3;
+      for (int ii = start; ii < start + n; ii++) {
+         b  = (((s0 <<   6) ^ s0) >>> 13);
+         s0 = (((s0 &   -2) << 18) ^ b);
+         b  = (((s1 <<   2) ^ s1) >>> 27);
+         s1 = (((s1 &   -8) <<  2) ^ b);
+         b  = (((s2 <<  13) ^ s2) >>> 21);
+         s2 = (((s2 &  -16) <<  7) ^ b);
+         b  = (((s3 <<   3) ^ s3) >>> 12);
+         s3 = (((s3 & -128) << 13) ^ b);
+         r = (s0 ^ s1 ^ s2 ^ s3);
+         if (r <= 0)
+            r += 0x100000000L;
+         u[ii] = r * NORM;
+      }
+      z0 = s0;  z1 = s1;  z2 = s2;  z3 = s3;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      long d = j-i+1L;
+      long q = 0x100000000L / d;
+      long lim = 0x100000000L - 0x100000000L % d;
+      int b;
+      long r;
+      int s0 = z0, s1 = z1, s2 = z2, s3 = z3;
+      for (int ii = start; ii < start + n; ii++) {
+         do {
+            b  = (((s0 <<   6) ^ s0) >>> 13);
+            s0 = (((s0 &   -2) << 18) ^ b);
+            b  = (((s1 <<   2) ^ s1) >>> 27);
+            s1 = (((s1 &   -8) <<  2) ^ b);
+            b  = (((s2 <<  13) ^ s2) >>> 21);
+            s2 = (((s2 &  -16) <<  7) ^ b);
+            b  = (((s3 <<   3) ^ s3) >>> 12);
+            s3 = (((s3 & -128) << 13) ^ b);
+            r = (s0 ^ s1 ^ s2 ^ s3);
+            if (r <= 0)
+               r += 0x100000000L;
+         } while (r >= lim);
+         u[ii] = (int) (r / q) + i;
+      }
+      z0 = s0;  z1 = s1;  z2 = s2;  z3 = s3;
+   }
+
    public int nextInt (int i, int j) {
       if (i > j)
          throw new IllegalArgumentException(i + " is larger than " + j + ".");
@@ -27,6 +27,7 @@
 package umontreal.iro.lecuyer.rng;  
 
 import java.io.Serializable;
+import java.math.BigInteger;
 /*
 import umontreal.iro.lecuyer.util.BitVector;
 import umontreal.iro.lecuyer.util.BitMatrix;
@@ -49,7 +50,7 @@ import umontreal.iro.lecuyer.util.BitMatrix;
  * This generator is fast for 64-bit machines.
  * 
  */
-public class LFSR258 extends RandomStreamBase  {
+public class LFSR258 extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -82,85 +83,79 @@ public class LFSR258 extends RandomStreamBase  {
         stream = new long[5];
         substream = new long[5];
 
-        for(int i = 0; i < 5; i++)
-            stream[i] = curr_stream[i];
-
+        synchronized (LFSR258.class) {
+            for(int i = 0; i < 5; i++)
+                stream[i] = curr_stream[i];
+
+            // Les operations qui suivent permettent de faire sauter en avant
+            // de 2^200 iterations chacunes des composantes du generateur.
+            // L'etat interne apres le saut est cependant legerement different
+            // de celui apres 2^200 iterations puisqu'il ignore l'etat dans
+            // lequel se retrouvent les premiers bits de chaque composantes,
+            // puisqu'ils sont ignores dans la recurrence. L'etat redevient
+            // identique a ce que l'on aurait avec des iterations normales
+            // apres un appel a nextValue().
+
+            long z, b;
+
+            z = curr_stream[0] & 0xfffffffffffffffeL;
+            b = z ^ (z << 1);
+            z = (b >>> 61) ^ (b >>> 59) ^ (b >>> 58) ^ (b >>> 57) ^ (b >>> 51) ^
+                (b >>> 47) ^ (b >>> 46) ^ (b >>> 45) ^ (b >>> 43) ^ (b >>> 39) ^
+                (b >>> 30) ^ (b >>> 29) ^ (b >>> 23) ^ (b >>> 15) ^ (z << 2) ^
+                (z << 4) ^ (z << 5) ^ (z << 6) ^ (z << 12) ^ (z << 16) ^
+                (z << 17) ^ (z << 18) ^ (z << 20) ^ (z << 24) ^ (z << 33) ^
+                (z << 34) ^ (z << 40) ^ (z << 48);
+            curr_stream[0] = z;
+
+            z = curr_stream[1] & 0xfffffffffffffe00L;
+            b = z ^ (z << 24);
+            z = (b >>> 52) ^ (b >>> 50) ^ (b >>> 49) ^ (b >>> 46) ^ (b >>> 43) ^
+                (b >>> 40) ^ (b >>> 37) ^ (b >>> 34) ^ (b >>> 30) ^ (b >>> 28) ^
+                (b >>> 26) ^ (b >>> 25) ^ (b >>> 23) ^ (b >>> 21) ^ (b >>> 20) ^
+                (b >>> 19) ^ (b >>> 17) ^ (b >>> 15) ^ (b >>> 13) ^ (b >>> 12) ^
+                (b >>> 10) ^ (b >>> 8) ^ (b >>> 7) ^ (b >>> 6) ^ (b >>> 2) ^
+                (z << 1) ^ (z << 4) ^ (z << 6) ^ (z << 7) ^ (z << 11) ^ (z << 14) ^
+                (z << 15) ^ (z << 16) ^ (z << 17) ^ (z << 21) ^ (z << 22) ^
+                (z << 25) ^ (z << 27) ^ (z << 29) ^ (z << 30) ^ (z << 32) ^
+                (z << 34) ^ (z << 35) ^ (z << 36) ^ (z << 38) ^ (z << 40) ^
+                (z << 42) ^ (z << 43) ^ (z << 45) ^ (z << 47) ^ (z << 48) ^
+                (z << 49) ^ (z << 53);
+            curr_stream[1] = z;
+
+            z = curr_stream[2] & 0xfffffffffffff000L;
+            b = z ^ (z << 3);
+            z = (b >>> 49) ^ (b >>> 45) ^ (b >>> 41) ^ (b >>> 40) ^ (b >>> 32) ^
+                (b >>> 27) ^ (b >>> 23) ^ (b >>> 14) ^ (b >>> 1) ^ (z << 2) ^
+                (z << 3) ^ (z << 7) ^ (z << 11) ^ (z << 12) ^ (z << 20) ^
+                (z << 25) ^ (z << 29) ^ (z << 38) ^ (z << 51);
+            curr_stream[2] = z;
+
+            z = curr_stream[3] & 0xfffffffffffe0000L;
+            b = z ^ (z << 5);
+            z = (b >>> 45) ^ (b >>> 32) ^ (b >>> 27) ^ (b >>> 22) ^ (b >>> 17) ^
+                (b >>> 13) ^ (b >>> 12) ^ (b >>> 7) ^ (b >>> 3) ^ (b >>> 2) ^
+                (z << 3) ^ (z << 15) ^ (z << 20) ^ (z << 25) ^ (z << 30) ^
+                (z << 34) ^ (z << 35) ^ (z << 40) ^ (z << 44) ^ (z << 45);
+            curr_stream[3] = z;
+
+            z = curr_stream[4] & 0xffffffffff800000L;
+            b = z ^ (z << 3);
+            z = (b >>> 40) ^ (b >>> 39) ^ (b >>> 38) ^ (b >>> 37) ^ (b >>> 35) ^
+                (b >>> 34) ^ (b >>> 31) ^ (b >>> 30) ^ (b >>> 29) ^ (b >>> 28) ^
+                (b >>> 27) ^ (b >>> 26) ^ (b >>> 24) ^ (b >>> 23) ^ (b >>> 21) ^
+                (b >>> 20) ^ (b >>> 18) ^ (b >>> 15) ^ (b >>> 12) ^ (b >>> 10) ^
+                (b >>> 9) ^ (b >>> 7) ^ (b >>> 6) ^ (b >>> 5) ^ (b >>> 4) ^
+                (b >>> 3) ^ (z << 1) ^ (z << 2) ^ (z << 3) ^ (z << 4) ^ (z << 6) ^
+                (z << 7) ^ (z << 10) ^ (z << 11) ^ (z << 12) ^ (z << 13) ^
+                (z << 14) ^ (z << 15) ^ (z << 17) ^ (z << 18) ^ (z << 20) ^
+                (z << 21) ^ (z << 23) ^ (z << 26) ^ (z << 29) ^ (z << 31) ^
+                (z << 32) ^ (z << 34) ^ (z << 35) ^ (z << 36) ^ (z << 37) ^
+                (z << 38);
+            curr_stream[4] = z;
+        }
         resetStartStream();
 
-
-
-        // Les operations qui suivent permettent de faire sauter en avant
-        // de 2^200 iterations chacunes des composantes du generateur.
-        // L'etat interne apres le saut est cependant legerement different
-        // de celui apres 2^200 iterations puisqu'il ignore l'etat dans
-        // lequel se retrouvent les premiers bits de chaque composantes,
-        // puisqu'ils sont ignores dans la recurrence. L'etat redevient
-        // identique a ce que l'on aurait avec des iterations normales
-        // apres un appel a nextValue().
-
-        long z, b;
-
-        z = curr_stream[0] & 0xfffffffffffffffeL;
-        b = z ^ (z << 1);
-        z = (b >>> 61) ^ (b >>> 59) ^ (b >>> 58) ^ (b >>> 57) ^ (b >>> 51) ^
-            (b >>> 47) ^ (b >>> 46) ^ (b >>> 45) ^ (b >>> 43) ^ (b >>> 39) ^
-            (b >>> 30) ^ (b >>> 29) ^ (b >>> 23) ^ (b >>> 15) ^ (z << 2) ^
-            (z << 4) ^ (z << 5) ^ (z << 6) ^ (z << 12) ^ (z << 16) ^
-            (z << 17) ^ (z << 18) ^ (z << 20) ^ (z << 24) ^ (z << 33) ^
-            (z << 34) ^ (z << 40) ^ (z << 48);
-        curr_stream[0] = z;
-
-
-        z = curr_stream[1] & 0xfffffffffffffe00L;
-        b = z ^ (z << 24);
-        z = (b >>> 52) ^ (b >>> 50) ^ (b >>> 49) ^ (b >>> 46) ^ (b >>> 43) ^
-            (b >>> 40) ^ (b >>> 37) ^ (b >>> 34) ^ (b >>> 30) ^ (b >>> 28) ^
-            (b >>> 26) ^ (b >>> 25) ^ (b >>> 23) ^ (b >>> 21) ^ (b >>> 20) ^
-            (b >>> 19) ^ (b >>> 17) ^ (b >>> 15) ^ (b >>> 13) ^ (b >>> 12) ^
-            (b >>> 10) ^ (b >>> 8) ^ (b >>> 7) ^ (b >>> 6) ^ (b >>> 2) ^
-            (z << 1) ^ (z << 4) ^ (z << 6) ^ (z << 7) ^ (z << 11) ^ (z << 14) ^
-            (z << 15) ^ (z << 16) ^ (z << 17) ^ (z << 21) ^ (z << 22) ^
-            (z << 25) ^ (z << 27) ^ (z << 29) ^ (z << 30) ^ (z << 32) ^
-            (z << 34) ^ (z << 35) ^ (z << 36) ^ (z << 38) ^ (z << 40) ^
-            (z << 42) ^ (z << 43) ^ (z << 45) ^ (z << 47) ^ (z << 48) ^
-            (z << 49) ^ (z << 53);
-        curr_stream[1] = z;
-
-
-        z = curr_stream[2] & 0xfffffffffffff000L;
-        b = z ^ (z << 3);
-        z = (b >>> 49) ^ (b >>> 45) ^ (b >>> 41) ^ (b >>> 40) ^ (b >>> 32) ^
-            (b >>> 27) ^ (b >>> 23) ^ (b >>> 14) ^ (b >>> 1) ^ (z << 2) ^
-            (z << 3) ^ (z << 7) ^ (z << 11) ^ (z << 12) ^ (z << 20) ^
-            (z << 25) ^ (z << 29) ^ (z << 38) ^ (z << 51);
-        curr_stream[2] = z;
-
-
-
-        z = curr_stream[3] & 0xfffffffffffe0000L;
-        b = z ^ (z << 5);
-        z = (b >>> 45) ^ (b >>> 32) ^ (b >>> 27) ^ (b >>> 22) ^ (b >>> 17) ^
-            (b >>> 13) ^ (b >>> 12) ^ (b >>> 7) ^ (b >>> 3) ^ (b >>> 2) ^
-            (z << 3) ^ (z << 15) ^ (z << 20) ^ (z << 25) ^ (z << 30) ^
-            (z << 34) ^ (z << 35) ^ (z << 40) ^ (z << 44) ^ (z << 45);
-        curr_stream[3] = z;
-
-
-        z = curr_stream[4] & 0xffffffffff800000L;
-        b = z ^ (z << 3);
-        z = (b >>> 40) ^ (b >>> 39) ^ (b >>> 38) ^ (b >>> 37) ^ (b >>> 35) ^
-            (b >>> 34) ^ (b >>> 31) ^ (b >>> 30) ^ (b >>> 29) ^ (b >>> 28) ^
-            (b >>> 27) ^ (b >>> 26) ^ (b >>> 24) ^ (b >>> 23) ^ (b >>> 21) ^
-            (b >>> 20) ^ (b >>> 18) ^ (b >>> 15) ^ (b >>> 12) ^ (b >>> 10) ^
-            (b >>> 9) ^ (b >>> 7) ^ (b >>> 6) ^ (b >>> 5) ^ (b >>> 4) ^
-            (b >>> 3) ^ (z << 1) ^ (z << 2) ^ (z << 3) ^ (z << 4) ^ (z << 6) ^
-            (z << 7) ^ (z << 10) ^ (z << 11) ^ (z << 12) ^ (z << 13) ^
-            (z << 14) ^ (z << 15) ^ (z << 17) ^ (z << 18) ^ (z << 20) ^
-            (z << 21) ^ (z << 23) ^ (z << 26) ^ (z << 29) ^ (z << 31) ^
-            (z << 32) ^ (z << 34) ^ (z << 35) ^ (z << 36) ^ (z << 37) ^
-            (z << 38);
-        curr_stream[4] = z;
-
     }
 
 
@@ -189,7 +184,7 @@ public class LFSR258 extends RandomStreamBase  {
     * 
     * 
     */
-    public static void setPackageSeed (long seed[])  {
+    public static synchronized void setPackageSeed (long seed[])  {
        checkSeed (seed);
        for(int i = 0; i < 5; i++)
           curr_stream[i] = seed[i];
@@ -353,6 +348,60 @@ public class LFSR258 extends RandomStreamBase  {
         resetStartSubstream();
     }
 
+    public void jumpAhead (long n) {
+        jumpAhead (BigInteger.valueOf (n));
+    }
+
+    public void jumpAhead (BigInteger n) {
+        if (n.signum() < 0)
+            throw new IllegalArgumentException
+                ("The number of steps must not be negative");
+        if (n.signum() == 0)
+            return;
+        // The low-order bits of each component are not used by the
+        // recurrence, and the jump is exact only for a state produced by
+        // the recurrence, so z^(n-1) is applied after one step.
+        nextNumber();
+        int[] c = F2Poly.powerOfZ (n.subtract (BigInteger.ONE), getCharPoly());
+        long x0 = 0, x1 = 0, x2 = 0, x3 = 0, x4 = 0;
+        for (int i = 0; i < 32*c.length; i++) {
+            if (((c[i >>> 5] >>> (i & 31)) & 1) != 0) {
+                x0 ^= z0;
+                x1 ^= z1;
+                x2 ^= z2;
+                x3 ^= z3;
+                x4 ^= z4;
+            }
+            nextNumber();
+        }
+        z0 = x0;
+        z1 = x1;
+        z2 = x2;
+        z3 = x3;
+        z4 = x4;
+    }
+
+    // characteristic polynomial of the generator, computed at the first jump
+    private static int[] charPoly;
+
+    private int[] getCharPoly() {
+        synchronized (LFSR258.class) {
+            if (charPoly == null) {
+                // minimal polynomial of the most significant output bit
+                LFSR258 g = clone();
+                int[] s = new int[17];
+                g.nextNumber();
+                for (int i = 0; i < 2*258; i++) {
+                    g.nextNumber();
+                    if ((g.z0 ^ g.z1 ^ g.z2 ^ g.z3 ^ g.z4) < 0)
+                        s[i >>> 5] |= 1 << (i & 31);
+                }
+                charPoly = F2Poly.minimalPolynomial (s, 2*258);
+            }
+            return charPoly;
+        }
+    }
+
 
     public String toString() {
         if (name == null)
@@ -390,6 +439,54 @@ public class LFSR258 extends RandomStreamBase  {
             return res * NORM;
     }
 
+    protected void nextValues (double[] u, int start, int n) {
+       long b, res;
+       long s0 = z0, s1 = z1, s2 = z2, s3 = z3, s4 = z4;
+       for (int ii = start; ii < start + n; ii++) {
+          b  = (((s0 <<  1) ^ s0) >>> 53);
+          s0 = (((s0 & 0xFFFFFFFFFFFFFFFEL) << 10) ^ b);
+          b  = (((s1 << 24) ^ s1) >>> 50);
+          s1 = (((s1 & 0xFFFFFFFFFFFFFE00L) <<  5) ^ b);
+          b  = (((s2 <<  3) ^ s2) >>> 23);
+          s2 = (((s2 & 0xFFFFFFFFFFFFF000L) << 29) ^ b);
+          b  = (((s3 <<  5) ^ s3) >>> 24);
+          s3 = (((s3 & 0xFFFFFFFFFFFE0000L) << 23) ^ b);
+          b  = (((s4 <<  3) ^ s4) >>> 33);
+          s4 = (((s4 & 0xFFFFFFFFFF800000L) <<  8) ^ b);
+          res = (s0 ^ s1 ^ s2 ^ s3 ^ s4);
+          u[ii] = (res <= 0) ? (res * NORM + MAX) : res * NORM;
+       }
+       z0 = s0;  z1 = s1;  z2 = s2;  z3 = s3;  z4 = s4;
+    }
+
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (i > j)
+          throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      long d = j-i+1;
+      long q = 0x4000000000000000L / d;
+      long lim = 0x4000000000000000L - 0x4000000000000000L % d;
+      long b, res;
+      long s0 = z0, s1 = z1, s2 = z2, s3 = z3, s4 = z4;
+      for (int ii = start; ii < start + n; ii++) {
+         do {
+            b  = (((s0 <<  1) ^ s0) >>> 53);
+            s0 = (((s0 & 0xFFFFFFFFFFFFFFFEL) << 10) ^ b);
+            b  = (((s1 << 24) ^ s1) >>> 50);
+            s1 = (((s1 & 0xFFFFFFFFFFFFFE00L) <<  5) ^ b);
+            b  = (((s2 <<  3) ^ s2) >>> 23);
+            s2 = (((s2 & 0xFFFFFFFFFFFFF000L) << 29) ^ b);
+            b  = (((s3 <<  5) ^ s3) >>> 24);
+            s3 = (((s3 & 0xFFFFFFFFFFFE0000L) << 23) ^ b);
+            b  = (((s4 <<  3) ^ s4) >>> 33);
+            s4 = (((s4 & 0xFFFFFFFFFF800000L) <<  8) ^ b);
+            res = (s0 ^ s1 ^ s2 ^ s3 ^ s4) >>> 2;
+         } while (res >= lim);
+         u[ii] = i + (int) (res / q);
+      }
+      z0 = s0;  z1 = s1;  z2 = s2;  z3 = s3;  z4 = s4;
+   }
+
 
    public int nextInt (int i, int j) {
       if (i > j)
@@ -31,6 +31,7 @@ import umontreal.iro.lecuyer.rng.RandomStream;
 import umontreal.iro.lecuyer.rng.RandomStreamBase;
 import umontreal.iro.lecuyer.util.ArithmeticMod;
 import java.io.Serializable;
+import java.math.BigInteger;
 
 
 /**
@@ -59,7 +60,7 @@ import java.io.Serializable;
  * and has been more extensively tested.
  * 
  */
-public class MRG31k3p extends RandomStreamBase  {
+public class MRG31k3p extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -152,12 +153,13 @@ public class MRG31k3p extends RandomStreamBase  {
 
       stream = new int[6];
       substream = new int[6];
-      for(int i = 0; i < 6; i++)
-         stream[i] = curr_stream[i];
+      synchronized (MRG31k3p.class) {
+         for(int i = 0; i < 6; i++)
+            stream[i] = curr_stream[i];
 
+         multMatVect(curr_stream, A1p134, M1, A2p134, M2);
+      }
       resetStartStream();
-
-      multMatVect(curr_stream, A1p134, M1, A2p134, M2);
    }
 
 
@@ -189,7 +191,7 @@ public class MRG31k3p extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (int seed[])  {
+   public static synchronized void setPackageSeed (int seed[])  {
       if (seed.length < 6)
          throw new IllegalArgumentException ("Seed must contain 6 values");
       if (seed[0] == 0 && seed[1] == 0 && seed[2] == 0)
@@ -260,6 +262,28 @@ public class MRG31k3p extends RandomStreamBase  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      int[][] A1 = new int[3][3];
+      int[][] A2 = new int[3][3];
+      ArithmeticMod.matPowModM (A1p0, A1, M1, n);
+      ArithmeticMod.matPowModM (A2p0, A2, M2, n);
+      int[] v = {x11, x12, x13, x21, x22, x23};
+      multMatVect(v, A1, M1, A2, M2);
+      x11 = v[0];
+      x12 = v[1];
+      x13 = v[2];
+      x21 = v[3];
+      x22 = v[4];
+      x23 = v[5];
+   }
+
 
    /**
     * Returns the current state <SPAN CLASS="MATH"><I>C</I><SUB>g</SUB></SPAN> of this stream.
@@ -346,4 +370,88 @@ public class MRG31k3p extends RandomStreamBase  {
          return (x11 - x21) * NORM;
    }
 
+   protected void nextValues (double[] u, int start, int n) {
+      int y1, y2;
+      int s11 = x11, s12 = x12, s13 = x13, s21 = x21, s22 = x22, s23 = x23;
+      for (int ii = start; ii < start + n; ii++) {
+         //first component
+         y1 = ((s12 & MASK12) << 22) + (s12 >>> 9)
+              + ((s13 & MASK13) << 7) + (s13 >>> 24);
+         if(y1 < 0 || y1 >= M1)
+            y1 -= M1;
+         y1 += s13;
+         if(y1 < 0 || y1 >= M1)
+            y1 -= M1;
+         s13 = s12;
+         s12 = s11;
+         s11 = y1;
+
+         //second component
+         y1 = ((s21 & MASK2) << 15) + (MULT2 * (s21 >>> 16));
+         if(y1 < 0 || y1 >= M2)
+            y1 -= M2;
+         y2 = ((s23 & MASK2) << 15) + (MULT2 * (s23 >>> 16));
+         if(y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         y2 += s23;
+         if(y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         y2 += y1;
+         if(y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         s23 = s22;
+         s22 = s21;
+         s21 = y2;
+
+         u[ii] = (s11 <= s21) ? (s11 - s21 + M1) * NORM : (s11 - s21) * NORM;
+      }
+      x11 = s11;  x12 = s12;  x13 = s13;
+      x21 = s21;  x22 = s22;  x23 = s23;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      int y1, y2;
+      int s11 = x11, s12 = x12, s13 = x13, s21 = x21, s22 = x22, s23 = x23;
+      for (int ii = start; ii < start + n; ii++) {
+         y1 = ((s12 & MASK12) << 22) + (s12 >>> 9)
+              + ((s13 & MASK13) << 7) + (s13 >>> 24);
+         if(y1 < 0 || y1 >= M1)
+            y1 -= M1;
+         y1 += s13;
+         if(y1 < 0 || y1 >= M1)
+            y1 -= M1;
+         s13 = s12;
+         s12 = s11;
+         s11 = y1;
+
+         y1 = ((s21 & MASK2) << 15) + (MULT2 * (s21 >>> 16));
+         if(y1 < 0 || y1 >= M2)
+            y1 -= M2;
+         y2 = ((s23 & MASK2) << 15) + (MULT2 * (s23 >>> 16));
+         if(y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         y2 += s23;
+         if(y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         y2 += y1;
+         if(y2 < 0 || y2 >= M2)
+            y2 -= M2;
+         s23 = s22;
+         s22 = s21;
+         s21 = y2;
+
+         u[ii] = i + (int)(((s11 <= s21) ? (s11 - s21 + M1) * NORM
+                                         : (s11 - s21) * NORM) * d);
+      }
+      x11 = s11;  x12 = s12;  x13 = s13;
+      x21 = s21;  x22 = s22;  x23 = s23;
+   }
+
 }
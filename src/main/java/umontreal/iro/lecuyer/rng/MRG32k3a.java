@@ -29,6 +29,7 @@ package umontreal.iro.lecuyer.rng;
 import umontreal.iro.lecuyer.util.ArithmeticMod;
 import umontreal.iro.lecuyer.util.PrintfFormat;
 import java.io.Serializable;
+import java.math.BigInteger;
 
 
 /**
@@ -48,7 +49,7 @@ import java.io.Serializable;
  * <SPAN CLASS="MATH">(12345, 12345, 12345, 12345, 12345, 12345)</SPAN>.
  * 
  */
-public class MRG32k3a extends RandomStreamBase  {
+public class MRG32k3a extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -160,10 +161,12 @@ public class MRG32k3a extends RandomStreamBase  {
       name = null;
       anti = false;
       prec53 = false;
-      for(int i = 0; i < 6; i++)
-         Ig[i] = nextSeed[i];
+      synchronized (MRG32k3a.class) {
+         for(int i = 0; i < 6; i++)
+            Ig[i] = nextSeed[i];
+         multMatVect(nextSeed, A1p127, m1, A2p127, m2);
+      }
       resetStartStream();
-      multMatVect(nextSeed, A1p127, m1, A2p127, m2);
    } 
 
 
@@ -198,7 +201,7 @@ public class MRG32k3a extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (long seed[])  {
+   public static synchronized void setPackageSeed (long seed[])  {
       // Must use long because there is no unsigned int type.
       if (seed.length < 6)
          throw new IllegalArgumentException ("Seed must contain 6 values");
@@ -282,6 +285,28 @@ public class MRG32k3a extends RandomStreamBase  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      double A1[][] = new double[3][3];
+      double A2[][] = new double[3][3];
+      ArithmeticMod.matPowModM (A1p0, A1, m1, n);
+      ArithmeticMod.matPowModM (A2p0, A2, m2, n);
+      double[] v = {Cg0, Cg1, Cg2, Cg3, Cg4, Cg5};
+      multMatVect(v, A1, m1, A2, m2);
+      Cg0 = v[0];
+      Cg1 = v[1];
+      Cg2 = v[2];
+      Cg3 = v[3];
+      Cg4 = v[4];
+      Cg5 = v[5];
+   }
+
 
    /**
     * Returns the current state <SPAN CLASS="MATH"><I>C</I><SUB>g</SUB></SPAN> of this stream.
@@ -408,5 +433,70 @@ public class MRG32k3a extends RandomStreamBase  {
       return ((p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm);
    }
 
+   protected void nextValues (double[] u, int start, int n) {
+      int k;
+      double p1, p2;
+      double c0 = Cg0, c1 = Cg1, c2 = Cg2, c3 = Cg3, c4 = Cg4, c5 = Cg5;
+      for (int ii = start; ii < start + n; ii++) {
+         /* Component 1 */
+         p1 = a12 * c1 - a13n * c0;
+         k = (int)(p1 / m1);
+         p1 -= k * m1;
+         if (p1 < 0.0)
+            p1 += m1;
+         c0 = c1;
+         c1 = c2;
+         c2 = p1;
+         /* Component 2 */
+         p2 = a21 * c5 - a23n * c3;
+         k  = (int)(p2 / m2);
+         p2 -= k * m2;
+         if (p2 < 0.0)
+            p2 += m2;
+         c3 = c4;
+         c4 = c5;
+         c5 = p2;
+         /* Combination */
+         u[ii] = ((p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm);
+      }
+      Cg0 = c0;  Cg1 = c1;  Cg2 = c2;
+      Cg3 = c3;  Cg4 = c4;  Cg5 = c5;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      int k;
+      double p1, p2;
+      double c0 = Cg0, c1 = Cg1, c2 = Cg2, c3 = Cg3, c4 = Cg4, c5 = Cg5;
+      for (int ii = start; ii < start + n; ii++) {
+         p1 = a12 * c1 - a13n * c0;
+         k = (int)(p1 / m1);
+         p1 -= k * m1;
+         if (p1 < 0.0)
+            p1 += m1;
+         c0 = c1;
+         c1 = c2;
+         c2 = p1;
+         p2 = a21 * c5 - a23n * c3;
+         k  = (int)(p2 / m2);
+         p2 -= k * m2;
+         if (p2 < 0.0)
+            p2 += m2;
+         c3 = c4;
+         c4 = c5;
+         c5 = p2;
+         u[ii] = i + (int)(((p1 > p2) ? (p1 - p2) * norm
+                                      : (p1 - p2 + m1) * norm) * d);
+      }
+      Cg0 = c0;  Cg1 = c1;  Cg2 = c2;
+      Cg3 = c3;  Cg4 = c4;  Cg5 = c5;
+   }
+
 }
 
@@ -29,6 +29,7 @@ package umontreal.iro.lecuyer.rng;
 import umontreal.iro.lecuyer.util.ArithmeticMod;
 import umontreal.iro.lecuyer.util.PrintfFormat;
 import java.io.Serializable;
+import java.math.BigInteger;
 
 
 /**
@@ -36,8 +37,17 @@ import java.io.Serializable;
  * with type <TT>long</TT> instead of <TT>double</TT>.
  * (See {@link MRG32k3a} for more information.)
  * 
+ * <P>
+ * The recurrences are computed with 64-bit integer arithmetic, which is
+ * usually faster than the floating-point version on 64-bit virtual machines.
+ * Given the same seeds, an <TT>MRG32k3aL</TT> stream returns exactly the same
+ * numbers as the corresponding {@link MRG32k3a} stream, including after
+ * calls to the <TT>reset...</TT> methods. The two classes keep separate
+ * package seeds, so the <SPAN CLASS="MATH"><I>n</I></SPAN>-th stream created in
+ * each class is the same provided both package seeds are the same.
+ * 
  */
-public class MRG32k3aL extends RandomStreamBase  {
+public class MRG32k3aL extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -139,10 +149,12 @@ public class MRG32k3aL extends RandomStreamBase  {
       name = null;
       anti = false;
       prec53 = false;
-      for(int i = 0; i < 6; i++)
-         Ig[i] = nextSeed[i];
+      synchronized (MRG32k3aL.class) {
+         for(int i = 0; i < 6; i++)
+            Ig[i] = nextSeed[i];
+         multMatVect(nextSeed, A1p127, m1, A2p127, m2);
+      }
       resetStartStream();
-      multMatVect(nextSeed, A1p127, m1, A2p127, m2);
    } 
 
 
@@ -161,7 +173,7 @@ public class MRG32k3aL extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (long seed[])  {
+   public static synchronized void setPackageSeed (long seed[])  {
       // Must use long because there is no unsigned int type.
       if (seed.length < 6)
          throw new IllegalArgumentException ("Seed must contain 6 values");
@@ -233,6 +245,28 @@ public class MRG32k3aL extends RandomStreamBase  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      long A1[][] = new long[3][3];
+      long A2[][] = new long[3][3];
+      ArithmeticMod.matPowModM (A1p0, A1, m1, n);
+      ArithmeticMod.matPowModM (A2p0, A2, m2, n);
+      long[] v = {Cg0, Cg1, Cg2, Cg3, Cg4, Cg5};
+      multMatVect(v, A1, m1, A2, m2);
+      Cg0 = v[0];
+      Cg1 = v[1];
+      Cg2 = v[2];
+      Cg3 = v[3];
+      Cg4 = v[4];
+      Cg5 = v[5];
+   }
+
 
    /**
     * @return the current state of the generator
@@ -341,7 +375,62 @@ public class MRG32k3aL extends RandomStreamBase  {
       Cg5 = p2;
 
       /* Combination */
-      return (double)((p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm);
+      return (p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm;
+   }
+
+   protected void nextValues (double[] u, int start, int n) {
+      long p1, p2;
+      long c0 = Cg0, c1 = Cg1, c2 = Cg2, c3 = Cg3, c4 = Cg4, c5 = Cg5;
+      for (int ii = start; ii < start + n; ii++) {
+         /* Component 1 */
+         p1 = (a12 * c1 - a13n * c0) % m1;
+         if (p1 < 0)
+            p1 += m1;
+         c0 = c1;
+         c1 = c2;
+         c2 = p1;
+         /* Component 2 */
+         p2 = (a21 * c5 - a23n * c3) % m2;
+         if (p2 < 0)
+            p2 += m2;
+         c3 = c4;
+         c4 = c5;
+         c5 = p2;
+         /* Combination */
+         u[ii] = (p1 > p2) ? (p1 - p2) * norm : (p1 - p2 + m1) * norm;
+      }
+      Cg0 = c0;  Cg1 = c1;  Cg2 = c2;
+      Cg3 = c3;  Cg4 = c4;  Cg5 = c5;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      long p1, p2;
+      long c0 = Cg0, c1 = Cg1, c2 = Cg2, c3 = Cg3, c4 = Cg4, c5 = Cg5;
+      for (int ii = start; ii < start + n; ii++) {
+         p1 = (a12 * c1 - a13n * c0) % m1;
+         if (p1 < 0)
+            p1 += m1;
+         c0 = c1;
+         c1 = c2;
+         c2 = p1;
+         p2 = (a21 * c5 - a23n * c3) % m2;
+         if (p2 < 0)
+            p2 += m2;
+         c3 = c4;
+         c4 = c5;
+         c5 = p2;
+         u[ii] = i + (int)(((p1 > p2) ? (p1 - p2) * norm
+                                      : (p1 - p2 + m1) * norm) * d);
+      }
+      Cg0 = c0;  Cg1 = c1;  Cg2 = c2;
+      Cg3 = c3;  Cg4 = c4;  Cg5 = c5;
    }
 
 }
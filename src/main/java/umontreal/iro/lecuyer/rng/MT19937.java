@@ -34,6 +34,7 @@ import java.io.ObjectOutputStream;
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.io.Serializable;
+import java.math.BigInteger;
 
 /**
  * Implements the {@link RandomStream} interface via inheritance from
@@ -48,9 +49,16 @@ import java.io.Serializable;
  * The seed of the RNG, and the state of a stream at any given
  * step, is a 624-dimensional vector of 32-bit integers.
  * The output of <TT>nextValue</TT> has 32 bits of precision.
+ * Because of the size of the state, the method <TT>jumpAhead</TT>
+ * of {@link JumpableRandomStream} is much slower than for the other
+ * generators. The time for a jump of <SPAN CLASS="MATH"><I>n</I></SPAN> steps grows linearly with the
+ * number of bits of <SPAN CLASS="MATH"><I>n</I></SPAN>: it is of the order of a second for
+ * <SPAN CLASS="MATH"><I>n</I> = 2<SUP>100</SUP></SPAN>, and several seconds for
+ * <SPAN CLASS="MATH"><I>n</I> = 2<SUP>1000</SUP></SPAN>. The first jump also computes the
+ * characteristic polynomial of the recurrence.
  * 
  */
-public class MT19937 extends RandomStreamBase  {
+public class MT19937 extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -141,6 +149,77 @@ public class MT19937 extends RandomStreamBase  {
       fillSeed();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      if (state_i >= N)
+         nextState();
+      // The state holds N successive values of the recurrence, of which
+      // the first state_i have been used. We move it forward by a
+      // multiple of N so that the next value is n steps ahead.
+      BigInteger[] qr = n.add (BigInteger.valueOf (state_i)).divideAndRemainder
+                           (BigInteger.valueOf (N));
+      if (qr[0].signum() > 0) {
+         // The lower bits of the first value are not used by the
+         // recurrence, and the jump is exact only for a state produced by
+         // the recurrence, so z^(qN-1) is applied after one step.
+         int[] c = F2Poly.powerOfZ (qr[0].multiply (BigInteger.valueOf (N)).
+                                    subtract (BigInteger.ONE), getCharPoly());
+         int[] x = new int[N];
+         int p = nextWord (state, 0);
+         for (int i = 0; i < 32*c.length; i++) {
+            if (((c[i >>> 5] >>> (i & 31)) & 1) != 0) {
+               for (int j = p; j < N; j++)
+                  x[j - p] ^= state[j];
+               for (int j = 0; j < p; j++)
+                  x[N - p + j] ^= state[j];
+            }
+            p = nextWord (state, p);
+         }
+         state = x;
+      }
+      state_i = qr[1].intValue();
+   }
+
+   // The array st holds N successive values of the recurrence, starting
+   // at position p and wrapping around. Computes the next value, which
+   // replaces the one at position p, and returns the new starting position.
+   private static int nextWord (int[] st, int p) {
+      int y = (st[p] & UPPER_MASK) | (st[(p + 1) % N] & LOWER_MASK);
+      st[p] = st[(p + M) % N] ^ (y >>> 1) ^ MULT_MATRIX_A[y & 0x1];
+      return (p + 1) % N;
+   }
+
+   // characteristic polynomial of the recurrence, computed at the first jump
+   private static int[] charPoly;
+
+   private int[] getCharPoly() {
+      synchronized (MT19937.class) {
+         if (charPoly == null) {
+            // minimal polynomial of the most significant bit of the
+            // values of the recurrence, starting from the current state
+            final int K = 19937;
+            int[] st = new int[N];
+            for (int i = 0; i < N; i++)
+               st[i] = state[i];
+            int[] s = new int[(2*K + 31)/32];
+            int p = nextWord (st, 0);
+            for (int i = 0; i < 2*K; i++) {
+               if (st[p] < 0)
+                  s[i >>> 5] |= 1 << (i & 31);
+               p = nextWord (st, p);
+            }
+            charPoly = F2Poly.minimalPolynomial (s, 2*K);
+         }
+         return charPoly;
+      }
+   }
+
    public String toString() {
       StringBuffer sb = new StringBuffer();
       if(name == null)
@@ -159,28 +238,33 @@ public class MT19937 extends RandomStreamBase  {
       return sb.toString();
    }
 
-   protected double nextValue() {
+   // generates the next N words of the state and resets state_i
+   private void nextState() {
       int y;
+      int kk;
 
-      if(state_i >= N) {
-         int kk;
+      for(kk=0; kk < N - M; kk++) {
+         y = (state[kk] & UPPER_MASK) | (state[kk+1] & LOWER_MASK);
+         state[kk] = state[kk + M] ^ (y >>> 1) ^
+                     MULT_MATRIX_A[y & 0x1];
+      }
+      for(; kk < N - 1; kk++) {
+         y = (state[kk] & UPPER_MASK) | (state[kk+1] & LOWER_MASK);
+         state[kk] = state[kk + (M - N)] ^ (y >>> 1) ^
+                     MULT_MATRIX_A[y & 0x1];
+      }
+      y = (state[N-1] & UPPER_MASK) | (state[0] & LOWER_MASK);
+      state[N-1] = state[M-1] ^ (y >>> 1) ^
+                   MULT_MATRIX_A[y & 0x1];
 
-         for(kk=0; kk < N - M; kk++) {
-            y = (state[kk] & UPPER_MASK) | (state[kk+1] & LOWER_MASK);
-            state[kk] = state[kk + M] ^ (y >>> 1) ^
-                        MULT_MATRIX_A[y & 0x1];
-         }
-         for(; kk < N - 1; kk++) {
-            y = (state[kk] & UPPER_MASK) | (state[kk+1] & LOWER_MASK);
-            state[kk] = state[kk + (M - N)] ^ (y >>> 1) ^
-                        MULT_MATRIX_A[y & 0x1];
-         }
-         y = (state[N-1] & UPPER_MASK) | (state[0] & LOWER_MASK);
-         state[N-1] = state[M-1] ^ (y >>> 1) ^
-                      MULT_MATRIX_A[y & 0x1];
+      state_i = 0;
+   }
 
-         state_i = 0;
-      }
+   protected double nextValue() {
+      int y;
+
+      if(state_i >= N)
+         nextState();
 
       y = state[state_i++];
 
@@ -195,5 +279,57 @@ public class MT19937 extends RandomStreamBase  {
       return r * NORM;
    }
 
+   protected void nextValues (double[] u, int start, int n) {
+      int y;
+      long r;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         if (si >= N) {
+            nextState();
+            si = 0;
+         }
+         y = st[si++];
+
+         // Tempering
+         y ^= (y >>> 11);
+         y ^= (y << 7) & 0x9d2c5680;
+         y ^= (y << 15) & 0xefc60000;
+         y ^= (y >>> 18);
+
+         r = (y <= 0) ? y + 0x100000000L : y;
+         u[ii] = r * NORM;
+      }
+      state_i = si;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      int y;
+      long r;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         if (si >= N) {
+            nextState();
+            si = 0;
+         }
+         y = st[si++];
+         y ^= (y >>> 11);
+         y ^= (y << 7) & 0x9d2c5680;
+         y ^= (y << 15) & 0xefc60000;
+         y ^= (y >>> 18);
+         r = (y <= 0) ? y + 0x100000000L : y;
+         u[ii] = i + (int)(r * NORM * d);
+      }
+      state_i = si;
+   }
+
 
 }
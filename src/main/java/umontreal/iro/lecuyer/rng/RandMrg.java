@@ -26,8 +26,10 @@
 
 package umontreal.iro.lecuyer.rng; 
 
+import umontreal.iro.lecuyer.util.ArithmeticMod;
 import umontreal.iro.lecuyer.util.PrintfFormat;
 import java.io.Serializable;
+import java.math.BigInteger;
 
 
 @Deprecated
@@ -40,7 +42,8 @@ import java.io.Serializable;
  *  and it is about 10% slower.
  * 
  */
-public class RandMrg implements CloneableRandomStream, Serializable {
+public class RandMrg implements CloneableRandomStream, JumpableRandomStream,
+                                Serializable {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -272,15 +275,17 @@ public class RandMrg implements CloneableRandomStream, Serializable {
    public RandMrg()  {
       anti = false;
       prec53 = false;
-      for (int i = 0; i < 6; ++i)  
-         Bg[i] = Cg[i] = Ig[i] = nextSeed[i];
-      matVecModM (A1p127, nextSeed, nextSeed, m1);
-      double temp[] = new double[3];
-      for (int i = 0; i < 3; ++i)  
-         temp[i] = nextSeed[i + 3];
-      matVecModM (A2p127, temp, temp, m2);
-      for (int i = 0; i < 3; ++i)  
-         nextSeed[i + 3] = temp[i];
+      synchronized (RandMrg.class) {
+         for (int i = 0; i < 6; ++i)  
+            Bg[i] = Cg[i] = Ig[i] = nextSeed[i];
+         matVecModM (A1p127, nextSeed, nextSeed, m1);
+         double temp[] = new double[3];
+         for (int i = 0; i < 3; ++i)  
+            temp[i] = nextSeed[i + 3];
+         matVecModM (A2p127, temp, temp, m2);
+         for (int i = 0; i < 3; ++i)  
+            nextSeed[i + 3] = temp[i];
+      }
    }
 
 
@@ -315,7 +320,7 @@ public class RandMrg implements CloneableRandomStream, Serializable {
     * 
     * 
     */
-   public static void setPackageSeed (long seed[])  {
+   public static synchronized void setPackageSeed (long seed[])  {
       // Must use long because there is no unsigned int type.
       if (seed.length != 6)
          throw new IllegalArgumentException ("Seed must contain 6 values");
@@ -351,6 +356,24 @@ public class RandMrg implements CloneableRandomStream, Serializable {
       for (i = 0; i < 6;  ++i) Cg[i] = Bg[i];
    } 
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      double C1[][] = new double[3][3], C2[][] = new double[3][3];
+      ArithmeticMod.matPowModM (A1p0, C1, m1, n);
+      ArithmeticMod.matPowModM (A2p0, C2, m2, n);
+      matVecModM (C1, Cg, Cg, m1);
+      double[] cg3 = new double[3];
+      for (int i = 0; i < 3; i++)  cg3[i] = Cg[i+3];
+      matVecModM (C2, cg3, cg3, m2);
+      for (int i = 0; i < 3; i++)  Cg[i+3] = cg3[i];
+   }
+
 
    /**
     * After calling this method with <TT>incp = true</TT>, each call to 
@@ -105,10 +105,12 @@ public class RandRijndael extends RandomStreamBase  {
 
       state = new byte[BLOCK_SIZE];
 
-      for(int i = 0; i < BLOCK_SIZE; i++)
-         stream[i] = curr_stream[i];
+      synchronized (RandRijndael.class) {
+         for(int i = 0; i < BLOCK_SIZE; i++)
+            stream[i] = curr_stream[i];
 
-      iterate(curr_stream, JUMP_STREAM);
+         iterate(curr_stream, JUMP_STREAM);
+      }
 
       resetStartStream();
    }
@@ -137,7 +139,7 @@ public class RandRijndael extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (byte seed[])  {
+   public static synchronized void setPackageSeed (byte seed[])  {
       if(seed.length != BLOCK_SIZE)
          throw new IllegalArgumentException("Seed must contain " +
                                             BLOCK_SIZE + " values");
@@ -0,0 +1,252 @@
+
+
+/*
+ * Class:        RandomStreamAllocator
+ * Description:  hands out random streams to concurrent replications
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.rng;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Hands out random streams to replications that may run concurrently,
+ * in several threads. The allocator is constructed with a fixed set of
+ * <SPAN CLASS="MATH"><I>m</I></SPAN> streams, one for each source of randomness in the model.
+ * Replication <SPAN CLASS="MATH"><I>r</I></SPAN> then uses substream <SPAN CLASS="MATH"><I>r</I></SPAN> of each of these streams,
+ * as in the usual sequential setting where <TT>resetNextSubstream</TT> is
+ * called on every stream between replications.
+ * The streams returned for a given replication number depend only on
+ * that number, and not on the thread that asks for them nor on the order
+ * in which the replications are simulated, so the results of a parallel
+ * experiment are the same as with a sequential one.
+ *
+ * <P>
+ * Each call to {@link #getStreams getStreams} returns new copies of the streams,
+ * which belong to the caller and need no synchronization.
+ * To reach substream <SPAN CLASS="MATH"><I>r</I></SPAN>, the allocator keeps a few
+ * private copies of the streams, each positioned at some substream,
+ * in a lock-free pool. A call takes from the pool the copy positioned
+ * at the largest substream <SPAN CLASS="MATH"><I>r'</I> &lt;= <I>r</I></SPAN>, moves it forward to substream <SPAN CLASS="MATH"><I>r</I></SPAN>
+ * with <SPAN CLASS="MATH"><I>r</I> - <I>r'</I></SPAN> calls to <TT>resetNextSubstream</TT> on each stream,
+ * clones it and puts it back. If all the copies are past <SPAN CLASS="MATH"><I>r</I></SPAN>, a new copy
+ * is created and moved forward from the start of the streams, which
+ * takes <SPAN CLASS="MATH"><I>r</I></SPAN> calls; when there are already many copies, the one nearest
+ * to <SPAN CLASS="MATH"><I>r</I></SPAN> is moved back to the start instead. The pool holds a few copies for
+ * each thread, and each call also scans the pool.
+ * When the replications are simulated roughly in increasing order, even
+ * if they finish out of order, as with a parallel loop over the
+ * replication numbers, each copy moves forward by only a few substreams
+ * at each call.
+ *
+ */
+public class RandomStreamAllocator {
+   private CloneableRandomStream[] streams;
+   // cursors not in use
+   private ConcurrentLinkedDeque<Cursor> cursors =
+      new ConcurrentLinkedDeque<Cursor>();
+   private AtomicInteger numCursors = new AtomicInteger();
+   private static final int MAX_CURSORS =
+      Math.max (16, 4*Runtime.getRuntime().availableProcessors());
+
+   // A private copy of the streams, all at the start of substream rep
+   private static class Cursor {
+      CloneableRandomStream[] streams;
+      int rep;
+   }
+
+
+   /**
+    * Constructs an allocator for <TT>numStreams</TT> streams created by
+    *    <TT>factory</TT>, in this order. The factory must create
+    *    instances of {@link CloneableRandomStream}.
+    *
+    * @param factory the factory creating the streams.
+    *
+    *    @param numStreams the number of streams used by each replication.
+    *
+    *    @exception IllegalArgumentException if <TT>numStreams</TT> is
+    *     negative, or if the factory creates streams that are not
+    *     cloneable.
+    *
+    *
+    */
+   public RandomStreamAllocator (RandomStreamFactory factory,
+                                 int numStreams) {
+      if (numStreams < 0)
+         throw new IllegalArgumentException
+            ("The number of streams must not be negative");
+      streams = new CloneableRandomStream[numStreams];
+      for (int i = 0; i < numStreams; i++) {
+         RandomStream stream = factory.newInstance();
+         if (!(stream instanceof CloneableRandomStream))
+            throw new IllegalArgumentException
+               ("The streams must implement CloneableRandomStream");
+         streams[i] = (CloneableRandomStream)stream;
+      }
+   }
+
+
+   /**
+    * Constructs an allocator for the given streams. The allocator
+    *    keeps copies of the streams, reset to their initial states;
+    *    <TT>streams</TT> is not modified.
+    *
+    * @param streams the streams used by each replication.
+    *
+    *
+    */
+   public RandomStreamAllocator (CloneableRandomStream[] streams) {
+      this.streams = new CloneableRandomStream[streams.length];
+      for (int i = 0; i < streams.length; i++) {
+         this.streams[i] = streams[i].clone();
+         this.streams[i].resetStartStream();
+      }
+   }
+
+
+   /**
+    * Returns the number of streams used by each replication.
+    *
+    * @return the number of streams.
+    *
+    */
+   public int getNumStreams() {
+      return streams.length;
+   }
+
+
+   /**
+    * Returns new copies of the streams, positioned at the beginning of
+    *    their substream number <TT>rep</TT>. Substream 0 is the
+    *    beginning of the stream. The same streams are returned for the
+    *    same value of <TT>rep</TT>, whichever thread calls this method.
+    *    This method may be called concurrently from several threads.
+    *
+    * @param rep the replication number.
+    *
+    *    @return the streams for this replication.
+    *    @exception IllegalArgumentException if <TT>rep</TT> is negative.
+    *
+    *
+    */
+   public CloneableRandomStream[] getStreams (int rep) {
+      Cursor cur = acquire (rep);
+      try {
+         CloneableRandomStream[] res =
+            new CloneableRandomStream[cur.streams.length];
+         for (int i = 0; i < res.length; i++)
+            res[i] = cur.streams[i].clone();
+         return res;
+      }
+      finally {
+         cursors.push (cur);
+      }
+   }
+
+
+   /**
+    * Returns a new copy of stream <TT>i</TT>, positioned at the beginning of
+    *    its substream number <TT>rep</TT>.
+    *    This is equivalent to <TT>getStreams(rep)[i]</TT>.
+    *
+    * @param i the index of the stream.
+    *
+    *    @param rep the replication number.
+    *
+    *    @return the stream <TT>i</TT> for this replication.
+    *    @exception IllegalArgumentException if <TT>rep</TT> is negative.
+    *
+    *
+    */
+   public CloneableRandomStream getStream (int i, int rep) {
+      if (i < 0 || i >= streams.length)
+         throw new IndexOutOfBoundsException ("Invalid stream index: " + i);
+      Cursor cur = acquire (rep);
+      try {
+         return cur.streams[i].clone();
+      }
+      finally {
+         cursors.push (cur);
+      }
+   }
+
+
+   // Takes from the pool the cursor nearest to substream rep at or below
+   // it, and moves it to rep. If all the cursors are past rep, creates a
+   // new one, or, when there are already MAX_CURSORS, resets the cursor
+   // nearest to rep. The caller must put the cursor back into the pool.
+   private Cursor acquire (int rep) {
+      if (rep < 0)
+         throw new IllegalArgumentException
+            ("The replication number must not be negative");
+      Cursor cur = null;
+      while (cur == null) {
+         Cursor below = null;     // largest c.rep <= rep
+         Cursor above = null;     // smallest c.rep > rep
+         for (Cursor c : cursors) {
+            int r = c.rep;
+            if (r <= rep) {
+               if (below == null || r > below.rep)
+                  below = c;
+            }
+            else if (above == null || r < above.rep)
+               above = c;
+         }
+         if (below != null || (above != null &&
+                                numCursors.get() >= MAX_CURSORS)) {
+            // Another thread may have taken it since the scan
+            Cursor c = below != null ? below : above;
+            if (cursors.removeFirstOccurrence (c))
+               cur = c;
+         }
+         else {
+            cur = new Cursor();
+            cur.streams = new CloneableRandomStream[streams.length];
+            for (int i = 0; i < streams.length; i++)
+               cur.streams[i] = streams[i].clone();
+            cur.rep = 0;
+            numCursors.incrementAndGet();
+         }
+      }
+      if (cur.rep > rep) {
+         for (int i = 0; i < cur.streams.length; i++)
+            cur.streams[i].resetStartStream();
+         cur.rep = 0;
+      }
+      for (; cur.rep < rep; cur.rep++)
+         for (int i = 0; i < cur.streams.length; i++)
+            cur.streams[i].resetNextSubstream();
+      return cur;
+   }
+
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer (getClass().getName());
+      sb.append ('[');
+      sb.append ("number of streams: ").append (streams.length);
+      sb.append (']');
+      return sb.toString();
+   }
+}
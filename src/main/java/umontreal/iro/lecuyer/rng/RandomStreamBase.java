@@ -142,7 +142,58 @@ public abstract class RandomStreamBase implements CloneableRandomStream,
 
 
    /**
-    * Calls <TT>nextDouble</TT> <TT>n</TT> times to fill the array <TT>u</TT>.
+    * Fills <TT>u[start..start+n-1]</TT> with <TT>n</TT> successive
+    *   values of <TT>nextValue</TT>. The default implementation simply
+    *   calls <TT>nextValue</TT> <TT>n</TT> times; generators override it
+    *   with a loop that keeps their state in local variables.
+    *   It must produce exactly the same numbers as <TT>n</TT> successive
+    *   calls to <TT>nextValue</TT> and leave the stream in the same state.
+    *   The arguments are not checked.
+    * 
+    * @param u the array in which the numbers will be stored
+    * 
+    *   @param start the first index of <TT>u</TT> to be used
+    * 
+    *   @param n the number of random numbers to put in <TT>u</TT>
+    * 
+    * 
+    */
+   protected void nextValues (double[] u, int start, int n)  {
+      for(int ii = start; ii < start + n; ii++)
+         u[ii] = nextValue();
+   }
+
+
+   /**
+    * Fills <TT>u[start..start+n-1]</TT> with <TT>n</TT> successive
+    *   values of <TT>nextInt(i, j)</TT>. The default implementation simply
+    *   calls <TT>nextInt</TT> <TT>n</TT> times; generators override it
+    *   in the same way as {@link #nextValues nextValues}.
+    *   The arguments are not checked, except for <TT>i &lt;= j</TT>.
+    * 
+    * @param i the smallest possible integer to put in <TT>u</TT>
+    * 
+    *   @param j the largest possible integer to put in <TT>u</TT>
+    * 
+    *   @param u the array in which the numbers will be stored
+    * 
+    *   @param start the first index of <TT>u</TT> to be used
+    * 
+    *   @param n the number of random numbers to put in <TT>u</TT>
+    * 
+    * 
+    */
+   protected void nextInts (int i, int j, int[] u, int start, int n)  {
+      for(int ii = start; ii < start + n; ii++)
+         u[ii] = nextInt(i,j);
+   }
+
+
+   /**
+    * Fills the array <TT>u</TT> with the next <TT>n</TT> numbers of the
+    *   stream. The result is the same as calling <TT>nextDouble</TT>
+    *   <TT>n</TT> times, but unless the precision has been increased,
+    *   the numbers are generated in a single call to {@link #nextValues nextValues}.
     * 
     * @param u the array in which the numbers will be stored
     * 
@@ -164,8 +215,15 @@ public abstract class RandomStreamBase implements CloneableRandomStream,
          throw new IllegalArgumentException("Must have a non-negative " +
                                             "number of elements.");
 
-      for(int ii = start; ii < start + n; ii++)
-         u[ii] = nextDouble();
+      if (prec53) {
+         for(int ii = start; ii < start + n; ii++)
+            u[ii] = nextDouble();
+         return;
+      }
+      nextValues (u, start, n);
+      if (anti)
+         for(int ii = start; ii < start + n; ii++)
+            u[ii] = 1.0 - u[ii];
    }
 
   
@@ -193,9 +251,11 @@ public abstract class RandomStreamBase implements CloneableRandomStream,
 
 
    /**
-    * Calls <TT>nextInt</TT> <TT>n</TT> times to fill the array <TT>u</TT>.
-    *   This method should be overridden if a faster implementation exists for
-    *   the specific generator.
+    * Fills the array <TT>u</TT> with the next <TT>n</TT> integers of the
+    *   stream. The result is the same as calling <TT>nextInt</TT>
+    *   <TT>n</TT> times, but the numbers are generated in a single call to
+    *   {@link #nextInts nextInts}, which should be overridden if a faster
+    *   implementation exists for the specific generator.
     * 
     * @param i the smallest possible integer to put in <TT>u</TT>
     * 
@@ -222,8 +282,7 @@ public abstract class RandomStreamBase implements CloneableRandomStream,
          throw new IllegalArgumentException("Must have a non-negative " +
                                             "number of elements.");
 
-      for(int ii = start; ii < start + n; ii++)
-         u[ii] = nextInt(i,j);
+      nextInts (i, j, u, start, n);
    } 
 
 
@@ -31,6 +31,7 @@ import umontreal.iro.lecuyer.util.BitVector;
 import umontreal.iro.lecuyer.util.BitMatrix;
 
 import java.io.Serializable;
+import java.math.BigInteger;
 import java.io.ObjectOutputStream;
 import java.io.FileOutputStream;
 import java.io.ObjectInputStream;
@@ -58,7 +59,7 @@ import java.io.IOException;
  * class, and is only loaded when the first instance is created.
  * 
  */
-public class WELL1024 extends RandomStreamBase  {
+public class WELL1024 extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -130,7 +131,7 @@ public class WELL1024 extends RandomStreamBase  {
                           0xe1e47e3, 0x96ead7ac, 0xc834f9ee, 0xd9ff4a4f,
                          0x717f044c, 0xfd0e15e6,  0x6c18ef3, 0xbfdd2942};
 
-   private static void initialisation() {
+   private static synchronized void initialisation() {
 
       curr_stream = new int[] {0xDE410B75, 0x904FA5C7, 0x8BD4701E, 0x011EA361,
                                0x6EB189E0, 0x7A2B0CE1, 0xE02631CA, 0x72EBA132,
@@ -242,11 +243,13 @@ public class WELL1024 extends RandomStreamBase  {
       stream = new int[R];
       substream = new int[R];
 
-      for(int i = 0; i < R; i++)
-         stream[i] = curr_stream[i];
+      synchronized (WELL1024.class) {
+         for(int i = 0; i < R; i++)
+            stream[i] = curr_stream[i];
 
- //     advanceSeed(curr_stream, Apz);
-      advanceSeed(curr_stream, pz);
+    //     advanceSeed(curr_stream, Apz);
+         advanceSeed(curr_stream, pz);
+      }
 
       resetStartStream();
    } 
@@ -274,7 +277,7 @@ public class WELL1024 extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (int seed[])  {
+   public static synchronized void setPackageSeed (int seed[])  {
       verifySeed (seed);
       if(!initialised)
          initialisation();
@@ -344,6 +347,49 @@ public class WELL1024 extends RandomStreamBase  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      int[] seed = new int[R];
+      for (int i = 0; i < R; i++)
+         seed[i] = state[(state_i + i) & MASK];
+      advanceSeed(seed, F2Poly.powerOfZ (n, getCharPoly()));
+      for (int i = 0; i < R; i++)
+         state[i] = seed[i];
+      state_i = 0;
+   }
+
+   // characteristic polynomial of the generator, computed at the first jump
+   private static int[] charPoly;
+
+   private int[] getCharPoly() {
+      synchronized (WELL1024.class) {
+         if (charPoly == null) {
+            // minimal polynomial of the most significant output bit,
+            // computed from the current state, which is then restored
+            int[] seed = new int[R];
+            for (int i = 0; i < R; i++)
+               seed[i] = state[(state_i + i) & MASK];
+            int[] s = new int[2*R];
+            for (int i = 0; i < 2*W*R; i++) {
+               nextValue();
+               if (state[state_i] < 0)
+                  s[i >>> 5] |= 1 << (i & 31);
+            }
+            charPoly = F2Poly.minimalPolynomial (s, 2*W*R);
+            for (int i = 0; i < R; i++)
+               state[i] = seed[i];
+            state_i = 0;
+         }
+         return charPoly;
+      }
+   }
+
    public String toString()  {
       StringBuffer sb = new StringBuffer();
 
@@ -379,6 +425,54 @@ public class WELL1024 extends RandomStreamBase  {
 
    }
 
+   protected void nextValues (double[] u, int start, int n) {
+      int z0, z1, z2;
+      long result;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         z0 = st[(si + 31) & MASK];
+         z1 = st[si] ^ (st[(si + M1) & MASK] ^ (st[(si + M1) & MASK] >>> 8));
+         z2 = (st[(si + M2) & MASK] ^ (st[(si + M2) & MASK] << 19)) ^
+              (st[(si + M3) & MASK] ^ (st[(si + M3) & MASK] << 14));
+         st[si] = z1 ^ z2;
+         st[(si + 31) & MASK] = (z0 ^ (z0 << 11)) ^
+                                (z1 ^ (z1 << 7)) ^ (z2 ^ (z2 << 13));
+         si = (si + 31) & MASK;
+         result = st[si];
+         u[ii] = ((double) (result > 0 ? result : result + 0x100000000L) * NORM);
+      }
+      state_i = si;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      int z0, z1, z2;
+      long result;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         z0 = st[(si + 31) & MASK];
+         z1 = st[si] ^ (st[(si + M1) & MASK] ^ (st[(si + M1) & MASK] >>> 8));
+         z2 = (st[(si + M2) & MASK] ^ (st[(si + M2) & MASK] << 19)) ^
+              (st[(si + M3) & MASK] ^ (st[(si + M3) & MASK] << 14));
+         st[si] = z1 ^ z2;
+         st[(si + 31) & MASK] = (z0 ^ (z0 << 11)) ^
+                                (z1 ^ (z1 << 7)) ^ (z2 ^ (z2 << 13));
+         si = (si + 31) & MASK;
+         result = st[si];
+         u[ii] = i + (int)(((double) (result > 0 ? result :
+                                      result + 0x100000000L) * NORM) * d);
+      }
+      state_i = si;
+   }
+
 
  
    /**
@@ -32,6 +32,7 @@ import umontreal.iro.lecuyer.util.BitMatrix;
 import java.io.FileOutputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.math.BigInteger;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -54,7 +55,7 @@ import java.io.IOException;
  * class, and is only loaded when the first instance is created.
  * 
  */
-public class WELL512 extends RandomStreamBase  {
+public class WELL512 extends RandomStreamBase implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -108,7 +109,7 @@ public class WELL512 extends RandomStreamBase  {
                            0x244d1a97, 0x7570bc91, 0x31203fc7, 0x455ea2ca,
                            0xd77d327d, 0xd8c6a83c, 0xc51b05e7, 0x300c1501};
 
-   private static void initialisation() {
+   private static synchronized void initialisation() {
       // initialise all of the state variables
 
       curr_stream = new int[] {0xA341BF9A, 0xAFE4901B, 0x6B10DE18, 0x05FE1420,
@@ -217,11 +218,13 @@ public class WELL512 extends RandomStreamBase  {
       stream = new int[R];
       substream = new int[R];
 
-      for(int i = 0; i < R; i++)
-         stream[i] = curr_stream[i];
+      synchronized (WELL512.class) {
+         for(int i = 0; i < R; i++)
+            stream[i] = curr_stream[i];
 
 //      advanceSeed(curr_stream, Apz);
-      advanceSeed(curr_stream, pz);
+         advanceSeed(curr_stream, pz);
+      }
 
       resetStartStream();
    } 
@@ -249,7 +252,7 @@ public class WELL512 extends RandomStreamBase  {
     * 
     * 
     */
-   public static void setPackageSeed (int seed[])  {
+   public static synchronized void setPackageSeed (int seed[])  {
       verifySeed(seed);
       if (!initialised)
          initialisation();
@@ -347,6 +350,49 @@ public class WELL512 extends RandomStreamBase  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      int[] seed = new int[R];
+      for (int i = 0; i < R; i++)
+         seed[i] = state[(state_i + i) & MASK];
+      advanceSeed(seed, F2Poly.powerOfZ (n, getCharPoly()));
+      for (int i = 0; i < R; i++)
+         state[i] = seed[i];
+      state_i = 0;
+   }
+
+   // characteristic polynomial of the generator, computed at the first jump
+   private static int[] charPoly;
+
+   private int[] getCharPoly() {
+      synchronized (WELL512.class) {
+         if (charPoly == null) {
+            // minimal polynomial of the most significant output bit,
+            // computed from the current state, which is then restored
+            int[] seed = new int[R];
+            for (int i = 0; i < R; i++)
+               seed[i] = state[(state_i + i) & MASK];
+            int[] s = new int[2*R];
+            for (int i = 0; i < 2*W*R; i++) {
+               nextValue();
+               if (state[state_i] < 0)
+                  s[i >>> 5] |= 1 << (i & 31);
+            }
+            charPoly = F2Poly.minimalPolynomial (s, 2*W*R);
+            for (int i = 0; i < R; i++)
+               state[i] = seed[i];
+            state_i = 0;
+         }
+         return charPoly;
+      }
+   }
+
    public String toString()  {
       StringBuffer sb = new StringBuffer();
 
@@ -378,6 +424,54 @@ public class WELL512 extends RandomStreamBase  {
 
       return (double)(result > 0 ? result : (result + 0x100000000L)) * NORM;
    }
+
+   protected void nextValues (double[] u, int start, int n) {
+      int z0, z1, z2;
+      long result;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         z0 = st[(si + 15) & MASK];
+         z1 = (st[si] ^ (st[si] << 16)) ^
+              (st[(si+M1) & MASK] ^ (st[(si+M1) & MASK] << 15));
+         z2 = (st[(si+M2) & MASK] ^ (st[(si+M2) & MASK] >>> 11));
+         st[si] = z1 ^ z2;
+         st[(si + 15) & MASK] = (z0 ^ (z0 << 2)) ^ (z1 ^ (z1 << 18)) ^
+                                (z2 << 28) ^ (st[si] ^ ((st[si] << 5) & 0xDA442D24));
+         si = (si + 15) & MASK;
+         result = st[si];
+         u[ii] = (double)(result > 0 ? result : (result + 0x100000000L)) * NORM;
+      }
+      state_i = si;
+   }
+
+   protected void nextInts (int i, int j, int[] u, int start, int n) {
+      if (prec53 || anti) {
+         super.nextInts (i, j, u, start, n);
+         return;
+      }
+      if (i > j)
+         throw new IllegalArgumentException(i + " is larger than " + j + ".");
+      final double d = j - i + 1.0;
+      int z0, z1, z2;
+      long result;
+      final int[] st = state;
+      int si = state_i;
+      for (int ii = start; ii < start + n; ii++) {
+         z0 = st[(si + 15) & MASK];
+         z1 = (st[si] ^ (st[si] << 16)) ^
+              (st[(si+M1) & MASK] ^ (st[(si+M1) & MASK] << 15));
+         z2 = (st[(si+M2) & MASK] ^ (st[(si+M2) & MASK] >>> 11));
+         st[si] = z1 ^ z2;
+         st[(si + 15) & MASK] = (z0 ^ (z0 << 2)) ^ (z1 ^ (z1 << 18)) ^
+                                (z2 << 28) ^ (st[si] ^ ((st[si] << 5) & 0xDA442D24));
+         si = (si + 15) & MASK;
+         result = st[si];
+         u[ii] = i + (int)((double)(result > 0 ? result :
+                                    (result + 0x100000000L)) * NORM * d);
+      }
+      state_i = si;
+   }
  
    /**
     * This method is only meant to be used during the compilation process.
@@ -31,6 +31,7 @@ import umontreal.iro.lecuyer.util.BitVector;
 import umontreal.iro.lecuyer.util.BitMatrix;
 
 import java.io.Serializable;
+import java.math.BigInteger;
 import java.io.ObjectOutputStream;
 import java.io.FileOutputStream;
 
@@ -57,7 +58,7 @@ import java.io.IOException;
  * class, and is only loaded when the first instance is created.
  * 
  */
-public class WELL607 extends WELL607base  {
+public class WELL607 extends WELL607base implements JumpableRandomStream  {
 
    private static final long serialVersionUID = 70510L;
    //La date de modification a l'envers, lire 10/05/2007
@@ -108,11 +109,13 @@ public class WELL607 extends WELL607base  {
       stream = new int[R];
       substream = new int[R];
 
-      for(int i = 0; i < R; i++)
-         stream[i] = curr_stream[i];
+      synchronized (WELL607.class) {
+         for(int i = 0; i < R; i++)
+            stream[i] = curr_stream[i];
 
 //      advanceSeed(curr_stream, Apz);
-      advanceSeed(curr_stream, pz);
+         advanceSeed(curr_stream, pz);
+      }
 
       resetStartStream();
    } 
@@ -141,7 +144,7 @@ public class WELL607 extends WELL607base  {
     * 
     * 
     */
-   public static void setPackageSeed (int seed[])  {
+   public static synchronized void setPackageSeed (int seed[])  {
       verifySeed(seed);
       for(int i = 0; i < R; i++)
          curr_stream[i] = seed[i];
@@ -203,6 +206,51 @@ public class WELL607 extends WELL607base  {
       resetStartSubstream();
    }
 
+   public void jumpAhead (long n) {
+      jumpAhead (BigInteger.valueOf (n));
+   }
+
+   public void jumpAhead (BigInteger n) {
+      if (n.signum() < 0)
+         throw new IllegalArgumentException
+            ("The number of steps must not be negative");
+      if (n.signum() == 0)
+         return;
+      // The last bit of the state is not used by the recurrence, and the
+      // jump is exact only for a state produced by the recurrence, so
+      // z^(n-1) is applied after one step.
+      nextInt();
+      int[] seed = super.getState();
+      advanceSeed(seed, F2Poly.powerOfZ (n.subtract (BigInteger.ONE),
+                                         getCharPoly()));
+      for (int i = 0; i < R; i++)
+         state[i] = seed[i];
+      state_i = 0;
+   }
+
+   // characteristic polynomial of the generator, computed at the first jump
+   private static int[] charPoly;
+
+   private int[] getCharPoly() {
+      synchronized (WELL607.class) {
+         if (charPoly == null) {
+            // minimal polynomial of the most significant output bit,
+            // computed from the current state, which is then restored
+            int[] seed = super.getState();
+            int[] s = new int[(2*NUM_BITS)/32];
+            nextInt();
+            for (int i = 0; i < 2*(NUM_BITS - 1); i++)
+               if (nextInt() < 0)
+                  s[i >>> 5] |= 1 << (i & 31);
+            charPoly = F2Poly.minimalPolynomial (s, 2*(NUM_BITS - 1));
+            for (int i = 0; i < R; i++)
+               state[i] = seed[i];
+            state_i = 0;
+         }
+         return charPoly;
+      }
+   }
+
    public String toString()  {
       StringBuffer sb = new StringBuffer();
       if(name == null)
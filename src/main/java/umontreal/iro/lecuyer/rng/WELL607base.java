@@ -52,7 +52,7 @@ abstract class WELL607base extends RandomStreamBase {
    // if the generator was initialised (transition matrices)
    private static boolean initialised = false;
 
-   static void initialisation () {
+   static synchronized void initialisation () {
       // read the state transition matrices
       if (initialised)
          return ;
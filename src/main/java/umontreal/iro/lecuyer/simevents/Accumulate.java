@@ -177,6 +177,33 @@ public class Accumulate extends StatProbe implements Cloneable  {
    }
 
 
+   /**
+    * Adds to this accumulator the integral collected by <TT>acc</TT>,
+    *    from its initialization to its last update, as if the time interval
+    *    covered by <TT>acc</TT> had been placed before the one covered by this
+    *    accumulator. The time-average returned by {@link #average average} is then
+    *    the average over both intervals, and the time of initialization
+    *    returned by {@link #getInitTime getInitTime} is moved back by the length of the
+    *    interval of <TT>acc</TT>. The accumulator <TT>acc</TT> is not modified,
+    *    and should be brought up to date by {@link #update update} before the call.
+    *    Accumulators of independent replications simulated in parallel can thus
+    *    be merged, without storing their observations.
+    *    Nothing is done if collecting is turned OFF for this accumulator.
+    *
+    * @param acc the accumulator whose integral is added to this one
+    *
+    *
+    */
+   public void merge (Accumulate acc)  {
+      if (!collect)
+         return;
+      if (acc.minValue < minValue) minValue = acc.minValue;
+      if (acc.maxValue > maxValue) maxValue = acc.maxValue;
+      sumValue += acc.sumValue;
+      initTime -= acc.lastTime - acc.initTime;
+   }
+
+
    public double sum()  {
       update (lastValue);
       return sumValue;
@@ -80,6 +80,14 @@ public abstract class Event implements Comparable<Event> {
    public final int getRa() { return myra; }
    public final void setRa(int r) { myra = r; }
 
+   private int myIndex = -1;
+   // Position of this event in the arrays of a DaryHeap event list,
+   // or -1 if the event is not in such a list.
+
+   // For internal use
+   public final int getHeapIndex() { return myIndex; }
+   public final void setHeapIndex(int i) { myIndex = i; }
+
 
 
    /**
@@ -0,0 +1,72 @@
+
+
+/*
+ * Class:        Replication
+ * Description:  one independent replication of a simulation model
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.simevents;
+
+import umontreal.iro.lecuyer.rng.RandomStream;
+
+
+/**
+ * Represents one independent replication of a simulation model, for the
+ * {@link ReplicationRunner}. The method {@link #simulate simulate} simulates
+ * the model once, with a given simulator and given random streams, and
+ * returns the observations of the performance measures for this
+ * replication, for example the average waiting time of the customers,
+ * obtained from a {@link umontreal.iro.lecuyer.stat.Tally Tally}, or the
+ * time-average queue size, obtained from an {@link Accumulate}.
+ *
+ * <P>
+ * An object implementing this interface may simulate several replications,
+ * one after the other, but never two at the same time. It must therefore
+ * reinitialize its state, including its statistical collectors,
+ * at the beginning of each replication.
+ * Its events must be linked to the simulator given to {@link #simulate simulate}
+ * (see the constructor {@link Event#Event(Simulator) Event} of {@link Event}) and its
+ * random variate generators must use the given streams, for example by
+ * calling <TT>setStream</TT> on each generator.
+ *
+ */
+public interface Replication {
+
+
+   /**
+    * Simulates one replication of the model with the simulator <TT>sim</TT>,
+    *  which has just been initialized, and the random streams <TT>streams</TT>,
+    *  positioned at the beginning of the substreams of this replication.
+    *  Returns the observations of the performance measures for this replication,
+    *  which must always be in the same order.
+    *  The caller copies the returned array, which may thus be reused.
+    *
+    * @param sim the simulator for this replication.
+    *
+    *    @param streams the random streams for this replication.
+    *
+    *    @return the observations of the performance measures.
+    *
+    */
+   public double[] simulate (Simulator sim, RandomStream[] streams);
+
+}
@@ -0,0 +1,49 @@
+
+
+/*
+ * Class:        ReplicationFactory
+ * Description:  constructs the replications of a simulation model
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.simevents;
+
+
+/**
+ * Constructs the {@link Replication} objects used by a
+ * {@link ReplicationRunner}, one for each thread simulating
+ * replications, so that the state of the model is never shared
+ * between threads.
+ *
+ */
+public interface ReplicationFactory {
+
+
+   /**
+    * Constructs and returns a new replication of the model, which
+    *  shares no modifiable state with the other ones.
+    *
+    * @return the new replication.
+    *
+    */
+   public Replication newInstance();
+
+}
@@ -0,0 +1,260 @@
+
+
+/*
+ * Class:        ReplicationRunner
+ * Description:  simulates independent replications in parallel
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.simevents;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import umontreal.iro.lecuyer.rng.RandomStreamAllocator;
+import umontreal.iro.lecuyer.stat.Tally;
+import umontreal.iro.lecuyer.stat.list.ListOfTallies;
+
+
+/**
+ * Simulates independent replications of a model in parallel, using several
+ * threads, each with its own {@link Simulator} and its own
+ * {@link Replication} object, constructed by a {@link ReplicationFactory}.
+ * Replication <SPAN CLASS="MATH"><I>r</I></SPAN> uses substream <SPAN CLASS="MATH"><I>r</I></SPAN> of each random stream given by a
+ * {@link umontreal.iro.lecuyer.rng.RandomStreamAllocator RandomStreamAllocator}, as a
+ * sequential program calling <TT>resetNextSubstream</TT> on each stream
+ * after each replication does.
+ * The observations returned by each replication are stored by replication
+ * number, and are added to the statistical collectors in increasing order of
+ * replication number once all the replications are done.
+ * The results thus depend neither on the number of threads nor on the order in
+ * which the replications are executed: they are the same, to the last bit,
+ * as those of the sequential program.
+ *
+ * <P>
+ * For example, if the sequential program creates its streams with
+ * <TT>new MRG32k3a()</TT> before any other stream, the allocator
+ * <TT>new RandomStreamAllocator (new BasicRandomStreamFactory (MRG32k3a.class), m)</TT>,
+ * constructed at the same point, gives the same streams.
+ *
+ */
+public class ReplicationRunner {
+   private ReplicationFactory factory;
+   private RandomStreamAllocator allocator;
+   private int numThreads;
+
+
+   /**
+    * Constructs a runner for the replications created by <TT>factory</TT>,
+    * using the streams given by <TT>allocator</TT>, with one thread for each
+    * processor available to the Java virtual machine.
+    *
+    * @param factory the factory creating the replications.
+    *
+    *    @param allocator the allocator giving the streams of each replication.
+    *
+    */
+   public ReplicationRunner (ReplicationFactory factory,
+                             RandomStreamAllocator allocator) {
+      this (factory, allocator, Runtime.getRuntime().availableProcessors());
+   }
+
+
+   /**
+    * Same as above, with <TT>numThreads</TT> threads.
+    *
+    * @param factory the factory creating the replications.
+    *
+    *    @param allocator the allocator giving the streams of each replication.
+    *
+    *    @param numThreads the number of threads.
+    *
+    *    @exception IllegalArgumentException if <TT>numThreads</TT> is smaller
+    *     than 1.
+    *
+    */
+   public ReplicationRunner (ReplicationFactory factory,
+                             RandomStreamAllocator allocator,
+                             int numThreads) {
+      if (numThreads < 1)
+         throw new IllegalArgumentException
+            ("The number of threads must be at least 1");
+      this.factory = factory;
+      this.allocator = allocator;
+      this.numThreads = numThreads;
+   }
+
+
+   /**
+    * Returns the number of threads used to simulate the replications.
+    *
+    * @return the number of threads.
+    *
+    */
+   public int getNumThreads() {
+      return numThreads;
+   }
+
+
+   /**
+    * Simulates the <TT>n</TT> replications numbered <TT>first</TT>,
+    * ..., <TT>first + n - 1</TT>, and returns their observations:
+    * element <SPAN CLASS="MATH"><I>i</I></SPAN> of the returned array contains the observations returned
+    * by replication <TT>first + <SPAN CLASS="MATH"><I>i</I></SPAN></TT>.
+    * If a replication throws an exception, the threads stop taking new
+    * replications, and this exception is thrown by this method
+    * once they have finished.
+    *
+    * @param first the number of the first replication.
+    *
+    *    @param n the number of replications.
+    *
+    *    @return the observations of each replication.
+    *
+    *    @exception IllegalArgumentException if <TT>first</TT> or <TT>n</TT>
+    *     is negative.
+    *
+    */
+   public double[][] simulateRuns (int first, int n) {
+      if (first < 0 || n < 0)
+         throw new IllegalArgumentException
+            ("The replication numbers must not be negative");
+      final double[][] obs = new double[n][];
+      final AtomicInteger next = new AtomicInteger();
+      final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+      int nt = Math.min (numThreads, n);
+      if (nt <= 1) {
+         simulate (first, obs, next, error);
+         return obs;
+      }
+      Thread[] threads = new Thread[nt];
+      for (int i = 0; i < nt; i++) {
+         final int start = first;
+         threads[i] = new Thread (new Runnable() {
+            public void run() {
+               try {
+                  simulate (start, obs, next, error);
+               } catch (Throwable e) {
+                  error.compareAndSet (null, e);
+               }
+            }
+         }, "ReplicationRunner-" + i);
+         threads[i].setDaemon (true);
+         threads[i].start();
+      }
+      boolean interrupted = false;
+      for (int i = 0; i < nt; i++) {
+         while (true) {
+            try {
+               threads[i].join();
+               break;
+            } catch (InterruptedException e) {
+               interrupted = true;
+            }
+         }
+      }
+      if (interrupted)
+         Thread.currentThread().interrupt();
+      Throwable e = error.get();
+      if (e instanceof RuntimeException)
+         throw (RuntimeException)e;
+      if (e instanceof Error)
+         throw (Error)e;
+      return obs;
+   }
+
+
+   /**
+    * Equivalent to <TT>simulateRuns (0, n)</TT>.
+    *
+    * @param n the number of replications.
+    *
+    *    @return the observations of each replication.
+    *
+    */
+   public double[][] simulateRuns (int n) {
+      return simulateRuns (0, n);
+   }
+
+
+   /**
+    * Simulates the replications numbered <TT>first</TT>,
+    * ..., <TT>first + n - 1</TT>, and adds their observations to
+    * <TT>stats</TT>, in increasing order of replication number.
+    * Observation <SPAN CLASS="MATH"><I>j</I></SPAN> of each replication is thus added to tally <SPAN CLASS="MATH"><I>j</I></SPAN> of
+    * <TT>stats</TT>, exactly as the sequential loop
+    * <TT>for (r = first; r < first + n; r++) stats.add (...)</TT> would.
+    *
+    * @param first the number of the first replication.
+    *
+    *    @param n the number of replications.
+    *
+    *    @param stats the list of tallies receiving the observations.
+    *
+    *    @exception IllegalArgumentException if <TT>first</TT> or <TT>n</TT>
+    *     is negative, or if a replication returns a number of observations
+    *     different from the size of <TT>stats</TT>.
+    *
+    */
+   public void simulateRuns (int first, int n,
+                             ListOfTallies<? extends Tally> stats) {
+      double[][] obs = simulateRuns (first, n);
+      for (int i = 0; i < n; i++)
+         stats.add (obs[i]);
+   }
+
+
+   /**
+    * Equivalent to <TT>simulateRuns (0, n, stats)</TT>.
+    *
+    * @param n the number of replications.
+    *
+    *    @param stats the list of tallies receiving the observations.
+    *
+    */
+   public void simulateRuns (int n, ListOfTallies<? extends Tally> stats) {
+      simulateRuns (0, n, stats);
+   }
+
+
+   // Simulates replications first + r, taking r from next, until all
+   // replications are taken or some replication has failed.
+   private void simulate (int first, double[][] obs, AtomicInteger next,
+                          AtomicReference<Throwable> error) {
+      Replication rep = factory.newInstance();
+      Simulator sim = new Simulator();
+      int r;
+      while (error.get() == null && (r = next.getAndIncrement()) < obs.length) {
+         sim.init();
+         double[] x = rep.simulate (sim, allocator.getStreams (first + r));
+         obs[r] = x.clone();
+      }
+   }
+
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer (getClass().getName());
+      sb.append ('[');
+      sb.append ("number of threads: ").append (numThreads);
+      sb.append (", ").append (allocator);
+      sb.append (']');
+      return sb.toString();
+   }
+}
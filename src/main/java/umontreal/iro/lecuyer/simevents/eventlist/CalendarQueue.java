@@ -0,0 +1,572 @@
+
+
+/*
+ * Class:        CalendarQueue
+ * Description:  implementation of class EventList using a calendar queue
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.simevents.eventlist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import umontreal.iro.lecuyer.util.PrintfFormat;
+import umontreal.iro.lecuyer.simevents.Event;
+
+
+/**
+ * An implementation of {@link EventList} using the calendar queue of
+ * Brown.
+ * The time axis is divided into <EM>days</EM> of equal width, and the days
+ * are distributed cyclically over an array of buckets, as the days of a
+ * year over the pages of a calendar. Each bucket contains a doubly linked
+ * list of the events of its days, sorted as in {@link DoublyLinked}.
+ * The first event is found by scanning the buckets from the current day.
+ * The number of buckets is doubled or halved as the number of events
+ * changes, and the day width is then estimated from the gaps between the
+ * next events to occur, so that each bucket contains a few events. Adding an
+ * event and removing the first event then take constant amortized time
+ * for most event time distributions, even with hundreds of thousands of
+ * pending events.
+ * Events occurring at the same time are kept in the same order as with the
+ * other implementations.
+ * List nodes are recycled for increased memory management efficiency.
+ *
+ */
+public class CalendarQueue implements EventList {
+   private static final int MIN_BUCKETS = 2;
+   private static final int MAX_BUCKETS = 1 << 30;
+   private static final long MAX_DAY = Long.MAX_VALUE / 4;
+   private static final int NUM_SAMPLES = 25;
+
+   private int modCount = 0;
+
+   private Node[] heads, tails;  // first and last node of each bucket
+   private int mask;             // number of buckets - 1
+   private double width = 1.0;   // width of a day
+   private long curDay;          // no event occurs before this day
+   private int size = 0;
+   private Node free = null;     // Pointer to stack of free nodes.
+   // number of operations, and of nodes and buckets they examined,
+   // since the last estimation of the day width
+   private int numOps = 0;
+   private long numSteps = 0;
+
+
+   /**
+    * Constructs an empty calendar queue.
+    *
+    */
+   public CalendarQueue() {
+      heads = new Node[MIN_BUCKETS];
+      tails = new Node[MIN_BUCKETS];
+      mask = MIN_BUCKETS - 1;
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   public void clear() {
+      if (size == 0)
+         return;
+      for (int i = 0; i <= mask; i++) {
+         if (heads[i] != null) {
+            for (Node node = heads[i]; node != null; node = node.succ)
+               node.ev = null;
+            tails[i].succ = free;   free = heads[i];
+            heads[i] = tails[i] = null;
+         }
+      }
+      size = 0;
+      ++modCount;
+   }
+
+   public void add (Event ev) {
+      Node newNode = newNode (ev, dayOf (ev.time()));
+      int i = (int)newNode.day & mask;
+      Node node = tails[i];
+      int steps = 0;
+      // Finds the occurrence time of the new event.
+      while (node != null && ev.compareTo (node.ev) < 0) {
+         node = node.prec;
+         ++steps;
+      }
+      insertAfter (newNode, node, i);
+      added (newNode);
+      countOp (steps);
+   }
+
+   public void addFirst (Event ev) {
+      Node newNode = newNode (ev, dayOf (ev.time()));
+      int i = (int)newNode.day & mask;
+      // insert before the events occurring at the same time or later
+      Node node = tails[i];
+      int steps = 0;
+      while (node != null && node.ev.time() >= ev.time()) {
+         node = node.prec;
+         ++steps;
+      }
+      insertAfter (newNode, node, i);
+      added (newNode);
+      countOp (steps);
+   }
+
+   public void addBefore (Event ev, Event other) {
+      Node node = findNode (other);
+      if (node == null)
+         throw new IllegalArgumentException ("Event not in list.");
+      Node newNode = newNode (ev, node.day);
+      insertAfter (newNode, node.prec, (int)node.day & mask);
+      added (newNode);
+   }
+
+   public void addAfter (Event ev, Event other) {
+      Node node = findNode (other);
+      if (node == null)
+         throw new IllegalArgumentException ("Event not in list.");
+      Node newNode = newNode (ev, node.day);
+      insertAfter (newNode, node, (int)node.day & mask);
+      added (newNode);
+   }
+
+   public Event getFirst() {
+      Node node = firstNode();
+      return node == null ? null : node.ev;
+   }
+
+   public Event getFirstOfClass (String cl) {
+      Node first = null;
+      for (int i = 0; i <= mask; i++) {
+         for (Node node = heads[i]; node != null; node = node.succ) {
+            if (first != null && node.day >= first.day)
+               break;
+            if (node.ev.getClass().getName().equals (cl)) {
+               first = node;
+               break;
+            }
+         }
+      }
+      return first == null ? null : first.ev;
+   }
+
+   @SuppressWarnings("unchecked")
+   public <E extends Event> E getFirstOfClass (Class<E> cl) {
+      Node first = null;
+      for (int i = 0; i <= mask; i++) {
+         for (Node node = heads[i]; node != null; node = node.succ) {
+            if (first != null && node.day >= first.day)
+               break;
+            if (node.ev.getClass() == cl) {
+               first = node;
+               break;
+            }
+         }
+      }
+      return first == null ? null : (E)first.ev;
+   }
+
+   public boolean remove (Event ev) {
+      Node node = findNode (ev);
+      if (node == null)
+         return false;
+      unlink (node);
+      recycle (node);
+      ++modCount;
+      if (size < (mask + 1)/2 && mask + 1 > MIN_BUCKETS)
+         resize ((mask + 1)/2);
+      return true;
+   }
+
+   public Event removeFirst() {
+      Node node = firstNode();
+      if (node == null)
+         return null;
+      Event ev = node.ev;
+      unlink (node);
+      recycle (node);
+      ++modCount;
+      if (size < (mask + 1)/2 && mask + 1 > MIN_BUCKETS)
+         resize ((mask + 1)/2);
+      else
+         countOp (0);
+      return ev;
+   }
+
+   public Iterator<Event> iterator() {
+      return listIterator();
+   }
+
+   public ListIterator<Event> listIterator() {
+      return new CQItr();
+   }
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer ("Contents of the event list CalendarQueue:");
+      for (Node node : sortedNodes()) {
+         sb.append (PrintfFormat.NEWLINE +
+                    PrintfFormat.g (12, 7, node.ev.time()) + ", " +
+                    PrintfFormat.g (8, 4, node.ev.priority()) + " : " +
+                    node.ev.toString());
+      }
+      return sb.toString();
+   }
+
+   // A element of the event list. This node contains the event ev,
+   // which occurs during the given day.
+   // His predecessor and successor in the bucket are prec and succ.
+   private static class Node {
+      Event ev;
+      long day;
+      Node prec, succ;
+   }
+
+   private long dayOf (double time) {
+      double d = Math.floor (time / width);
+      if (d >= MAX_DAY)
+         return MAX_DAY;
+      if (d <= -MAX_DAY)
+         return -MAX_DAY;
+      return (long)d;
+   }
+
+   private Node newNode (Event ev, long day) {
+      Node node;
+      if (free == null)
+         node = new Node();
+      else {
+         node = free;
+         free = free.succ;
+      }
+      node.ev = ev;
+      node.day = day;
+      return node;
+   }
+
+   private void recycle (Node node) {
+      node.ev = null;
+      node.prec = null;
+      node.succ = free;  free = node;
+   }
+
+   // Inserts node after prec in bucket i, or first if prec is null.
+   private void insertAfter (Node node, Node prec, int i) {
+      node.prec = prec;
+      if (prec == null) {
+         node.succ = heads[i];
+         heads[i] = node;
+      }
+      else {
+         node.succ = prec.succ;
+         prec.succ = node;
+      }
+      if (node.succ != null)
+         node.succ.prec = node;
+      else
+         tails[i] = node;
+   }
+
+   private void unlink (Node node) {
+      int i = (int)node.day & mask;
+      if (node.prec != null)
+         node.prec.succ = node.succ;
+      else
+         heads[i] = node.succ;
+      if (node.succ != null)
+         node.succ.prec = node.prec;
+      else
+         tails[i] = node.prec;
+      --size;
+   }
+
+   // Called after the insertion of node.
+   private void added (Node node) {
+      if (size == 0 || node.day < curDay)
+         curDay = node.day;
+      ++size;
+      ++modCount;
+      if (size > 2*(mask + 1) && mask + 1 < MAX_BUCKETS)
+         resize (2*(mask + 1));
+   }
+
+   private Node findNode (Event ev) {
+      if (size == 0)
+         return null;
+      Node node = tails[(int)dayOf (ev.time()) & mask];
+      while (node != null && node.ev.time() >= ev.time() && node.ev != ev)
+         node = node.prec;
+      if (node == null || node.ev != ev)
+         return null;
+      return node;
+   }
+
+   // Returns the node of the first event, and moves curDay to its day.
+   private Node firstNode() {
+      if (size == 0)
+         return null;
+      long day = curDay;
+      for (int k = 0; k <= mask; k++, day++) {
+         Node node = heads[(int)day & mask];
+         if (node != null && node.day <= day) {
+            curDay = day;
+            numSteps += k;
+            return node;
+         }
+      }
+      // No event in the next year, direct search.
+      numSteps += 2*(mask + 1);
+      Node first = null;
+      for (int i = 0; i <= mask; i++)
+         if (heads[i] != null && (first == null || heads[i].day < first.day))
+            first = heads[i];
+      curDay = first.day;
+      return first;
+   }
+
+   // Estimates the day width again if the operations examine too many
+   // nodes or buckets on average.
+   private void countOp (int steps) {
+      numSteps += steps;
+      if (++numOps < 2*(mask + 1) + NUM_SAMPLES)
+         return;
+      if (numSteps > 10L*numOps)
+         resize (mask + 1);
+      numOps = 0;
+      numSteps = 0;
+   }
+
+   private void resize (int nb) {
+      numOps = 0;
+      numSteps = 0;
+      // Takes out the next events to estimate the day width.
+      int ns = Math.min (size, NUM_SAMPLES);
+      Node[] sample = new Node[ns];
+      for (int k = 0; k < ns; k++) {
+         sample[k] = firstNode();
+         unlink (sample[k]);
+      }
+      width = newWidth (sample);
+
+      Node[] oldHeads = heads;
+      heads = new Node[nb];
+      tails = new Node[nb];
+      mask = nb - 1;
+      size = 0;
+      // The sampled events are inserted first, since they come first
+      // among the events occurring at the same time.
+      for (int k = 0; k < ns; k++)
+         rehash (sample[k]);
+      for (int i = 0; i < oldHeads.length; i++) {
+         Node node = oldHeads[i];
+         while (node != null) {
+            Node succ = node.succ;
+            rehash (node);
+            node = succ;
+         }
+      }
+   }
+
+   // Inserts node in the new buckets, after the events occurring at the
+   // same time or earlier which have already been inserted.
+   private void rehash (Node node) {
+      node.day = dayOf (node.ev.time());
+      int i = (int)node.day & mask;
+      Node prec = tails[i];
+      while (prec != null && node.ev.time() < prec.ev.time())
+         prec = prec.prec;
+      insertAfter (node, prec, i);
+      if (size == 0 || node.day < curDay)
+         curDay = node.day;
+      ++size;
+   }
+
+   // Three times the average gap between the sampled event times,
+   // ignoring the gaps larger than twice the average.
+   // If most of the sampled events occur at the same time as the previous
+   // one, the smallest positive gap instead, so that the events occurring
+   // at different times are in different days.
+   private double newWidth (Node[] sample) {
+      int ns = sample.length;
+      if (ns < 2)
+         return width;
+      int ties = 0;
+      double minGap = Double.POSITIVE_INFINITY;
+      for (int k = 1; k < ns; k++) {
+         double gap = sample[k].ev.time() - sample[k-1].ev.time();
+         if (gap <= 0.0)
+            ++ties;
+         else if (gap < minGap)
+            minGap = gap;
+      }
+      if (2*ties > ns - 1)
+         return Double.isInfinite (minGap) ? width : minGap;
+      double avg = (sample[ns-1].ev.time() - sample[0].ev.time())/(ns - 1);
+      double sum = 0.0;
+      int n = 0;
+      for (int k = 1; k < ns; k++) {
+         double gap = sample[k].ev.time() - sample[k-1].ev.time();
+         if (gap <= 2.0*avg) {
+            sum += gap;
+            n++;
+         }
+      }
+      double w = n > 0 ? 3.0*sum/n : 0.0;
+      if (w > 0.0 && !Double.isInfinite (w) && !Double.isNaN (w))
+         return w;
+      return width;
+   }
+
+   // All the nodes, in the order of the events. The nodes of a given day
+   // are in the same bucket, in the right order, so a stable sort by day
+   // is sufficient.
+   private Node[] sortedNodes() {
+      Node[] nodes = new Node[size];
+      int n = 0;
+      for (int i = 0; i <= mask; i++)
+         for (Node node = heads[i]; node != null; node = node.succ)
+            nodes[n++] = node;
+      Arrays.sort (nodes, new Comparator<Node>() {
+         public int compare (Node a, Node b) {
+            return a.day < b.day ? -1 : (a.day > b.day ? 1 : 0);
+         }
+      });
+      return nodes;
+   }
+
+   // Iterates over a copy of the list, in the order of the events.
+   // The modifications made through the iterator are applied to the list.
+   private class CQItr implements ListIterator<Event> {
+      private ArrayList<Event> events;
+      private int expectedModCount;
+      private int nextIndex;
+      private int lastRet;
+
+      CQItr() {
+         Node[] nodes = sortedNodes();
+         events = new ArrayList<Event> (nodes.length);
+         for (Node node : nodes)
+            events.add (node.ev);
+         expectedModCount = modCount;
+         nextIndex = 0;
+         lastRet = -1;
+      }
+
+      public void add (Event ev) {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+
+         Event prev = nextIndex > 0 ? events.get (nextIndex - 1) : null;
+         Event next = nextIndex < events.size() ? events.get (nextIndex) : null;
+         insert (ev, prev, next);
+         events.add (nextIndex, ev);
+         ++nextIndex;
+         lastRet = -1;
+         expectedModCount = modCount;
+      }
+
+      public boolean hasNext() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         return nextIndex < events.size();
+      }
+
+      public boolean hasPrevious() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         return nextIndex > 0;
+      }
+
+      public Event next() {
+         if (!hasNext())
+            throw new NoSuchElementException();
+         lastRet = nextIndex++;
+         return events.get (lastRet);
+      }
+
+      public int nextIndex() {
+         return nextIndex;
+      }
+
+      public Event previous() {
+         if (!hasPrevious())
+            throw new NoSuchElementException();
+         lastRet = --nextIndex;
+         return events.get (lastRet);
+      }
+
+      public int previousIndex() {
+         return nextIndex - 1;
+      }
+
+      public void remove() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         if (lastRet < 0)
+            throw new IllegalStateException();
+
+         CalendarQueue.this.remove (events.remove (lastRet));
+         if (lastRet < nextIndex)
+            --nextIndex;
+         lastRet = -1;
+         expectedModCount = modCount;
+      }
+
+      public void set (Event ev) {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         if (lastRet < 0)
+            throw new IllegalStateException();
+
+         Event prev = lastRet > 0 ? events.get (lastRet - 1) : null;
+         Event next = lastRet + 1 < events.size() ?
+                      events.get (lastRet + 1) : null;
+         CalendarQueue.this.remove (events.get (lastRet));
+         insert (ev, prev, next);
+         events.set (lastRet, ev);
+         expectedModCount = modCount;
+      }
+
+      // Inserts ev between the events prev and next, which are adjacent
+      // in the list, after adjusting its time and priority as in
+      // DoublyLinked.
+      private void insert (Event ev, Event prev, Event next) {
+         if (next != null && ev.compareTo (next) > 0) {
+            ev.setTime (next.time());
+            ev.setPriority (next.priority());
+         }
+         if (prev != null && ev.compareTo (prev) < 0) {
+            ev.setTime (prev.time());
+            ev.setPriority (prev.priority());
+         }
+         if (prev != null && ev.time() == prev.time())
+            addAfter (ev, prev);
+         else if (next != null && ev.time() == next.time())
+            addBefore (ev, next);
+         else
+            CalendarQueue.this.add (ev);
+      }
+   }
+}
@@ -0,0 +1,491 @@
+
+
+/*
+ * Class:        DaryHeap
+ * Description:  implementation of class EventList using a d-ary heap
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.simevents.eventlist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import umontreal.iro.lecuyer.util.PrintfFormat;
+import umontreal.iro.lecuyer.simevents.Event;
+
+
+/**
+ * An implementation of {@link EventList} using a <SPAN CLASS="MATH"><I>d</I></SPAN>-ary heap stored in
+ * arrays. The events are kept in an array, and their times,
+ * priorities and insertion numbers, which determine their order, in
+ * parallel arrays of primitive type, so adding an event does not create
+ * any object, except when the arrays must grow.
+ * Each event stores its position in the heap, so it can be removed
+ * (canceled or rescheduled) without searching the list.
+ * Adding an event and removing any event take
+ * <SPAN CLASS="MATH"><I>O</I>(log<SUB>d</SUB><I>n</I>)</SPAN> time, where <SPAN CLASS="MATH"><I>n</I></SPAN> is the number of events
+ * in the list. The methods <TT>addBefore</TT>, <TT>addAfter</TT> and
+ * <TT>getFirstOfClass</TT> take linear time.
+ * Events occurring at the same time with the same priority are kept in
+ * the order they were added, as with {@link DoublyLinked}, and
+ * <TT>addFirst</TT> places an event before the other events occurring
+ * at the same time. As with the other event lists, this event keeps its
+ * priority with respect to the events added later: one of them with the
+ * same time and a smaller priority occurs before it.
+ *
+ */
+public class DaryHeap implements EventList {
+   private static final long GAP = 1L << 16;  // between insertion numbers
+
+   private int modCount = 0;
+
+   private final int d;           // number of children of each node
+   private int size = 0;
+   private Event[] events;
+   private double[] times;
+   private double[] prios;
+   private long[] seqs;           // insertion numbers
+   private long lastSeq = 0;      // largest insertion number
+   private long firstSeq = 0;     // of the last event added with addFirst
+
+
+   /**
+    * Constructs an empty 4-ary heap.
+    *
+    */
+   public DaryHeap() {
+      this (4);
+   }
+
+
+   /**
+    * Constructs an empty <SPAN CLASS="MATH"><I>d</I></SPAN>-ary heap, in which each node has
+    *    <SPAN CLASS="MATH"><I>d</I></SPAN> children. With <SPAN CLASS="MATH"><I>d</I> = 2</SPAN>, this is a binary heap.
+    *
+    * @param d the number of children of each node
+    *
+    *    @exception IllegalArgumentException if <SPAN CLASS="MATH"><I>d</I> &lt; 2</SPAN>.
+    *
+    *
+    */
+   public DaryHeap (int d) {
+      if (d < 2)
+         throw new IllegalArgumentException ("d must be at least 2");
+      this.d = d;
+      events = new Event[16];
+      times = new double[16];
+      prios = new double[16];
+      seqs = new long[16];
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   public void clear() {
+      for (int i = 0; i < size; i++) {
+         events[i].setHeapIndex (-1);
+         events[i] = null;
+      }
+      size = 0;
+      lastSeq = firstSeq = 0;
+      ++modCount;
+   }
+
+   public void add (Event ev) {
+      lastSeq += GAP;
+      insert (ev, ev.time(), ev.priority(), lastSeq);
+   }
+
+   public void addFirst (Event ev) {
+      // The event must come before the first one if they occur at the same
+      // time, even if it has a larger priority, as in DoublyLinked. Its
+      // priority is then lowered to the one of the first event, which is
+      // the smallest among the events at this time.
+      double prio = ev.priority();
+      if (size > 0 && times[0] == ev.time() && prios[0] < prio)
+         prio = prios[0];
+      firstSeq -= GAP;
+      insert (ev, ev.time(), prio, firstSeq);
+   }
+
+   public void addBefore (Event ev, Event other) {
+      int i = indexOf (other);
+      if (i < 0)
+         throw new IllegalArgumentException ("Event not in list.");
+      long seq = seqBetween (i, false);
+      insert (ev, times[i], prios[i], seq);
+   }
+
+   public void addAfter (Event ev, Event other) {
+      int i = indexOf (other);
+      if (i < 0)
+         throw new IllegalArgumentException ("Event not in list.");
+      long seq = seqBetween (i, true);
+      insert (ev, times[i], prios[i], seq);
+   }
+
+   public Event getFirst() {
+      return size == 0 ? null : events[0];
+   }
+
+   public Event getFirstOfClass (String cl) {
+      int first = -1;
+      for (int i = 0; i < size; i++)
+         if (events[i].getClass().getName().equals (cl) &&
+             (first < 0 || less (i, first)))
+            first = i;
+      return first < 0 ? null : events[first];
+   }
+
+   @SuppressWarnings("unchecked")
+   public <E extends Event> E getFirstOfClass (Class<E> cl) {
+      int first = -1;
+      for (int i = 0; i < size; i++)
+         if (events[i].getClass() == cl && (first < 0 || less (i, first)))
+            first = i;
+      return first < 0 ? null : (E)events[first];
+   }
+
+   public boolean remove (Event ev) {
+      int i = indexOf (ev);
+      if (i < 0)
+         return false;
+      removeAt (i);
+      return true;
+   }
+
+   public Event removeFirst() {
+      if (size == 0)
+         return null;
+      Event ev = events[0];
+      removeAt (0);
+      return ev;
+   }
+
+   public Iterator<Event> iterator() {
+      return listIterator();
+   }
+
+   public ListIterator<Event> listIterator() {
+      return new DHItr();
+   }
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer ("Contents of the event list DaryHeap:");
+      for (Event ev : sortedEvents()) {
+         sb.append (PrintfFormat.NEWLINE +
+                    PrintfFormat.g (12, 7, ev.time()) + ", " +
+                    PrintfFormat.g (8, 4, ev.priority()) + " : " +
+                    ev.toString());
+      }
+      return sb.toString();
+   }
+
+   // Returns the position of ev in the heap, or -1 if it is not in the heap.
+   private int indexOf (Event ev) {
+      int i = ev.getHeapIndex();
+      if (i < 0 || i >= size || events[i] != ev)
+         return -1;
+      return i;
+   }
+
+   // true if the event at position i must occur before the one at j.
+   private boolean less (int i, int j) {
+      if (times[i] != times[j])
+         return times[i] < times[j];
+      if (prios[i] != prios[j])
+         return prios[i] < prios[j];
+      return seqs[i] < seqs[j];
+   }
+
+   private void insert (Event ev, double time, double prio, long seq) {
+      if (size == events.length) {
+         int n = 2*size;
+         events = Arrays.copyOf (events, n);
+         times = Arrays.copyOf (times, n);
+         prios = Arrays.copyOf (prios, n);
+         seqs = Arrays.copyOf (seqs, n);
+      }
+      int i = size++;
+      events[i] = ev;
+      times[i] = time;
+      prios[i] = prio;
+      seqs[i] = seq;
+      siftUp (i);
+      ++modCount;
+   }
+
+   private void removeAt (int i) {
+      Event ev = events[i];
+      int last = --size;
+      if (i != last) {
+         move (last, i);
+         if (i > 0 && less (i, (i - 1)/d))
+            siftUp (i);
+         else
+            siftDown (i);
+      }
+      events[last] = null;
+      ev.setHeapIndex (-1);
+      ++modCount;
+   }
+
+   private void move (int from, int to) {
+      events[to] = events[from];
+      times[to] = times[from];
+      prios[to] = prios[from];
+      seqs[to] = seqs[from];
+      events[to].setHeapIndex (to);
+   }
+
+   private void siftUp (int i) {
+      Event ev = events[i];
+      double time = times[i];
+      double prio = prios[i];
+      long seq = seqs[i];
+      while (i > 0) {
+         int p = (i - 1)/d;
+         if (time > times[p] || (time == times[p] &&
+             (prio > prios[p] || (prio == prios[p] && seq > seqs[p]))))
+            break;
+         move (p, i);
+         i = p;
+      }
+      events[i] = ev;
+      times[i] = time;
+      prios[i] = prio;
+      seqs[i] = seq;
+      ev.setHeapIndex (i);
+   }
+
+   private void siftDown (int i) {
+      Event ev = events[i];
+      double time = times[i];
+      double prio = prios[i];
+      long seq = seqs[i];
+      while (true) {
+         int c = d*i + 1;
+         if (c >= size)
+            break;
+         // finds the smallest child
+         int end = Math.min (c + d, size);
+         int m = c;
+         for (int k = c + 1; k < end; k++)
+            if (less (k, m))
+               m = k;
+         if (time < times[m] || (time == times[m] &&
+             (prio < prios[m] || (prio == prios[m] && seq < seqs[m]))))
+            break;
+         move (m, i);
+         i = m;
+      }
+      events[i] = ev;
+      times[i] = time;
+      prios[i] = prio;
+      seqs[i] = seq;
+      ev.setHeapIndex (i);
+   }
+
+   // Returns an insertion number between the one of the event at
+   // position i and the next one (if after) or the previous one
+   // (otherwise) among the events with the same time and priority.
+   private long seqBetween (int i, boolean after) {
+      while (true) {
+         long s = seqs[i];
+         boolean found = false;
+         long bound = 0;
+         for (int j = 0; j < size; j++) {
+            if (times[j] != times[i] || prios[j] != prios[i])
+               continue;
+            if (after ? seqs[j] > s && (!found || seqs[j] < bound)
+                      : seqs[j] < s && (!found || seqs[j] > bound)) {
+               bound = seqs[j];
+               found = true;
+            }
+         }
+         if (!found) {
+            if (after) {
+               s += GAP;
+               if (s > lastSeq)
+                  lastSeq = s;
+            }
+            else {
+               s -= GAP;
+               if (s < firstSeq)
+                  firstSeq = s;
+            }
+            return s;
+         }
+         if (Math.abs (bound - s) >= 2)
+            return s + (bound - s)/2;
+         renumber (times[i], prios[i]);
+      }
+   }
+
+   // Gives new insertion numbers, in the same order and separated by GAP,
+   // to the events with the given time and priority.
+   private void renumber (double time, double prio) {
+      int n = 0;
+      for (int j = 0; j < size; j++)
+         if (times[j] == time && prios[j] == prio)
+            ++n;
+      long[] group = new long[n];
+      n = 0;
+      for (int j = 0; j < size; j++)
+         if (times[j] == time && prios[j] == prio)
+            group[n++] = seqs[j];
+      Arrays.sort (group);
+      for (int j = 0; j < size; j++)
+         if (times[j] == time && prios[j] == prio)
+            seqs[j] = lastSeq + GAP*(1 + Arrays.binarySearch (group, seqs[j]));
+      lastSeq += GAP*(n + 1);
+   }
+
+   // The events, in the order they will occur.
+   private Event[] sortedEvents() {
+      Event[] evs = Arrays.copyOf (events, size);
+      Arrays.sort (evs, new Comparator<Event>() {
+         public int compare (Event a, Event b) {
+            int i = a.getHeapIndex();
+            int j = b.getHeapIndex();
+            return less (i, j) ? -1 : (less (j, i) ? 1 : 0);
+         }
+      });
+      return evs;
+   }
+
+   // Iterates over a copy of the list, in the order of the events.
+   // The modifications made through the iterator are applied to the list.
+   private class DHItr implements ListIterator<Event> {
+      private ArrayList<Event> events;
+      private int expectedModCount;
+      private int nextIndex;
+      private int lastRet;
+
+      DHItr() {
+         events = new ArrayList<Event> (Arrays.asList (sortedEvents()));
+         expectedModCount = modCount;
+         nextIndex = 0;
+         lastRet = -1;
+      }
+
+      public void add (Event ev) {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+
+         Event prev = nextIndex > 0 ? events.get (nextIndex - 1) : null;
+         Event next = nextIndex < events.size() ? events.get (nextIndex) : null;
+         insert (ev, prev, next);
+         events.add (nextIndex, ev);
+         ++nextIndex;
+         lastRet = -1;
+         expectedModCount = modCount;
+      }
+
+      public boolean hasNext() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         return nextIndex < events.size();
+      }
+
+      public boolean hasPrevious() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         return nextIndex > 0;
+      }
+
+      public Event next() {
+         if (!hasNext())
+            throw new NoSuchElementException();
+         lastRet = nextIndex++;
+         return events.get (lastRet);
+      }
+
+      public int nextIndex() {
+         return nextIndex;
+      }
+
+      public Event previous() {
+         if (!hasPrevious())
+            throw new NoSuchElementException();
+         lastRet = --nextIndex;
+         return events.get (lastRet);
+      }
+
+      public int previousIndex() {
+         return nextIndex - 1;
+      }
+
+      public void remove() {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         if (lastRet < 0)
+            throw new IllegalStateException();
+
+         DaryHeap.this.remove (events.remove (lastRet));
+         if (lastRet < nextIndex)
+            --nextIndex;
+         lastRet = -1;
+         expectedModCount = modCount;
+      }
+
+      public void set (Event ev) {
+         if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+         if (lastRet < 0)
+            throw new IllegalStateException();
+
+         Event prev = lastRet > 0 ? events.get (lastRet - 1) : null;
+         Event next = lastRet + 1 < events.size() ?
+                      events.get (lastRet + 1) : null;
+         DaryHeap.this.remove (events.get (lastRet));
+         insert (ev, prev, next);
+         events.set (lastRet, ev);
+         expectedModCount = modCount;
+      }
+
+      // Inserts ev between the events prev and next, which are adjacent
+      // in the list, after adjusting its time and priority as in
+      // DoublyLinked.
+      private void insert (Event ev, Event prev, Event next) {
+         if (next != null && ev.compareTo (next) > 0) {
+            ev.setTime (next.time());
+            ev.setPriority (next.priority());
+         }
+         if (prev != null && ev.compareTo (prev) < 0) {
+            ev.setTime (prev.time());
+            ev.setPriority (prev.priority());
+         }
+         if (prev != null && ev.compareTo (prev) == 0)
+            addAfter (ev, prev);
+         else if (next != null && ev.compareTo (next) == 0)
+            addBefore (ev, next);
+         else
+            DaryHeap.this.add (ev);
+      }
+   }
+}
@@ -174,6 +174,8 @@ public abstract class ProcessSimulator extends Simulator  {
     *   The given class must not be abstract, and must have a no-argument constructor.
     *   Otherwise, if the <TT>ssj.withThread</TT> system property is set, this returns a
     *   {@link ThreadProcessSimulator}.
+    *   Otherwise, if the <TT>ssj.withVirtualThreads</TT> system property is set, this
+    *   returns a {@link VirtualThreadProcessSimulator}.
     *   Otherwise, if the <TT>ssj.withDSOL</TT> system property is set, this
     *   returns a {@link DSOLProcessSimulator} instance.
     *   If no system property is set, this returns a {@link ThreadProcessSimulator}.
@@ -196,6 +198,8 @@ public abstract class ProcessSimulator extends Simulator  {
       }
       else if(System.getProperty("ssj.withThread") != null)
          return new ThreadProcessSimulator();
+      else if(System.getProperty("ssj.withVirtualThreads") != null)
+         return new VirtualThreadProcessSimulator();
       else if (System.getProperty("ssj.withDSOL") != null)
          return new DSOLProcessSimulator();
       else
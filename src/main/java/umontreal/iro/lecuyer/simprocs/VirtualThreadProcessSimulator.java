@@ -0,0 +1,445 @@
+
+
+/*
+ * Class:        VirtualThreadProcessSimulator
+ * Description:  process simulator using virtual threads with direct handoff
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.simprocs;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.locks.LockSupport;
+import umontreal.iro.lecuyer.simevents.Event;
+import umontreal.iro.lecuyer.simevents.eventlist.EventList;
+
+
+/**
+ * Represents a process simulator using one lightweight thread per process,
+ * with the same semantics as {@link ThreadProcessSimulator}.
+ * When the Java virtual machine supports virtual threads (Java 21 and later),
+ * each process runs in a virtual thread, so that models with tens of
+ * thousands of simultaneous processes do not need one operating-system
+ * thread, with its own stack, per process.
+ * Otherwise, daemon platform threads are used, as in
+ * {@link ThreadProcessSimulator}.
+ *
+ * <P>
+ * Only one thread runs at a time: the thread giving the control away hands it
+ * directly to the next one, using
+ * {@link java.util.concurrent.locks.LockSupport#unpark LockSupport.unpark},
+ * and parks until it gets the control back. No lock is held
+ * during the simulation.
+ * The threads of processes that are dead are reused for new processes.
+ *
+ * <P>
+ * When a process calls <TT>kill</TT> on itself, it terminates immediately.
+ * Killing another process terminates it before <TT>kill</TT> returns.
+ * The <TT>init</TT> methods kill the processes still alive from the previous
+ * simulation run, so their threads can be reused.
+ *
+ */
+public class VirtualThreadProcessSimulator extends ProcessSimulator  {
+
+   private VirtualSimThread threadAllHead = null;
+   // Head of the list of all the VirtualSimThread of this simulator
+   VirtualSimThread threadFreeHead = null;
+   // Head of the list of the VirtualSimThread whose process is dead
+
+   private volatile Thread owner;
+   // The only thread allowed to run; the other ones are parked.
+   Thread executive;
+   // The thread running the start() method.
+
+   // Thread.ofVirtual() and Thread.Builder.unstarted(Runnable),
+   // null if virtual threads are not supported.
+   private static Method ofVirtual;
+   private static Method unstarted;
+   static {
+      try {
+         ofVirtual = Thread.class.getMethod ("ofVirtual");
+         unstarted = Class.forName ("java.lang.Thread$Builder").getMethod
+                        ("unstarted", Runnable.class);
+         // virtual threads may be a disabled preview feature
+         ofVirtual.invoke (null);
+      } catch (Exception e) {
+         ofVirtual = null;
+         unstarted = null;
+      }
+   }
+
+
+
+   /**
+    * Creates a new {@link VirtualThreadProcessSimulator} variable.
+    *
+    */
+   public VirtualThreadProcessSimulator()  {
+   }
+
+
+   /**
+    * Returns <TT>true</TT> if the processes run in virtual threads, and
+    *    <TT>false</TT> if they run in platform threads because the Java
+    *    virtual machine does not support virtual threads.
+    *
+    * @return <TT>true</TT> if virtual threads are used.
+    *
+    */
+   public static boolean isVirtual()  {
+      return ofVirtual != null;
+   }
+
+
+   /**
+    * Initializes the process-driven simulation using
+    *  {@link umontreal.iro.lecuyer.simevents.eventlist.SplayTree SplayTree} algorithm
+    *  as {@link umontreal.iro.lecuyer.simevents.eventlist.EventList EventList}.
+    *    This kills all processes already associated with the current variable.
+    *
+    */
+   public void init()  {
+      killAll();
+      super.init();
+   }
+
+
+   /**
+    * Initializes the process-driven simulation
+    *    using <TT>evlist</TT> variable as {@link EventList}.
+    *    This kills all processes already associated with the current variable.
+    *
+    * @param evlist EventList assigned to the current variable eventlist field
+    *
+    *
+    */
+   public void init (EventList evlist)  {
+      killAll();
+      super.init (evlist);
+   }
+
+
+   public Event createControlEvent (SimProcess process) {
+      VirtualSimThread th = threadFreeHead;
+      if (th == null) {
+         th = new VirtualSimThread (process, this);
+         th.nextAll = threadAllHead;
+         threadAllHead = th;
+         return th;
+      }
+      threadFreeHead = th.nextFree;
+      th.init (process);
+      return th;
+   }
+
+   public void delay (SimProcess process, double delay) {
+      if (currentProcess != process)
+         throw new IllegalStateException  ("Calling delay() for a process not in EXECUTING state");
+      if (delay < 0.0)
+         throw new IllegalArgumentException ("Calling delay() with negative delay");
+      process.scheduledEvent().schedule (delay);
+      ((VirtualSimThread)process.scheduledEvent()).passivate();
+   }
+
+   public void suspend (SimProcess process) {
+      VirtualSimThread ev = (VirtualSimThread)process.scheduledEvent();
+
+      if (ev == null)             // DEAD state
+         throw new IllegalStateException ("Calling suspend() for a dead process");
+
+      if (currentProcess == process) {             // EXECUTING state
+         ev.passivate();
+         return;
+      }
+
+      if (ev.time() >= 0.0 ) { // DELAYED state
+         ev.cancel();
+         ev.setTime (SimProcess.WAITING);
+         return;
+      }
+
+      if (ev.time() == SimProcess.STARTING ) // INITIAL state
+         throw new IllegalStateException
+                   ("Calling suspend() for a process in INITIAL state");
+
+                                         // SUSPENDED state
+      throw new IllegalStateException ("Calling suspend() for a suspended process");
+   }
+
+   public void kill (SimProcess process) {
+      VirtualSimThread ev = (VirtualSimThread)process.scheduledEvent();
+      if (ev == null)
+         throw new IllegalStateException ("cannot kill a DEAD process");
+      ev.kill();
+   }
+
+
+   /**
+    * Kills all processes linked to the current variable.
+    *    If this method is called by one of these processes, the
+    *    calling process is killed last.
+    *
+    */
+   public void killAll()  {
+      VirtualSimThread self = null;
+      for (VirtualSimThread th = threadAllHead; th != null; th = th.nextAll) {
+         if (th.myProcess == null)
+            continue;
+         if (th.isCurrentThread())
+            self = th;
+         else
+            th.kill();
+      }
+      if (self != null && self.myProcess != null)
+         self.kill();
+   }
+
+
+   // Executes the events preceding the next process in the event list,
+   // and returns the thread of this process, which becomes the
+   // current process. Returns the executive if the simulation is over.
+   // Its behavior is the same as the executive (see the Sim.start method).
+   Thread nextThread() {
+      Event ev;
+      while ((ev = removeFirstEvent()) != null) {
+         if (ev instanceof VirtualSimThread) {
+            // This is a process, the control will be transfered to it.
+            currentProcess = ((VirtualSimThread)ev).myProcess;
+            return ((VirtualSimThread)ev).thread();
+         }
+         else ev.actions();
+         // This event is executed by the calling process.
+      }
+      return executive;                     // Simulation is over.
+   }
+
+
+   // Gives the control to thread t, without waiting.
+   void handOff (Thread t) {
+      owner = t;
+      LockSupport.unpark (t);
+   }
+
+
+   // Waits until the calling thread gets the control.
+   void await() {
+      Thread me = Thread.currentThread();
+      boolean interrupted = false;
+      while (owner != me) {
+         LockSupport.park (this);
+         if (Thread.interrupted())
+            interrupted = true;
+      }
+      if (interrupted)
+         me.interrupt();
+   }
+
+
+   // Gives the control to thread t and waits until it comes back.
+   void transfer (Thread t) {
+      if (t == Thread.currentThread())
+         return;
+      handOff (t);
+      await();
+   }
+
+
+   // Creates a new thread, not started, which runs r.
+   static Thread newThread (Runnable r) {
+      if (ofVirtual != null) {
+         try {
+            return (Thread)unstarted.invoke (ofVirtual.invoke (null), r);
+         } catch (Exception e) {}
+      }
+      Thread t = new Thread (r);
+      t.setDaemon (true);
+      return t;
+   }
+}
+
+
+
+
+// Thrown to unwind the actions of a killed process, as SimThreadError
+// in ThreadProcessSimulator. Any other Error is not caught.
+final class VirtualSimThreadError extends Error {
+   private static final long serialVersionUID = 1L;
+   public VirtualSimThreadError() {}
+}
+
+
+// %%%%%%%%%%%%%%%%%%%%%%%%%%   VirtualSimThread   %%%%%%%%%%%%%%%%%%%%%%%%%%
+// The control event of a process, and the thread in which it runs.
+// The thread is started at the first activation of a process, and is
+// reused by the next process taking this event from the free list.
+final class VirtualSimThread extends Event implements Runnable {
+   static VirtualSimThreadError error = new VirtualSimThreadError();
+    // thrown by the passivate() method and caught by the run() method.
+    // used to kill a process and recycle its associated thread.
+
+   SimProcess myProcess;
+    // The Process to which this thread is associated.
+
+   private VirtualThreadProcessSimulator psim;
+
+   private Thread myThread;
+   // The Thread in which this object runs, null until the first activation.
+
+   private boolean started = false;
+   // true if myProcess has been activated at least once.
+
+   private boolean killed = false;
+   // true if myProcess must terminate the next time it gets the control.
+
+   private Thread killer;
+   // The thread which killed myProcess and waits for its termination,
+   // null if myProcess killed itself.
+
+   private Thread next;
+   // The thread to resume after the termination of a process which
+   // killed itself while executing events.
+
+   private boolean dispatching = false;
+   // true while the thread executes the events before passivating myProcess.
+
+    // link with the next thread in the list headed by psim.threadAllHead, used by killAll().
+   VirtualSimThread nextAll = null;
+    // link with the next thread in the free list
+   VirtualSimThread nextFree = null;
+
+   VirtualSimThread (SimProcess p, VirtualThreadProcessSimulator inSim) {
+      super (inSim);
+      psim = inSim;
+      eventTime = SimProcess.STARTING;
+      myProcess = p;
+   }
+
+   void init (SimProcess p) {
+      myProcess = p;
+      eventTime = SimProcess.STARTING;
+      priority  = 1.0;
+   }
+
+   // Returns the thread of this event, started if needed, for the
+   // activation of myProcess.
+   Thread thread() {
+      if (myThread == null) {
+         myThread = VirtualThreadProcessSimulator.newThread (this);
+         myThread.start();
+      }
+      started = true;
+      return myThread;
+   }
+
+   boolean isCurrentThread() {
+      return myThread != null && myThread == Thread.currentThread();
+   }
+
+   // A thread created and started is never destroyed.
+   // if the associated process is killed, an error exception will be thrown.
+   // this exception will be caught here and the thread will wait for
+   // the next process using this event (in the next iteration).
+   public final void run() {
+      while (true) {
+         psim.await();
+         try {
+            if (!killed)
+               myProcess.actions();   // myProcess starts its life.
+         } catch (VirtualSimThreadError e) {} // the process is killed.
+         Thread t = killer;
+         if (t == null)
+            t = next;
+         killed = false;
+         killer = null;
+         next = null;
+         release();
+         if (t == null)
+            t = psim.nextThread();
+         psim.handOff (t);            // Give control to another thread.
+      }
+   }
+
+   private void release() {
+      myProcess.setScheduledEvent (null);
+      myProcess = null;
+      started = false;
+      nextFree = psim.threadFreeHead;   psim.threadFreeHead = this;
+   }
+
+   public void actions() {
+   // This method will be executed only once for each simulation run.
+   // It transfers the control from the executive to this thread.
+   // The control will then be passed from process to process,
+   // which will execute the events if any.
+   // Control will be returned to the executive only at the end of simulation.
+      psim.setCurrentProcess (myProcess);
+      psim.executive = Thread.currentThread();
+      psim.transfer (thread());
+   }
+
+   // Called by myProcess to give the control to the next process,
+   // and wait until it is reactivated.
+   void passivate() {
+      if (killed)
+         throw error;
+      Thread t;
+      dispatching = true;
+      try {
+         t = psim.nextThread();
+      } finally {
+         dispatching = false;
+      }
+      if (killed) {
+         // killed by an event executed by this thread
+         next = t;
+         throw error;
+      }
+      psim.transfer (t);
+      if (killed)
+         throw error;
+   }
+
+   // Called by kill and killAll
+   void kill() {
+      if (eventTime >= 0.0)
+         cancel();
+      if (!started) {
+         // the process has never run, its thread is not waiting for it
+         release();
+         return;
+      }
+      if (isCurrentThread()) {
+         if (!dispatching)
+            throw error;
+         // killed by an event executed before passivating myProcess
+         killed = true;
+         return;
+      }
+      killed = true;
+      killer = Thread.currentThread();
+      psim.transfer (myThread);
+   }
+
+   public String toString() {
+      // To get something useful when printing the event list
+      return "Start or resume process " + myProcess.toString();
+   }
+}
@@ -126,6 +126,43 @@ public class Tally extends StatProbe implements Cloneable {
    }
 
 
+   /**
+    * Adds to this tally the observations collected by <TT>t</TT>,
+    *    as if they had been given to {@link #add add} one by one, except that the
+    *    observers are not notified. The tally <TT>t</TT> is not modified.
+    *    The average and the variance are combined with the pairwise formulas of
+    *    Chan, Golub and LeVeque, which are as stable numerically as the
+    *    updates made by {@link #add add}.
+    *    Tallies collecting statistics in parallel threads, one for each thread,
+    *    can thus be merged into a single tally at the end, without storing the
+    *    observations.
+    *    Nothing is done if collecting is turned OFF for this tally.
+    *
+    * @param t the tally whose observations are added to this tally
+    *
+    *
+    */
+   public void merge (Tally t)  {
+      if (!collect || t.numObs == 0)
+         return;
+      if (t.minValue < minValue) minValue = t.minValue;
+      if (t.maxValue > maxValue) maxValue = t.maxValue;
+      sumValue += t.sumValue;
+      sumSquares += t.sumSquares;
+      if (numObs == 0) {
+         curAverage = t.curAverage;
+         curSum2 = t.curSum2;
+         numObs = t.numObs;
+         return;
+      }
+      int n = numObs + t.numObs;
+      double delta = t.curAverage - curAverage;
+      curSum2 += t.curSum2 + delta*delta*((double)numObs*t.numObs/n);
+      curAverage += delta*t.numObs/n;
+      numObs = n;
+   }
+
+
    /**
     * Returns the number of observations given to this probe
     *    since its last initialization.
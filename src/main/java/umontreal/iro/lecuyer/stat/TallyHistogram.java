@@ -153,6 +153,32 @@ public class TallyHistogram extends Tally  {
    }
 
 
+   /**
+    * Adds to this tally the observations collected by <TT>t</TT>,
+    * which must be a {@link TallyHistogram} with the same interval <SPAN CLASS="MATH">[<I>a</I>, <I>b</I>]</SPAN> and
+    * the same number of bins, as in {@link Tally#merge(Tally) Tally.merge}.
+    * The bin counters of <TT>t</TT> are added to those of this object.
+    *
+    * @param t the tally whose observations are added to this tally
+    *
+    *    @exception IllegalArgumentException if <TT>t</TT> is not a
+    *     {@link TallyHistogram} with the same bins.
+    *
+    *
+    */
+   public void merge (Tally t)  {
+      if (!(t instanceof TallyHistogram))
+         throw new IllegalArgumentException ("Not a TallyHistogram");
+      TallyHistogram h = (TallyHistogram)t;
+      if (h.m_a != m_a || h.m_b != m_b || h.numBins != numBins)
+         throw new IllegalArgumentException ("The bins are not the same");
+      if (collect)
+         for (int i = 0; i <= numBins + 1; i++)
+            co[i] += h.co[i];
+      super.merge (t);
+   }
+
+
    /**
     * Returns the bin counters. Each counter contains the number of
     * observations that fell in its corresponding bin.
@@ -150,6 +150,29 @@ public class TallyStore extends Tally  {
       super.add(x);
    }
 
+
+   /**
+    * Adds to this tally the observations collected by <TT>t</TT>,
+    *    which must be a {@link TallyStore}, as in
+    *    {@link Tally#merge(Tally) Tally.merge}. The observations of <TT>t</TT>
+    *    are stored after the ones of this tally.
+    *
+    * @param t the tally whose observations are added to this tally
+    *
+    *    @exception IllegalArgumentException if <TT>t</TT> is not a
+    *     {@link TallyStore}.
+    *
+    *
+    */
+   public void merge (Tally t)  {
+      if (!(t instanceof TallyStore))
+         throw new IllegalArgumentException
+            ("Cannot merge a tally that does not store its observations");
+      if (collect)
+         array.addAllOf (((TallyStore)t).array);
+      super.merge (t);
+   }
+
    /**
     * Returns the observations stored in this probe.
     * 
@@ -140,6 +140,36 @@ public class ListOfTallies<E extends Tally> extends ListOfStatProbes<E> {
    }
 
 
+   /**
+    * Merges tally <TT>i</TT> of <TT>list</TT> into tally <TT>i</TT> of
+    *  this list, for <TT>i = 0,..., size() - 1</TT>, using
+    *  {@link umontreal.iro.lecuyer.stat.Tally#merge(Tally) Tally.merge}.
+    *  Nothing is done if collecting is turned OFF.
+    *  The list <TT>list</TT> is not modified.
+    *
+    * @param list the list of tallies to merge into this list.
+    *
+    *    @exception IllegalArgumentException if the size of
+    *     <TT>list</TT> does not correspond to <TT>size()</TT>.
+    *
+    *
+    */
+   public void merge (ListOfTallies<? extends Tally> list) {
+      int l = size();
+      if (list.size() != l)
+         throw new IllegalArgumentException
+            ("Incompatible list size: given " +
+            list.size() + ", required " + l);
+      if (collect)
+         for (int i = 0; i < l; i++) {
+            Tally ta = get (i);
+            Tally tb = list.get (i);
+            if (ta != null && tb != null)
+               ta.merge (tb);
+         }
+   }
+
+
    /**
     * Assuming that each tally in this list contains
     *  the same number of observations, returns
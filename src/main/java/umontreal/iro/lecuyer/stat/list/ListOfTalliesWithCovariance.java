@@ -251,6 +251,68 @@ public class ListOfTalliesWithCovariance<E extends Tally>
    }
 
 
+   /**
+    * Merges the tallies of <TT>list</TT>, which must be a
+    *   {@link ListOfTalliesWithCovariance} of the same size, into the tallies
+    *   of this list, as in {@link ListOfTallies#merge(ListOfTallies) merge} of {@link ListOfTallies},
+    *   and combines the sums of products used to estimate the covariances, so
+    *   that the covariances are those of all the vectors of observations added to
+    *   both lists.
+    *
+    * @param list the list of tallies to merge into this list.
+    *
+    *    @exception IllegalArgumentException if <TT>list</TT> is not a
+    *     {@link ListOfTalliesWithCovariance}, if its size does not
+    *     correspond to <TT>size()</TT>, or if it does not use the same
+    *     algorithm to compute the covariances.
+    *
+    *
+    */
+   public void merge (ListOfTallies<? extends Tally> list) {
+      if (!(list instanceof ListOfTalliesWithCovariance))
+         throw new IllegalArgumentException
+            ("Cannot merge a list of tallies without covariance support");
+      ListOfTalliesWithCovariance<?> lc = (ListOfTalliesWithCovariance<?>)list;
+      int l = size();
+      if (lc.size() != l)
+         throw new IllegalArgumentException
+            ("Incompatible list size: given " +
+            lc.size() + ", required " + l);
+      // The sums of products are kept in curSum2 or in sxy, depending on
+      // isStable, and the other array is null.
+      if (lc.isStable != isStable)
+         throw new IllegalArgumentException
+            ("Cannot merge lists using different covariance algorithms");
+      if (!collect || l == 0)
+         return;
+      int n1 = get (0).numberObs();
+      int n2 = lc.get (0).numberObs();
+      if (isStable && n2 > 0) {
+         if (n1 == 0) {
+            System.arraycopy (lc.curAverages, 0, curAverages, 0, l);
+            for (int i = 0; i < l - 1; i++)
+               System.arraycopy (lc.curSum2[i], 0, curSum2[i], 0, l - 1 - i);
+         }
+         else {
+            int n = n1 + n2;
+            double f = (double)n1*n2/n;
+            for (int i1 = 0; i1 < l - 1; i1++)
+               for (int i2 = i1 + 1; i2 < l; i2++)
+                  curSum2[i1][i2 - i1 - 1] += lc.curSum2[i1][i2 - i1 - 1] +
+                     (lc.curAverages[i1] - curAverages[i1])*
+                     (lc.curAverages[i2] - curAverages[i2])*f;
+            for (int i = 0; i < l; i++)
+               curAverages[i] += (lc.curAverages[i] - curAverages[i])*n2/n;
+         }
+      }
+      else if (!isStable)
+         for (int i1 = 0; i1 < l - 1; i1++)
+            for (int i2 = i1 + 1; i2 < l; i2++)
+               sxy[i1][i2 - i1 - 1] += lc.sxy[i1][i2 - i1 - 1];
+      super.merge (list);
+   }
+
+
    public void add (DoubleMatrix1D x) {
       x.toArray (tempArray);
       add (tempArray);
@@ -156,9 +156,11 @@ public class BrownianMotion extends StochasticProcess  {
 
 
    public double[] generatePath() {
+        // The d normals are drawn at once into path, then summed in place.
+        gen.nextArrayOfDouble (path, 1, d);
         double x = x0;
         for (int j = 0; j < d; j++) {
-            x += mudt[j] + sigmasqrdt[j] * gen.nextDouble();
+            x += mudt[j] + sigmasqrdt[j] * path[j + 1];
             path[j + 1] = x;
         }
         observationIndex   = d;
@@ -251,8 +253,10 @@ public class BrownianMotion extends StochasticProcess  {
     // in order to speed up the path generation.
    protected void init() {
         super.init();
-        mudt       = new double[d];
-        sigmasqrdt = new double[d];
+        if (mudt == null || mudt.length != d) {
+            mudt       = new double[d];
+            sigmasqrdt = new double[d];
+        }
         for (int j = 0; j < d; j++) {
             double dt     = t[j+1] - t[j];
             mudt[j]       = mu * dt;
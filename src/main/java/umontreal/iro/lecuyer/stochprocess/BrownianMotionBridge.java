@@ -85,6 +85,24 @@ public class BrownianMotionBridge extends BrownianMotion  {
     protected int[]        wIndexList,
                            ptIndex;
 
+    // Bridge quantities for sigma = 1, which depend only on the
+    // observation times. They are never modified once in the cache.
+    private static class BridgeWeights {
+        double[] muDt, sqrtDt;
+        int[]    indexList, ptIndex;
+    }
+    private static final ObservationTimesCache<BridgeWeights> weightsCache =
+        new ObservationTimesCache<BridgeWeights> (16);
+
+    // For lazy paths: the uniforms of the current path in bridge order,
+    // the bridge step generating each observation, and the observations
+    // already generated.
+    protected boolean      lazy = false;
+    protected double[]     lazyU;
+    protected int[]        lazyStep;
+    protected boolean[]    lazyDone;
+    protected Distribution lazyDist;
+
 
 
    /**
@@ -124,8 +142,89 @@ public class BrownianMotionBridge extends BrownianMotion  {
     }
 
 
+   /**
+    * Returns the cache shared by all the <TT>BrownianMotionBridge</TT>
+    * objects, which keeps the bridge interpolation weights for <SPAN CLASS="MATH"><I>&#963;</I> = 1</SPAN> and
+    * the last observation times used, 16 of them by default.
+    * The capacity of the cache can be changed, or the cache cleared.
+    * 
+    */
+   public static ObservationTimesCache<?> getWeightsCache()  {
+        return weightsCache;
+   }
+
+
+   /**
+    * Starts a new sample path that is generated <EM>lazily</EM>, and
+    * returns its last observation <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>d</I></SUB>)</SPAN>. This method takes from the stream
+    * of the normal generator the <SPAN CLASS="MATH"><I>d</I></SPAN> uniforms that {@link #generatePath generatePath} would
+    * use, in the same order, but generates only <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>d</I></SUB>)</SPAN>. Every other observation
+    * <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> is generated the first time it is requested by
+    * {@link #getObservation(int) getObservation}, after the observations at the coarser levels
+    * of the bridge on which it depends. When the payoff looks at only a few
+    * observation times, or stops looking at the path once a barrier is crossed,
+    * most of the normal variates are then never generated.
+    * Since the uniform used for each observation does not depend on which
+    * observations are requested, each coordinate of a quasi-Monte Carlo point is
+    * used by the same step of the bridge as with {@link #generatePath generatePath}, and
+    * the observations are the ones {@link #generatePath generatePath} would have returned.
+    * The normal generator must then generate its variates by inversion, so it
+    * must be a {@link umontreal.iro.lecuyer.randvar.NormalGen NormalGen} itself; the
+    * <TT>inverseF</TT> method of its distribution is applied to the uniforms.
+    * The methods <TT>getPath</TT> and <TT>getSubpath</TT> generate the missing
+    * observations before returning them. The lazy path ends at the next call to
+    * {@link #generatePath generatePath}, <TT>nextObservation</TT> or {@link #resetStartProcess resetStartProcess}.
+    *
+    * @return the observation <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>d</I></SUB>)</SPAN>
+    *
+    *    @exception UnsupportedOperationException if the normal generator is
+    *     of a subclass of <TT>NormalGen</TT>, which does not use inversion
+    *
+    */
+   public double generateLazyPath() {
+        // The subclasses of NormalGen do not use inversion, and may use
+        // more than one uniform per variate.
+        if (gen.getClass() != NormalGen.class)
+            throw new UnsupportedOperationException
+               ("generateLazyPath needs a generator by inversion");
+        if (lazyU == null) {
+            lazyU = new double[d];
+            lazyStep = new int[d + 1];
+            lazyDone = new boolean[d + 1];
+            for (int k = 0; k < d - 1; k++)
+                lazyStep[wIndexList[3*k + 1]] = k;
+        }
+        lazyDist = gen.getDistribution();
+        gen.getStream().nextArrayOfDouble (lazyU, 0, d);
+        for (int j = 1; j < d; j++)
+            lazyDone[j] = false;
+        lazyDone[0] = true;
+        lazyDone[d] = true;
+        path[d] = x0 + mu*(t[d]-t[0]) + wSqrtDt[0] * lazyDist.inverseF (lazyU[0]);
+        lazy = true;
+        bridgeCounter      = -1;
+        observationIndex   = d;
+        observationCounter = 1;
+        return path[d];
+    }
+
+
+   /**
+    * Returns <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> from the current sample path. If this path
+    * was started by {@link #generateLazyPath generateLazyPath} and <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> has not been
+    * generated yet, it is generated first.
+    *
+    */
+   public double getObservation (int j) {
+        if (lazy && !lazyDone[j])
+            generateObservation (j);
+        return path[j];
+    }
+
+
    public double nextObservation() {
         double x;
+        lazy = false;
         if (bridgeCounter == -1) {
             x = x0 + mu*(t[d]-t[0]) + wSqrtDt[0] * gen.nextDouble ();
             bridgeCounter = 0;
@@ -150,6 +249,7 @@ public class BrownianMotionBridge extends BrownianMotion  {
 
    public double nextObservation (double nextTime) {
         double x;
+        lazy = false;
         if (bridgeCounter == -1) {
             t[d] = nextTime;
 
@@ -194,6 +294,7 @@ public class BrownianMotionBridge extends BrownianMotion  {
    public double[] generatePath() {
         // Generation of Brownian bridge process
         int oldIndexL, oldIndexR, newIndex;
+        lazy = false;
         path[d] = x0 + mu*(t[d]-t[0]) + wSqrtDt[0] * gen.nextDouble ();
 
         for (int j = 0; j < 3*(d-1); j+=3) {
@@ -214,6 +315,7 @@ public class BrownianMotionBridge extends BrownianMotion  {
 
     public double[] generatePath (double[] uniform01){
         int oldIndexL, oldIndexR, newIndex;
+        lazy = false;
         path[d] = x0 + mu*(t[d]-t[0]) + wSqrtDt[0] * NormalDist.inverseF01(uniform01[0]);
 
         for (int j = 0; j < 3*(d-1); j+=3) {
@@ -236,11 +338,66 @@ public class BrownianMotionBridge extends BrownianMotion  {
         observationIndex   = 0;
         observationCounter = 0;
         bridgeCounter = -1;
+        lazy = false;
+    }
+
+    public double[] getPath() {
+        if (lazy)
+            for (int j = 1; j < d; j++)
+                if (!lazyDone[j])
+                    generateObservation (j);
+        return path;
+    }
+
+    public void getSubpath (double[] subpath, int[] pathIndices) {
+        for (int j = 0; j < subpath.length; j++)
+            subpath[j] = getObservation (pathIndices[j]);
+    }
+
+    private void generateObservation (int j) {
+        // Generates X(t_j) of a lazy path, and first the two observations
+        // between which it is interpolated if they are missing.
+        int k = lazyStep[j];
+        int oldIndexL = wIndexList[3*k];
+        int oldIndexR = wIndexList[3*k + 2];
+        if (!lazyDone[oldIndexL])
+            generateObservation (oldIndexL);
+        if (!lazyDone[oldIndexR])
+            generateObservation (oldIndexR);
+        path[j] = path[oldIndexL] +
+          (path[oldIndexR] - path[oldIndexL])
+          * wMuDt[j] + wSqrtDt[j] * lazyDist.inverseF (lazyU[1 + k]);
+        lazyDone[j] = true;
+        observationCounter++;
     }
 
     protected void init() {
       super.init();
+      lazy = false;
+      lazyU = null;
+      // The quantities for sigma = 1 are taken from the cache if possible;
+      // wSqrtDt is then multiplied by sigma.
+      BridgeWeights w = weightsCache.get (t, d);
+      if (w == null) {
+         computeWeights();
+         w = new BridgeWeights();
+         w.muDt = wMuDt.clone();
+         w.sqrtDt = wSqrtDt.clone();
+         w.indexList = wIndexList.clone();
+         w.ptIndex = ptIndex.clone();
+         weightsCache.put (t, d, w);
+      } else {
+         wMuDt = w.muDt.clone();
+         wSqrtDt = w.sqrtDt.clone();
+         wIndexList = w.indexList.clone();
+         ptIndex = w.ptIndex.clone();
+      }
+      for (int i = 0; i <= d; i++)
+         wSqrtDt[i] *= sigma;
+   }
 
+   private void computeWeights() {
+      // Computes the bridge quantities for sigma = 1.
       /* For Brownian Bridge */
 
       // Quantities for Brownian Bridge process
@@ -260,7 +417,7 @@ public class BrownianMotionBridge extends BrownianMotion  {
       //  w/ Brownian bridge has expectation = 0
       if (t[d] < t[0])
          throw new IllegalStateException("   t[d] < t[0]");
-      wSqrtDt[0] = sigma * Math.sqrt(t[d] - t[0]);
+      wSqrtDt[0] = Math.sqrt(t[d] - t[0]);
       // = sigma*sqrt(Dt) of end point
 
       for (int powOfTwo = 1; powOfTwo <= d / 2; powOfTwo *= 2) {
@@ -290,7 +447,7 @@ public class BrownianMotionBridge extends BrownianMotion  {
                System.out.printf ("t[ptIndex[oldLeft]] = %g%n", t[ptIndex[oldLeft]]);
                throw new IllegalStateException("   tem < 0 or NaN");
             }
-            wSqrtDt[newIndex] = sigma * Math.sqrt (tem);
+            wSqrtDt[newIndex] = Math.sqrt (tem);
 
             ptIndex[oldLeft + 1] = newIndex;
             wIndexList[indexCounter] = ptIndex[oldLeft];
@@ -319,7 +476,7 @@ public class BrownianMotionBridge extends BrownianMotion  {
                System.out.printf ("t[ptIndex[k-1]] = %20.16g%n", t[ptIndex[k - 1]]);
                throw new IllegalStateException("   tem < 0 or NaN");
             }
-            wSqrtDt[ptIndex[k - 1] + 1] = sigma * Math.sqrt (tem);
+            wSqrtDt[ptIndex[k - 1] + 1] = Math.sqrt (tem);
             wIndexList[indexCounter] = ptIndex[k] - 2;
             wIndexList[indexCounter + 1] = ptIndex[k] - 1;
             wIndexList[indexCounter + 2] = ptIndex[k];
@@ -39,6 +39,16 @@ import cern.colt.matrix.linalg.*;
  * <SPAN CLASS="MATH">{<I>X</I>(<I>t</I>) : <I>t</I>&nbsp;&gt;=&nbsp;0}</SPAN> sampled using the
  * <SPAN  CLASS="textit">principal component</SPAN> decomposition (PCA).
  * 
+ * <P>
+ * The decomposition of the covariance matrix is kept in a cache shared by
+ * all the objects of this class, for the observation times and
+ * <SPAN CLASS="MATH"><I>&#963;</I></SPAN> used. It is not kept for <SPAN CLASS="MATH"><I>&#963;</I> = 1</SPAN> and then multiplied by
+ * <SPAN CLASS="MATH"><I>&#963;</I></SPAN>, because the signs of some eigenvectors would then differ from
+ * those of the decomposition of the covariance matrix itself, and the paths
+ * obtained from a given stream would no longer be those of previous
+ * versions. Thus, a loop changing <SPAN CLASS="MATH"><I>&#963;</I></SPAN> with fixed observation times
+ * computes a new decomposition for each value of <SPAN CLASS="MATH"><I>&#963;</I></SPAN>.
+ * 
  */
 public class BrownianMotionPCA extends BrownianMotion  {
 
@@ -49,6 +59,15 @@ public class BrownianMotionPCA extends BrownianMotion  {
     protected double[]    sortedEigenvalues;
     protected boolean     isDecompPCA;
 
+    // Decomposition of sigmaCov, which depends only on the observation
+    // times and sigma. It is never modified once in the cache.
+    private static class PCAFactor {
+        double[][] A;
+        double[]   eigenvalues;
+    }
+    private static final ObservationTimesCache<PCAFactor> decompCache =
+        new ObservationTimesCache<PCAFactor> (16);
+
 
 
 
@@ -98,14 +117,8 @@ public class BrownianMotionPCA extends BrownianMotion  {
 
    public double[] generatePath() {
        if(!isDecompPCA) {init();}  // if the decomposition is not done, do it...
-       for (int j = 0; j < d; j++)
-           z[j] = gen.nextDouble ();
-       for (int j = 0; j < d; j++) {
-           double sum = 0.0;
-           for (int k = 0; k < d; k++)
-               sum += A[j][k] * z[k];
-           path[j+1] = x0 + mu * t[j+1] + sum;
-       }
+       gen.nextArrayOfDouble (z, 0, d);
+       multiplyA();
        observationIndex   = d;
        observationCounter = d;
        return path;
@@ -115,12 +128,7 @@ public class BrownianMotionPCA extends BrownianMotion  {
        if(!isDecompPCA) {init();}  // if the decomposition is not done, do it...
        for (int j = 0; j < d; j++)
            z[j] = NormalDist.inverseF01(uniform01[j]);
-       for (int j = 0; j < d; j++) {
-           double sum = 0.0;
-           for (int k = 0; k < d; k++)
-               sum += A[j][k] * z[k];
-           path[j+1] = x0 + mu * t[j+1] + sum;
-       }
+       multiplyA();
        observationIndex   = d;
        observationCounter = d;
        return path;
@@ -151,6 +159,18 @@ public class BrownianMotionPCA extends BrownianMotion  {
    }
 
 
+   /**
+    * Returns the cache shared by all the <TT>BrownianMotionPCA</TT> objects,
+    * which keeps the PCA decomposition of the covariance matrix for the last
+    * pairs of observation times and <SPAN CLASS="MATH"><I>&#963;</I></SPAN> used, 16 of them by default.
+    * The capacity of the cache can be changed, or the cache cleared.
+    * 
+    */
+   public static ObservationTimesCache<?> getDecompositionCache()  {
+        return decompCache;
+   }
+
+
 
    protected void init() {
         super.init();
@@ -165,7 +185,50 @@ public class BrownianMotionPCA extends BrownianMotion  {
               sigmaCov[j][i] = sigmaCov[i][j];
            }
         }
-        A = decompPCA (sigmaCov);
+        // The decomposition is taken from the cache if possible. It is
+        // kept for the observation times and sigma: scaling the
+        // decomposition for sigma = 1 would change the signs of some
+        // eigenvectors, hence the paths.
+        PCAFactor f = decompCache.get (t, d, sigma);
+        if (f == null) {
+           f = new PCAFactor();
+           f.A = decompPCA (sigmaCov);
+           f.eigenvalues = sortedEigenvalues.clone();
+           decompCache.put (t, d, sigma, f);
+        }
+        else
+           System.arraycopy (f.eigenvalues, 0, sortedEigenvalues, 0, d);
+        A = new double[d][];
+        for (int i = 0; i < d; i++)
+           A[i] = f.A[i].clone();
         isDecompPCA = true;
     }
+
+    private void multiplyA() {
+        // path[j+1] = x0 + mu*t[j+1] + (Az)[j]. The rows of A are taken
+        // four at a time, so that each z[k] is read once for four rows;
+        // each row is still summed in the order k = 0, ..., d-1.
+        int j = 0;
+        for (; j + 3 < d; j += 4) {
+           double[] a0 = A[j], a1 = A[j+1], a2 = A[j+2], a3 = A[j+3];
+           double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+           for (int k = 0; k < d; k++) {
+              double zk = z[k];
+              s0 += a0[k] * zk;
+              s1 += a1[k] * zk;
+              s2 += a2[k] * zk;
+              s3 += a3[k] * zk;
+           }
+           path[j+1] = x0 + mu * t[j+1] + s0;
+           path[j+2] = x0 + mu * t[j+2] + s1;
+           path[j+3] = x0 + mu * t[j+3] + s2;
+           path[j+4] = x0 + mu * t[j+4] + s3;
+        }
+        for (; j < d; j++) {
+           double sum = 0.0;
+           for (int k = 0; k < d; k++)
+              sum += A[j][k] * z[k];
+           path[j+1] = x0 + mu * t[j+1] + sum;
+        }
+    }
 }
@@ -82,8 +82,7 @@ public class BrownianMotionPCAEqualSteps extends BrownianMotion  {
 
     public double[] generatePath() {
        if(!isDecompPCA) {init();}  // if the decomposition is not done, do it...
-       for (int j = 0; j < d; j++)
-           z[j] = gen.nextDouble ();
+       gen.nextArrayOfDouble (z, 0, d);
        for (int j = 0; j < d; j++) {
            double sum = 0.0;
            for (int k = 0; k < d; k++)
@@ -61,6 +61,14 @@ public class GammaProcessBridge extends GammaProcess  {
     protected int[]        wIndexList;
     protected int          bridgeCounter = -1; // Before 1st observ
 
+    // For lazy paths: the uniforms of the current path in bridge order,
+    // the bridge step generating each observation, and the observations
+    // already generated.
+    protected boolean      lazy = false;
+    protected double[]     lazyU;
+    protected int[]        lazyStep;
+    protected boolean[]    lazyDone;
+
 
 
    /**
@@ -101,8 +109,63 @@ public class GammaProcessBridge extends GammaProcess  {
     }
 
 
+   /**
+    * Starts a new sample path that is generated <EM>lazily</EM>, and
+    * returns its last observation <SPAN CLASS="MATH"><I>S</I>(<I>t</I><SUB><I>d</I></SUB>)</SPAN>. This method takes from the stream
+    * the <SPAN CLASS="MATH"><I>d</I></SPAN> uniforms that {@link #generatePath generatePath} would use, in the same order,
+    * but generates only <SPAN CLASS="MATH"><I>S</I>(<I>t</I><SUB><I>d</I></SUB>)</SPAN>. Every other observation <SPAN CLASS="MATH"><I>S</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> is generated,
+    * with its beta variate, the first time it is requested by
+    * {@link #getObservation(int) getObservation}, after the observations at the coarser levels
+    * of the bridge on which it depends. As in {@link BrownianMotionBridge},
+    * each coordinate of a quasi-Monte Carlo point is thus used by the same step
+    * of the bridge as with {@link #generatePath generatePath}, and the observations are the
+    * ones {@link #generatePath generatePath} would have returned, except for the tiny
+    * adjustments sometimes made to keep the path strictly increasing.
+    * The methods <TT>getPath</TT> and <TT>getSubpath</TT> generate the missing
+    * observations before returning them. The lazy path ends at the next call to
+    * {@link #generatePath generatePath}, <TT>nextObservation</TT> or {@link #resetStartProcess resetStartProcess}.
+    *
+    * @return the observation <SPAN CLASS="MATH"><I>S</I>(<I>t</I><SUB><I>d</I></SUB>)</SPAN>
+    *
+    */
+   public double generateLazyPath() {
+        if (lazyU == null) {
+            lazyU = new double[d];
+            lazyStep = new int[d + 1];
+            lazyDone = new boolean[d + 1];
+            for (int k = 0; k < d - 1; k++)
+                lazyStep[wIndexList[3*k + 1]] = k;
+        }
+        stream.nextArrayOfDouble (lazyU, 0, d);
+        for (int j = 1; j < d; j++)
+            lazyDone[j] = false;
+        lazyDone[0] = true;
+        lazyDone[d] = true;
+        path[d] = x0 + GammaDist.inverseF (mu2dTOverNu, muOverNu, 15, lazyU[0]);
+        lazy = true;
+        bridgeCounter      = -1;
+        observationIndex   = d;
+        observationCounter = 1;
+        return path[d];
+    }
+
+
+   /**
+    * Returns <SPAN CLASS="MATH"><I>S</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> from the current sample path. If this path
+    * was started by {@link #generateLazyPath generateLazyPath} and <SPAN CLASS="MATH"><I>S</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> has not been
+    * generated yet, it is generated first.
+    *
+    */
+   public double getObservation (int j) {
+        if (lazy && !lazyDone[j])
+            generateObservation (j);
+        return path[j];
+    }
+
+
    public double nextObservation()  {
         double s;
+        lazy = false;
         if (bridgeCounter == -1) {
             s = x0 + Ggen.nextDouble(stream, mu2dTOverNu, muOverNu);
             if (s <= x0)
@@ -132,6 +195,7 @@ public class GammaProcessBridge extends GammaProcess  {
 
    public double nextObservation (double nextT) {
         double s;
+        lazy = false;
         if (bridgeCounter == -1) {
             t[d] = nextT;
             mu2dTOverNu = mu2OverNu * (t[d] - t[0]);
@@ -171,6 +235,7 @@ public class GammaProcessBridge extends GammaProcess  {
    public double[] generatePath (double[] uniform01) {
         int oldIndexL, oldIndexR, newIndex;
         double y;
+        lazy = false;
 
         path[d] = x0 + GammaDist.inverseF (mu2dTOverNu, muOverNu, 10, uniform01[0]);
         for (int j = 0; j < 3*(d-1); j+=3) {
@@ -195,6 +260,7 @@ public class GammaProcessBridge extends GammaProcess  {
     public double[] generatePath() {
         int oldIndexL, oldIndexR, newIndex;
         double y;
+        lazy = false;
 
         path[d] = x0 + Ggen.nextDouble(stream, mu2dTOverNu, muOverNu);
         for (int j = 0; j < 3*(d-1); j+=3) {
@@ -219,10 +285,47 @@ public class GammaProcessBridge extends GammaProcess  {
         observationIndex   = 0;
         observationCounter = 0;
         bridgeCounter = -1;
+        lazy = false;
+    }
+
+   public double[] getPath() {
+        if (lazy)
+            for (int j = 1; j < d; j++)
+                if (!lazyDone[j])
+                    generateObservation (j);
+        return path;
+    }
+
+   public void getSubpath (double[] subpath, int[] pathIndices) {
+        for (int j = 0; j < subpath.length; j++)
+            subpath[j] = getObservation (pathIndices[j]);
+    }
+
+   private void generateObservation (int j) {
+        // Generates S(t_j) of a lazy path, and first the two observations
+        // between which it is interpolated if they are missing.
+        int k = lazyStep[j];
+        int oldIndexL = wIndexList[3*k];
+        int oldIndexR = wIndexList[3*k + 2];
+        if (!lazyDone[oldIndexL])
+            generateObservation (oldIndexL);
+        if (!lazyDone[oldIndexR])
+            generateObservation (oldIndexR);
+        double y = BetaDist.inverseF (bMu2dtOverNuL[j], bMu2dtOverNuR[j],
+                                      0.0, 1.0, 15, lazyU[1 + k]);
+        path[j] = path[oldIndexL] +
+          (path[oldIndexR] - path[oldIndexL]) * y;
+        // make sure the process is strictly increasing
+        if (path[j] <= path[oldIndexL])
+            setLarger (path, oldIndexL, j, oldIndexR);
+        lazyDone[j] = true;
+        observationCounter++;
     }
 
    protected void init() {
         super.init();
+        lazy = false;
+        lazyU = null;
         if (observationTimesSet) {
 
         // Quantities for gamma bridge process
@@ -0,0 +1,241 @@
+
+
+/*
+ * Class:        ObservationTimesCache
+ * Description:  cache of quantities depending on observation times
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.stochprocess;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * A bounded cache of objects computed from the observation times
+ * <SPAN CLASS="MATH"><I>t</I><SUB>0</SUB>,...,<I>t</I><SUB><I>d</I></SUB></SPAN> of a process, and possibly from one real parameter
+ * of the process, such as the PCA decomposition of the covariance matrix
+ * in {@link BrownianMotionPCA}, which depends on <SPAN CLASS="MATH"><I>&#963;</I></SPAN>, or the
+ * interpolation weights in {@link BrownianMotionBridge}, which do not.
+ * The objects kept with a parameter are distinct from those kept without
+ * one. When processes with the same
+ * observation times are constructed again and again, for example in a
+ * calibration loop, these objects are then computed only once.
+ * The cache keeps at most a given number of objects; when it is full,
+ * the least recently used one is removed.
+ * The objects put in the cache are shared, so they must never be modified.
+ * All the methods are synchronized, so the same cache may be used by
+ * several threads.
+ *
+ */
+public class ObservationTimesCache<V> {
+   private int capacity;
+   private LinkedHashMap<Key,V> map;
+
+   // The observation times t[0..d], copied, and the parameter, which is
+   // NaN for the objects kept without a parameter.
+   private static class Key {
+      private final double[] t;
+      private final double param;
+      private final int hash;
+
+      Key (double[] t, int d, double param) {
+         this.t = new double[d + 1];
+         System.arraycopy (t, 0, this.t, 0, d + 1);
+         this.param = param;
+         long bits = Double.doubleToLongBits (param);
+         hash = 31*Arrays.hashCode (this.t) + (int)(bits ^ (bits >>> 32));
+      }
+
+      public int hashCode() {
+         return hash;
+      }
+
+      public boolean equals (Object o) {
+         if (!(o instanceof Key))
+            return false;
+         Key k = (Key)o;
+         return Double.doubleToLongBits (param) ==
+                Double.doubleToLongBits (k.param) && Arrays.equals (t, k.t);
+      }
+   }
+
+
+   /**
+    * Constructs an empty cache keeping at most <TT>capacity</TT>
+    * objects. If <TT>capacity</TT> is 0, nothing is ever kept.
+    *
+    * @param capacity the maximal number of objects kept
+    *
+    *    @exception IllegalArgumentException if <TT>capacity</TT> is negative
+    *
+    */
+   public ObservationTimesCache (int capacity) {
+      if (capacity < 0)
+         throw new IllegalArgumentException ("capacity < 0");
+      this.capacity = capacity;
+      map = new LinkedHashMap<Key,V> (16, 0.75f, true) {
+         private static final long serialVersionUID = 1L;
+         protected boolean removeEldestEntry (Map.Entry<Key,V> eldest) {
+            return size() > ObservationTimesCache.this.capacity;
+         }
+      };
+   }
+
+
+   /**
+    * Returns the object kept for the observation times
+    * <TT>t[0..d]</TT>, or <TT>null</TT> if there is none.
+    *
+    * @param t the observation times
+    *
+    *    @param d the number of observation times, not counting <SPAN CLASS="MATH"><I>t</I><SUB>0</SUB></SPAN>
+    *
+    *    @return the object kept for these times, or <TT>null</TT>
+    *
+    */
+   public synchronized V get (double[] t, int d) {
+      return map.get (new Key (t, d, Double.NaN));
+   }
+
+
+   /**
+    * Keeps <TT>value</TT> for the observation times
+    * <TT>t[0..d]</TT>, which are copied. If the cache is full, the least
+    * recently used object is removed.
+    *
+    * @param t the observation times
+    *
+    *    @param d the number of observation times, not counting <SPAN CLASS="MATH"><I>t</I><SUB>0</SUB></SPAN>
+    *
+    *    @param value the object computed from these times
+    *
+    */
+   public synchronized void put (double[] t, int d, V value) {
+      if (capacity > 0)
+         map.put (new Key (t, d, Double.NaN), value);
+   }
+
+
+   /**
+    * Returns the object kept for the observation times
+    * <TT>t[0..d]</TT> and the parameter <TT>param</TT>, or <TT>null</TT>
+    * if there is none. Two parameters are equal if they have the same bits.
+    *
+    * @param t the observation times
+    *
+    *    @param d the number of observation times, not counting <SPAN CLASS="MATH"><I>t</I><SUB>0</SUB></SPAN>
+    *
+    *    @param param the parameter
+    *
+    *    @return the object kept for these times and this parameter, or <TT>null</TT>
+    *
+    */
+   public synchronized V get (double[] t, int d, double param) {
+      return map.get (new Key (t, d, param));
+   }
+
+
+   /**
+    * Keeps <TT>value</TT> for the observation times
+    * <TT>t[0..d]</TT>, which are copied, and the parameter <TT>param</TT>.
+    * If the cache is full, the least recently used object is removed.
+    *
+    * @param t the observation times
+    *
+    *    @param d the number of observation times, not counting <SPAN CLASS="MATH"><I>t</I><SUB>0</SUB></SPAN>
+    *
+    *    @param param the parameter
+    *
+    *    @param value the object computed from these times and this parameter
+    *
+    */
+   public synchronized void put (double[] t, int d, double param, V value) {
+      if (capacity > 0)
+         map.put (new Key (t, d, param), value);
+   }
+
+
+   /**
+    * Returns the maximal number of objects kept by this cache.
+    *
+    * @return the capacity of the cache
+    *
+    */
+   public synchronized int getCapacity() {
+      return capacity;
+   }
+
+
+   /**
+    * Sets the maximal number of objects kept by this cache to
+    * <TT>capacity</TT>, removing the least recently used objects if there
+    * are more.
+    *
+    * @param capacity the maximal number of objects kept
+    *
+    *    @exception IllegalArgumentException if <TT>capacity</TT> is negative
+    *
+    */
+   public synchronized void setCapacity (int capacity) {
+      if (capacity < 0)
+         throw new IllegalArgumentException ("capacity < 0");
+      this.capacity = capacity;
+      Iterator<Key> it = map.keySet().iterator();
+      while (map.size() > capacity) {
+         it.next();
+         it.remove();
+      }
+   }
+
+
+   /**
+    * Returns the number of objects in the cache.
+    *
+    * @return the number of objects kept
+    *
+    */
+   public synchronized int size() {
+      return map.size();
+   }
+
+
+   /**
+    * Removes all the objects from the cache.
+    *
+    */
+   public synchronized void clear() {
+      map.clear();
+   }
+
+
+   public synchronized String toString() {
+      StringBuffer sb = new StringBuffer (getClass().getName());
+      sb.append ('[');
+      sb.append ("size: ").append (map.size());
+      sb.append (", capacity: ").append (capacity);
+      sb.append (']');
+      return sb.toString();
+   }
+}
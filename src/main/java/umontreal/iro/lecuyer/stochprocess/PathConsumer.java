@@ -0,0 +1,53 @@
+
+
+/*
+ * Class:        PathConsumer
+ * Description:  receives generated sample paths
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.stochprocess;
+
+
+/**
+ * Receives the sample paths generated by the methods <TT>generatePaths</TT>
+ * of {@link StochasticProcess} and {@link PathRunner}, one at a time, as
+ * soon as they are generated, so that the paths need not all be stored.
+ *
+ */
+public interface PathConsumer {
+
+
+   /**
+    * Receives the sample path number <SPAN CLASS="MATH"><I>i</I></SPAN>,
+    * <SPAN CLASS="MATH">{<I>X</I>(<I>t</I><SUB>0</SUB>),&#8230;, <I>X</I>(<I>t</I><SUB><I>d</I></SUB>)}</SPAN>, in <TT>path</TT>. This array is
+    * overwritten by the next path, so it must be copied if the path is to be
+    * kept. When called by a {@link PathRunner}, this method may be called
+    * concurrently by several threads, for different paths.
+    *
+    * @param i the number of the path.
+    *
+    * @param path the observations of the path.
+    *
+    */
+   public void accept (int i, double[] path);
+
+}
@@ -0,0 +1,234 @@
+
+
+/*
+ * Class:        PathRunner
+ * Description:  generates sample paths in parallel
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.stochprocess;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import umontreal.iro.lecuyer.rng.CloneableRandomStream;
+
+
+/**
+ * Generates many sample paths of a stochastic process in parallel, with
+ * several threads, each one using its own {@link StochasticProcess} object
+ * returned by a {@link StochasticProcessFactory}.
+ * Path number <SPAN CLASS="MATH"><I>r</I></SPAN>, for <SPAN CLASS="MATH"><I>r</I>=0,1,...</SPAN>, is generated with substream <SPAN CLASS="MATH"><I>r</I></SPAN> of
+ * a given random stream, so the paths do not depend on the number of
+ * threads nor on the order in which the threads generate them. They are the
+ * same as those obtained sequentially by calling <TT>generatePath</TT> for
+ * each path, and <TT>resetNextSubstream</TT> on the stream after each one.
+ *
+ * <P>
+ * The paths are taken by batches of consecutive paths. Each thread keeps a
+ * copy of the stream that only moves forward, from one substream to the
+ * next, and sets it as the stream of its process with <TT>setStream</TT>.
+ * The processes returned by the factory must therefore take all their
+ * random numbers from the stream given to <TT>setStream</TT>.
+ *
+ */
+public class PathRunner {
+   private static final int BATCH = 256;   // Number of paths per batch
+   private StochasticProcessFactory factory;
+   private CloneableRandomStream stream;   // At its starting state
+   private int numThreads;
+
+
+   /**
+    * Constructs a runner generating the paths of the processes
+    * returned by <TT>factory</TT>, with substreams of <TT>stream</TT>, using
+    * as many threads as there are available processors.
+    * The runner uses a copy of <TT>stream</TT> reset to its starting state,
+    * so <TT>stream</TT> itself is never modified.
+    *
+    * @param factory constructs the processes
+    *
+    *    @param stream the stream whose substreams are used
+    *
+    */
+   public PathRunner (StochasticProcessFactory factory,
+                      CloneableRandomStream stream) {
+      this (factory, stream, Runtime.getRuntime().availableProcessors());
+   }
+
+
+   /**
+    * Same as above, but with <TT>numThreads</TT> threads.
+    *
+    * @param factory constructs the processes
+    *
+    *    @param stream the stream whose substreams are used
+    *
+    *    @param numThreads the number of threads
+    *
+    *    @exception IllegalArgumentException if <TT>numThreads</TT> is smaller than 1
+    *
+    */
+   public PathRunner (StochasticProcessFactory factory,
+                      CloneableRandomStream stream, int numThreads) {
+      if (numThreads < 1)
+         throw new IllegalArgumentException
+            ("The number of threads must be at least 1");
+      this.factory = factory;
+      this.stream = stream.clone();
+      this.stream.resetStartStream();
+      this.numThreads = numThreads;
+   }
+
+
+   /**
+    * Returns the number of threads used by this runner.
+    *
+    * @return the number of threads
+    *
+    */
+   public int getNumThreads() {
+      return numThreads;
+   }
+
+
+   /**
+    * Generates the <SPAN CLASS="MATH"><I>k</I></SPAN> paths numbered <TT>first</TT> to
+    * <TT>first + k - 1</TT>, and stores them one after the other in
+    * <TT>paths</TT>, as the method <TT>generatePaths</TT> of
+    * {@link StochasticProcess} does: the observation <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB><I>j</I></SUB>)</SPAN> of path
+    * <TT>first + i</TT> is stored in <TT>paths[i*(d+1) + j]</TT>.
+    *
+    * @param paths array receiving the paths
+    *
+    *    @param first number of the first path
+    *
+    *    @param k number of paths to generate
+    *
+    */
+   public void generatePaths (double[] paths, int first, int k) {
+      run (paths, null, first, k);
+   }
+
+
+   /**
+    * Generates the <SPAN CLASS="MATH"><I>k</I></SPAN> paths numbered <TT>first</TT> to
+    * <TT>first + k - 1</TT>, and passes each of them, with its number, to
+    * <TT>consumer</TT> as soon as it is generated. The paths are passed in
+    * no particular order, and <TT>consumer</TT> is called concurrently by
+    * the threads, so it must be thread-safe.
+    *
+    * @param first number of the first path
+    *
+    *    @param k number of paths to generate
+    *
+    *    @param consumer receives the paths
+    *
+    */
+   public void generatePaths (int first, int k, PathConsumer consumer) {
+      run (null, consumer, first, k);
+   }
+
+
+   public String toString() {
+      StringBuffer sb = new StringBuffer (getClass().getName());
+      sb.append ('[');
+      sb.append ("number of threads: ").append (numThreads);
+      sb.append (", stream: ").append (stream.getClass().getName());
+      sb.append (']');
+      return sb.toString();
+   }
+
+   private void run (final double[] paths, final PathConsumer consumer,
+                     final int first, final int k) {
+      if (first < 0 || k < 0)
+         throw new IllegalArgumentException
+            ("The path numbers must not be negative");
+      final int numBatches = (int)(((long)k + BATCH - 1) / BATCH);
+      final AtomicInteger next = new AtomicInteger();
+      final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+      int nt = Math.min (numThreads, numBatches);
+      if (nt <= 1) {
+         generate (paths, consumer, first, k, numBatches, next, error);
+         return;
+      }
+      Thread[] threads = new Thread[nt];
+      for (int i = 0; i < nt; i++) {
+         threads[i] = new Thread (new Runnable() {
+            public void run() {
+               try {
+                  generate (paths, consumer, first, k, numBatches, next, error);
+               } catch (Throwable e) {
+                  error.compareAndSet (null, e);
+               }
+            }
+         }, "PathRunner-" + i);
+         threads[i].setDaemon (true);
+         threads[i].start();
+      }
+      boolean interrupted = false;
+      for (int i = 0; i < nt; i++) {
+         while (true) {
+            try {
+               threads[i].join();
+               break;
+            } catch (InterruptedException e) {
+               interrupted = true;
+            }
+         }
+      }
+      if (interrupted)
+         Thread.currentThread().interrupt();
+      Throwable e = error.get();
+      if (e instanceof RuntimeException)
+         throw (RuntimeException)e;
+      if (e instanceof Error)
+         throw (Error)e;
+   }
+
+   // Generates the batches taken from next, until all batches are taken
+   // or some thread has failed. The batches taken by one thread come in
+   // increasing order, so its stream only moves forward.
+   private void generate (double[] paths, PathConsumer consumer,
+                          int first, int k, int numBatches,
+                          AtomicInteger next, AtomicReference<Throwable> error) {
+      StochasticProcess process = factory.newInstance();
+      CloneableRandomStream s = stream.clone();
+      process.setStream (s);
+      int n = process.getNbObservationTimes() + 1;
+      int sub = 0;          // Current substream of s
+      int b;
+      while (error.get() == null && (b = next.getAndIncrement()) < numBatches) {
+         int lo = b * BATCH;
+         int hi = Math.min (k, lo + BATCH);
+         for (; sub < first + lo; sub++)
+            s.resetNextSubstream();
+         for (int i = lo; i < hi; i++) {
+            double[] path = process.generatePath();
+            if (paths != null)
+               System.arraycopy (path, 0, paths, i*n, n);
+            else
+               consumer.accept (first + i, path);
+            s.resetNextSubstream();
+            sub++;
+         }
+      }
+   }
+}
@@ -164,6 +164,52 @@ public abstract class StochasticProcess  {
     }
 
 
+   /**
+    * Generates <SPAN CLASS="MATH"><I>k</I></SPAN> sample paths, one after the other, as <SPAN CLASS="MATH"><I>k</I></SPAN> calls to
+    * <TT>generatePath()</TT> would do, and stores them one after the other in
+    * <TT>paths</TT>: the observation <SPAN CLASS="MATH"><I>X</I>(<I>t</I><SUB>j</SUB>)</SPAN> of the <SPAN CLASS="MATH"><I>i</I></SPAN>th path, for
+    * <SPAN CLASS="MATH"><I>i</I> = 0,&#8230;, <I>k</I> - 1</SPAN>, is stored in <TT>paths[start + i*(d+1) + j]</TT>.
+    * The array <TT>paths</TT> must have at least <TT>start + k*(d+1)</TT>
+    * elements. Subclasses may override this method to generate the paths
+    * faster, but they must give the same paths.
+    * 
+    * @param paths array receiving the paths
+    * 
+    *    @param start index of the first element used in <TT>paths</TT>
+    * 
+    *    @param k number of paths to generate
+    * 
+    * 
+    */
+   public void generatePaths (double[] paths, int start, int k)  {
+        if (k < 0)
+            throw new IllegalArgumentException ("k < 0");
+        int n = d + 1;
+        for (int i = 0; i < k; i++) {
+            System.arraycopy (generatePath(), 0, paths, start + i*n, n);
+        }
+    }
+
+
+   /**
+    * Generates <SPAN CLASS="MATH"><I>k</I></SPAN> sample paths, one after the other, as <SPAN CLASS="MATH"><I>k</I></SPAN> calls to
+    * <TT>generatePath()</TT> would do, and passes each of them, with its number
+    * <SPAN CLASS="MATH"><I>i</I></SPAN>, to <TT>consumer</TT> as soon as it is generated.
+    * 
+    * @param k number of paths to generate
+    * 
+    *    @param consumer receives the paths
+    * 
+    * 
+    */
+   public void generatePaths (int k, PathConsumer consumer)  {
+        if (k < 0)
+            throw new IllegalArgumentException ("k < 0");
+        for (int i = 0; i < k; i++)
+            consumer.accept (i, generatePath());
+    }
+
+
    /**
     * Returns a <SPAN  CLASS="textit">reference</SPAN> to the last generated sample path
     * 
@@ -0,0 +1,50 @@
+
+
+/*
+ * Class:        StochasticProcessFactory
+ * Description:  constructs the processes used by a PathRunner
+ * Environment:  Java
+ * Software:     SSJ
+ * Copyright (C) 2001  Pierre L'Ecuyer and Université de Montréal
+ * Organization: DIRO, Université de Montréal
+ * @author
+ * @since
+
+ * SSJ is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License (GPL) as published by the
+ * Free Software Foundation, either version 3 of the License, or
+ * any later version.
+
+ * SSJ is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+
+ * A copy of the GNU General Public License is available at
+   <a href="http://www.gnu.org/licenses">GPL licence site</a>.
+ */
+
+package umontreal.iro.lecuyer.stochprocess;
+
+
+/**
+ * Constructs the {@link StochasticProcess} objects used by a
+ * {@link PathRunner}, one for each thread generating paths, so that the
+ * state of a process is never shared between threads.
+ *
+ */
+public interface StochasticProcessFactory {
+
+
+   /**
+    * Constructs and returns a new process, with its parameters and
+    * observation times set. The process must share no modifiable state with
+    * the other ones; in particular, each one must have its own random
+    * variate generators.
+    *
+    * @return the new process.
+    *
+    */
+   public StochasticProcess newInstance();
+
+}
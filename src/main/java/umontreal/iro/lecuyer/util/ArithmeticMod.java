@@ -25,6 +25,8 @@
 
 package umontreal.iro.lecuyer.util;
 
+import java.math.BigInteger;
+
 
 /**
  * This class provides facilities to compute multiplications of scalars, of
@@ -224,6 +226,56 @@ public class ArithmeticMod  {
    } 
 
 
+   /**
+    * Computes 
+    * <SPAN CLASS="MATH"><TT>A</TT><SUP>c</SUP> mod <I>m</I></SPAN> for an arbitrarily large
+    *   exponent 
+    * <SPAN CLASS="MATH"><I>c</I> &gt;= 0</SPAN>, with 
+    * <SPAN CLASS="MATH"><I>O</I>(log <I>c</I>)</SPAN> matrix multiplications,
+    *   and puts the result in <TT>B</TT>. The elements of <TT>A</TT> may be
+    *   negative. Works even if <TT>A</TT> = <TT>B</TT>.
+    * 
+    * @param A the matrix to raise to a power
+    * 
+    *   @param B the result of the exponentiation
+    * 
+    *   @param m the modulus
+    * 
+    *   @param c the exponent
+    * 
+    *   @exception IllegalArgumentException if <TT>c</TT> is negative.
+    * 
+    * 
+    */
+   public static void matPowModM (double A[][], double B[][], double m,
+                                  BigInteger c)  {
+      int i, j;
+      int s = A.length;   //we suppose that A is square
+      double W[][] = new double[s][s];
+
+      if (c.signum() < 0)
+         throw new IllegalArgumentException ("The exponent must not be negative");
+      /* initialize: W = A mod m; B = I */
+      for (i = 0; i < s; i++) {
+         for (j = 0; j < s;  ++j)  {
+            W[i][j] = A[i][j] % m;
+            if (W[i][j] < 0)
+               W[i][j] += m;
+            B[i][j] = 0.0;
+         }
+      }
+      for (j = 0; j < s;  ++j)
+         B[j][j] = 1.0;
+
+      /* Compute B = A^c mod m using the binary decomp. of c */
+      for (i = 0; i < c.bitLength(); i++) {
+         if (c.testBit (i))
+            matMatModM (W, B, B, m);
+         matMatModM (W, W, W, m);
+      }
+   } 
+
+
    /**
     * Computes 
     * <SPAN CLASS="MATH">(<I>a</I>&#215;<I>s</I> + <I>c</I>) mod <I>m</I></SPAN>. Works also if <TT>s</TT> 
@@ -381,6 +433,50 @@ public class ArithmeticMod  {
    } 
 
 
+   /**
+    * Exactly like {@link #matPowModM(double[][], double[][],
+    *     double, BigInteger) matPowModM} using <TT>double</TT>, but with <TT>int</TT> instead
+    *   of <TT>double</TT>.
+    * 
+    * @param A the matrix to raise to a power
+    * 
+    *   @param B the result of the exponentiation
+    * 
+    *   @param m the modulus
+    * 
+    *   @param c the exponent
+    * 
+    * 
+    */
+   public static void matPowModM (int A[][], int B[][], int m,
+                                  BigInteger c)  {
+      int i, j;
+      int s = A.length;   //we suppose that A is square
+      int W[][] = new int[s][s];
+
+      if (c.signum() < 0)
+         throw new IllegalArgumentException ("The exponent must not be negative");
+      /* initialize: W = A mod m; B = I */
+      for (i = 0; i < s; i++) {
+         for (j = 0; j < s;  ++j)  {
+            W[i][j] = A[i][j] % m;
+            if (W[i][j] < 0)
+               W[i][j] += m;
+            B[i][j] = 0;
+         }
+      }
+      for (j = 0; j < s;  ++j)
+         B[j][j] = 1;
+
+      /* Compute B = A^c mod m using the binary decomp. of c */
+      for (i = 0; i < c.bitLength(); i++) {
+         if (c.testBit (i))
+            matMatModM (W, B, B, m);
+         matMatModM (W, W, W, m);
+      }
+   } 
+
+
    /**
     * Computes 
     * <SPAN CLASS="MATH">(<I>a</I>&#215;<I>s</I> + <I>c</I>) mod <I>m</I></SPAN>. Works also if <TT>s</TT> 
@@ -591,5 +687,49 @@ public class ArithmeticMod  {
    } 
 
 
+   /**
+    * Exactly like {@link #matPowModM(double[][], double[][],
+    *     double, BigInteger) matPowModM} using <TT>double</TT>, but with <TT>long</TT> instead
+    *   of <TT>double</TT>.
+    * 
+    * @param A the matrix to raise to a power
+    * 
+    *   @param B the result of the exponentiation
+    * 
+    *   @param m the modulus
+    * 
+    *   @param c the exponent
+    * 
+    * 
+    */
+   public static void matPowModM (long A[][], long B[][], long m,
+                                  BigInteger c)  {
+      int i, j;
+      int s = A.length;   //we suppose that A is square
+      long W[][] = new long[s][s];
+
+      if (c.signum() < 0)
+         throw new IllegalArgumentException ("The exponent must not be negative");
+      /* initialize: W = A mod m; B = I */
+      for (i = 0; i < s; i++) {
+         for (j = 0; j < s;  ++j)  {
+            W[i][j] = A[i][j] % m;
+            if (W[i][j] < 0)
+               W[i][j] += m;
+            B[i][j] = 0;
+         }
+      }
+      for (j = 0; j < s;  ++j)
+         B[j][j] = 1;
+
+      /* Compute B = A^c mod m using the binary decomp. of c */
+      for (i = 0; i < c.bitLength(); i++) {
+         if (c.testBit (i))
+            matMatModM (W, B, B, m);
+         matMatModM (W, W, W, m);
+      }
+   } 
+
+
 }
 